@@ -7,9 +7,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDtoBulk;
 import ru.practicum.shareit.booking.dto.BookingDtoPartial;
 import ru.practicum.shareit.client.BaseClient;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.Map;
 
 @Service
@@ -30,6 +33,14 @@ public class BookingClient extends BaseClient {
         return post("", userId, booking);
     }
 
+    public ResponseEntity<Object> submitBooking(BookingDtoPartial booking, Long userId) {
+        return post("/intake", userId, booking);
+    }
+
+    public ResponseEntity<Object> getIntake(String intakeId, Long userId) {
+        return get("/intake/" + intakeId, userId);
+    }
+
     public ResponseEntity<Object> getBookingById(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
@@ -41,6 +52,13 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    public ResponseEntity<Object> updateBookings(BookingDtoBulk bookings, Long userId, Boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        return patch("/bulk?approved={approved}", userId, parameters, bookings);
+    }
+
     public ResponseEntity<Object> getAllBookings(Long userId, String state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
@@ -58,4 +76,8 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
+
+    public void exportOwnerBookings(Long userId, String format, HttpServletResponse response) throws IOException {
+        getStream("/owner/export?format={format}", userId, Map.of("format", format), response);
+    }
 }
@@ -5,9 +5,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDtoBulk;
 import ru.practicum.shareit.booking.dto.BookingDtoPartial;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -24,6 +27,20 @@ public class BookingController {
         return bookingClient.addBooking(booking, userId);
     }
 
+    @PostMapping("/intake")
+    public ResponseEntity<Object> submitBooking(@Valid @RequestBody BookingDtoPartial booking,
+                                                @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен POST запрос на постановку бронирования в очередь: {}, пользователем: {}", booking, userId);
+        return bookingClient.submitBooking(booking, userId);
+    }
+
+    @GetMapping("/intake/{intakeId}")
+    public ResponseEntity<Object> getIntake(@PathVariable String intakeId,
+                                            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен GET запрос на статус заявки на бронирование: {} пользователем: {}", intakeId, userId);
+        return bookingClient.getIntake(intakeId, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> updateBooking(@PathVariable Long bookingId,
                                                 @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -32,6 +49,15 @@ public class BookingController {
         return bookingClient.updateBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<Object> updateBookings(@Valid @RequestBody BookingDtoBulk bookings,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @RequestParam Boolean approved) {
+        log.info("Получен PATCH запрос на обновление бронирований: {} пользователем: {}, одобрено: {}",
+                bookings.getBookingIds(), userId, approved);
+        return bookingClient.updateBookings(bookings, userId, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBookingById(@PathVariable Long bookingId,
                                                  @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -58,4 +84,12 @@ public class BookingController {
                 "с параметрами from={} & size= {}.", userId, state, from, size);
         return bookingClient.getAllBookingsOwner(userId, state, from, size);
     }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                    @RequestParam(defaultValue = "csv") String format,
+                                    HttpServletResponse response) throws IOException {
+        log.info("Получен GET запрос на выгрузку бронирований владельца: {} в формате: {}", userId, format);
+        bookingClient.exportOwnerBookings(userId, format, response);
+    }
 }
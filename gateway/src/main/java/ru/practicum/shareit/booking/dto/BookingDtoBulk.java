@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookingDtoBulk {
+    @NotEmpty(message = "Список бронирований не может быть пустым.")
+    @Size(max = 100, message = "За один запрос можно обработать не более 100 бронирований.")
+    private List<@NotNull Long> bookingIds;
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.changes;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+
+import java.util.Map;
+
+@Service
+public class ChangesClient extends BaseClient {
+    private static final String API_PREFIX = "/changes";
+
+    @Autowired
+    public ChangesClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .build()
+        );
+    }
+
+    public ResponseEntity<Object> getChanges(Long userId, Long since, Integer limit) {
+        Map<String, Object> parameters = Map.of(
+                "since", since,
+                "limit", limit
+        );
+        return get("?since={since}&limit={limit}", userId, parameters);
+    }
+}
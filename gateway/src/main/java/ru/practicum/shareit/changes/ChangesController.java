@@ -0,0 +1,24 @@
+package ru.practicum.shareit.changes;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ChangesController {
+    private final ChangesClient changesClient;
+
+    @GetMapping("/changes")
+    public ResponseEntity<Object> getChanges(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                             @RequestParam(defaultValue = "0") Long since,
+                                             @RequestParam(defaultValue = "500") Integer limit) {
+        log.info("Получен GET запрос на изменения для пользователя: {} после курсора: {}, лимит: {}", userId, since, limit);
+        return changesClient.getChanges(userId, since, limit);
+    }
+}
@@ -2,9 +2,15 @@ package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -81,6 +87,86 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Передает тело запроса на сервер потоком, без чтения его в память шлюза.
+     */
+    protected ResponseEntity<Object> postStream(String path, Long userId, MediaType contentType, InputStream body) {
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.execute(path, HttpMethod.POST, request -> {
+                request.getHeaders().putAll(defaultHeaders(userId));
+                request.getHeaders().setContentType(contentType);
+                StreamUtils.copy(body, request.getBody());
+            }, rest.responseEntityExtractor(Object.class));
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    /**
+     * Копирует ответ сервера в ответ шлюза потоком: выгрузка любого размера не читается в память шлюза.
+     */
+    protected void getStream(String path, Long userId, Map<String, Object> parameters,
+                             HttpServletResponse response) throws IOException {
+        try {
+            rest.execute(path, HttpMethod.GET, request -> {
+                request.getHeaders().putAll(defaultHeaders(userId));
+                request.getHeaders().setAccept(List.of(MediaType.ALL));
+            }, serverResponse -> {
+                response.setStatus(serverResponse.getRawStatusCode());
+                HttpHeaders headers = serverResponse.getHeaders();
+                if (headers.getContentType() != null) {
+                    response.setContentType(headers.getContentType().toString());
+                }
+                if (headers.containsKey(HttpHeaders.CONTENT_DISPOSITION)) {
+                    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, headers.getFirst(HttpHeaders.CONTENT_DISPOSITION));
+                }
+                StreamUtils.copy(serverResponse.getBody(), response.getOutputStream());
+                return null;
+            }, parameters);
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    /**
+     * Проксирует поток server-sent events: каждый прочитанный фрагмент сразу сбрасывается клиенту.
+     * Отключение клиента обрывает копирование, и RestTemplate закрывает соединение с сервером.
+     */
+    protected void getEventStream(String path, Long userId, HttpServletResponse response) throws IOException {
+        try {
+            rest.execute(path, HttpMethod.GET, request -> {
+                request.getHeaders().putAll(defaultHeaders(userId));
+                request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+            }, serverResponse -> {
+                response.setStatus(serverResponse.getRawStatusCode());
+                response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+                response.flushBuffer();
+                InputStream in = serverResponse.getBody();
+                OutputStream out = response.getOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+                return null;
+            });
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        } catch (ResourceAccessException e) {
+            if (!response.isCommitted()) {
+                throw e;
+            }
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
                                                           @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.feed;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Service
+public class FeedClient extends BaseClient {
+    private static final String API_PREFIX = "/feed";
+
+    @Autowired
+    public FeedClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .build()
+        );
+    }
+
+    public void subscribe(Long userId, HttpServletResponse response) throws IOException {
+        getEventStream("", userId, response);
+    }
+}
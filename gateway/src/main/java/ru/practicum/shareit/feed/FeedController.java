@@ -0,0 +1,24 @@
+package ru.practicum.shareit.feed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class FeedController {
+    private final FeedClient feedClient;
+
+    @GetMapping("/feed")
+    public void subscribe(@RequestHeader("X-Sharer-User-Id") Long userId,
+                          HttpServletResponse response) throws IOException {
+        log.info("Получен GET запрос на подписку на ленту событий пользователем: {}", userId);
+        feedClient.subscribe(userId, response);
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -11,6 +12,9 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDtoPartial;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 @Service
@@ -22,11 +26,24 @@ public class ItemClient extends BaseClient {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(ItemClient::streamingRequestFactory)
                         .build()
         );
     }
 
+    /**
+     * Без буферизации тела запроса, чтобы импорт NDJSON шел на сервер потоком.
+     */
+    private static HttpComponentsClientHttpRequestFactory streamingRequestFactory() {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
+        factory.setBufferRequestBody(false);
+        return factory;
+    }
+
+    public ResponseEntity<Object> importItems(InputStream body, Long userId) {
+        return postStream("/import", userId, MediaType.APPLICATION_NDJSON, body);
+    }
+
     public ResponseEntity<Object> addItem(ItemDto item, Long userId) {
         return post("", userId, item);
     }
@@ -56,7 +73,26 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
+    public ResponseEntity<Object> getPopularItems(Integer size) {
+        return get("/popular?size={size}", null, Map.of("size", size));
+    }
+
+    public ResponseEntity<Object> getComments(Long itemId, Long userId, String cursor, Integer size) {
+        if (cursor == null) {
+            return get("/" + itemId + "/comments?size={size}", userId, Map.of("size", size));
+        }
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/" + itemId + "/comments?cursor={cursor}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> addComment(Long itemId, Long userId, CommentDtoPartial comment) {
         return post("/" + itemId + "/comment", userId, comment);
     }
+
+    public void exportOwnerItems(Long userId, String format, HttpServletResponse response) throws IOException {
+        getStream("/export?format={format}", userId, Map.of("format", format), response);
+    }
 }
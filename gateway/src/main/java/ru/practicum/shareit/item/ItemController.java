@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -10,7 +11,10 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.utilities.Create;
 import ru.practicum.shareit.utilities.Update;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/items")
@@ -27,6 +31,13 @@ public class ItemController {
         return itemClient.addItem(item, userId);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              InputStream body) {
+        log.info("Получен POST запрос на импорт вещей пользователем: {}", userId);
+        return itemClient.importItems(body, userId);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@PathVariable Long itemId,
                                              @Validated(Update.class) @RequestBody ItemDto item,
@@ -52,6 +63,14 @@ public class ItemController {
         return itemClient.getAllItems(userId, from, size);
     }
 
+    @GetMapping("/export")
+    public void exportOwnerItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                 @RequestParam(defaultValue = "csv") String format,
+                                 HttpServletResponse response) throws IOException {
+        log.info("Получен GET запрос на выгрузку вещей владельца: {} в формате: {}", userId, format);
+        itemClient.exportOwnerItems(userId, format, response);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(@RequestParam(defaultValue = "") String text,
                                               @RequestParam(required = false, defaultValue = "0") final Integer from,
@@ -61,6 +80,22 @@ public class ItemController {
         return itemClient.searchItems(text, from, size);
     }
 
+    @GetMapping("/popular")
+    public ResponseEntity<Object> getPopularItems(@RequestParam(required = false, defaultValue = "10") final Integer size) {
+        log.info("Получен GET запрос на популярные вещи с параметром size= {}.", size);
+        return itemClient.getPopularItems(size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                              @RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false, defaultValue = "20") final Integer size) {
+        log.info("Получен GET запрос на комментарии вещи: {} пользователем: {} с параметрами cursor={} & size= {}.",
+                itemId, userId, cursor, size);
+        return itemClient.getComments(itemId, userId, cursor, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@PathVariable Long itemId,
                                              @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -45,4 +45,8 @@ public class ItemRequestClient extends BaseClient {
     public ResponseEntity<Object> getRequestById(Long requestId, Long userId) {
         return get("/" + requestId, userId);
     }
+
+    public ResponseEntity<Object> getSuggestions(Long requestId, Long userId) {
+        return get("/" + requestId + "/suggestions", userId);
+    }
 }
@@ -45,4 +45,11 @@ public class ItemRequestController {
         log.info("Получен GET запрос на нахождение запроса по ID: {} пользователем по ID: {}", requestId, userId);
         return itemRequestClient.getRequestById(requestId, userId);
     }
+
+    @GetMapping("/{requestId}/suggestions")
+    public ResponseEntity<Object> getSuggestions(@PathVariable Long requestId,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен GET запрос на подсказки вещей для запроса: {} пользователем: {}", requestId, userId);
+        return itemRequestClient.getSuggestions(requestId, userId);
+    }
 }
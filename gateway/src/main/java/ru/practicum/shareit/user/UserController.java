@@ -9,6 +9,9 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.utilities.Create;
 import ru.practicum.shareit.utilities.Update;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -24,9 +27,17 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
-        log.info("Получен GET запрос на нахождение всех пользователей");
-        return userClient.getAllUsers();
+    public ResponseEntity<Object> getUsers(@RequestParam(required = false, defaultValue = "0") final Integer from,
+                                           @RequestParam(required = false, defaultValue = "100") final Integer size) {
+        log.info("Получен GET запрос на нахождение всех пользователей с параметрами from={} & size= {}.", from, size);
+        return userClient.getAllUsers(from, size);
+    }
+
+    @GetMapping("/export")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        log.info("Получен GET запрос на выгрузку всех пользователей в формате: {}", format);
+        userClient.exportUsers(format, response);
     }
 
     @GetMapping("/{userId}")
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.loader;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Запасной вариант для баз без COPY (H2): пакетный INSERT с фиксацией после каждой пачки.
+ */
+public class BatchInsertRowSink implements RowSink {
+    private final Connection connection;
+    private final PreparedStatement insert;
+    private final int batchSize;
+    private int pending;
+
+    BatchInsertRowSink(Connection connection, String table, List<String> columns, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        this.insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")");
+    }
+
+    public static RowSinkFactory factory(Connection connection, int batchSize) {
+        return (table, columns) -> new BatchInsertRowSink(connection, table, columns, batchSize);
+    }
+
+    @Override
+    public void accept(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            insert.setObject(i + 1, values[i]);
+        }
+        insert.addBatch();
+        if (++pending >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            insert.close();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pending > 0) {
+            insert.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+    }
+}
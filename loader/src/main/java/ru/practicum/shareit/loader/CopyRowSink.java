@@ -0,0 +1,96 @@
+package ru.practicum.shareit.loader;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Запись строк через COPY ... FROM STDIN в формате CSV. Строки копятся в буфере фиксированного
+ * размера и отправляются серверу кусками, так что память не зависит от объема загрузки.
+ */
+public class CopyRowSink implements RowSink {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final CopyIn copyIn;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final StringBuilder row = new StringBuilder(256);
+    private int position;
+
+    CopyRowSink(Connection connection, String table, List<String> columns) throws SQLException {
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    }
+
+    public static RowSinkFactory factory(Connection connection) {
+        return (table, columns) -> new CopyRowSink(connection, table, columns);
+    }
+
+    @Override
+    public void accept(Object... values) throws SQLException {
+        row.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            appendValue(values[i]);
+        }
+        row.append('\n');
+
+        byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+        if (position + bytes.length > buffer.length) {
+            flush();
+        }
+        if (bytes.length > buffer.length) {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            return;
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (position > 0) {
+            copyIn.writeToCopy(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String) {
+            String text = (String) value;
+            row.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    row.append('"');
+                }
+                row.append(c);
+            }
+            row.append('"');
+        } else if (value instanceof LocalDateTime) {
+            row.append(value.toString().replace('T', ' '));
+        } else {
+            row.append(value);
+        }
+    }
+}
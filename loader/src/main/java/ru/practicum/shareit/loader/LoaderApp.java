@@ -0,0 +1,95 @@
+package ru.practicum.shareit.loader;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Загрузка синтетических данных в схему ShareIt. Для PostgreSQL строки пишутся через COPY,
+ * для остальных баз (H2) — пакетным INSERT.
+ * Запуск: mvn -pl loader compile exec:java -Dexec.args="--url=jdbc:postgresql://localhost:5432/share --items=10000000"
+ * Схему можно создать заранее параметром --schema=server/src/main/resources/schema.sql.
+ */
+@Slf4j
+public class LoaderApp {
+    private static final List<String> TABLES = List.of("users", "requests", "items", "bookings", "comments");
+
+    public static void main(String[] args) throws SQLException, IOException {
+        LoaderOptions options = LoaderOptions.parse(args);
+        long started = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(options.getUrl(), options.getUsername(),
+                options.getPassword())) {
+            if (options.getSchema() != null) {
+                runScript(connection, Path.of(options.getSchema()));
+            }
+            long[] baseIds = new long[TABLES.size()];
+            for (int i = 0; i < TABLES.size(); i++) {
+                baseIds[i] = maxId(connection, TABLES.get(i));
+            }
+
+            RowSinkFactory sinks;
+            if (options.isPostgres()) {
+                connection.setAutoCommit(true);
+                sinks = CopyRowSink.factory(connection);
+            } else {
+                connection.setAutoCommit(false);
+                sinks = BatchInsertRowSink.factory(connection, options.getBatchSize());
+            }
+            new SyntheticDataGenerator(options, sinks).generate(baseIds);
+
+            connection.setAutoCommit(true);
+            for (String table : TABLES) {
+                advanceSequence(connection, table, options.isPostgres());
+            }
+        }
+        log.info("Загрузка завершена за {} с", (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private static void runScript(Connection connection, Path script) throws IOException, SQLException {
+        String sql = Files.readString(script, StandardCharsets.UTF_8);
+        try (Statement statement = connection.createStatement()) {
+            for (String command : sql.split(";")) {
+                String trimmed = command.lines()
+                        .filter(line -> !line.trim().startsWith("--"))
+                        .reduce("", (left, right) -> left + "\n" + right)
+                        .trim();
+                if (!trimmed.isEmpty()) {
+                    statement.execute(trimmed);
+                }
+            }
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+        log.info("Схема создана из {}", script);
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Переставляет последовательность за последний id с запасом в шаг выделения (50),
+     * чтобы пул id, который сервер получит при следующем nextval, не пересекался с загруженными строками.
+     */
+    private static void advanceSequence(Connection connection, String table, boolean postgres) throws SQLException {
+        long next = maxId(connection, table) + 51;
+        String sequence = table + "_seq";
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("SELECT setval('" + sequence + "', " + (next - 1) + ")");
+            } else {
+                statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+            }
+        }
+    }
+}
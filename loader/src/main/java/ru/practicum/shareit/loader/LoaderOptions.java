@@ -0,0 +1,91 @@
+package ru.practicum.shareit.loader;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Параметры загрузки из аргументов вида --name=value.
+ */
+@Data
+public class LoaderOptions {
+    private static final Set<String> NAMES = Set.of("url", "username", "password", "schema", "users", "requests",
+            "items", "bookings", "comments", "owner-skew", "hot-item-share", "hot-traffic-share", "seed", "batch-size");
+
+    private String url = "jdbc:postgresql://localhost:5432/share";
+    private String username = "postgres";
+    private String password = "postgres";
+    private String schema;
+    private long users = 100_000;
+    private long requests = 20_000;
+    private long items = 500_000;
+    private long bookings = 2_000_000;
+    private long comments = 500_000;
+    /**
+     * Степень перекоса владельцев: 1 — равномерно, чем больше, тем сильнее вещи сосредоточены у немногих владельцев.
+     */
+    private double ownerSkew = 3.0;
+    /**
+     * Доля «горячих» вещей среди всех вещей.
+     */
+    private double hotItemShare = 0.01;
+    /**
+     * Доля бронирований и комментариев, приходящихся на горячие вещи.
+     */
+    private double hotTrafficShare = 0.5;
+    private long seed = 42;
+    private int batchSize = 5_000;
+
+    public static LoaderOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидается аргумент вида --name=value: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String name = arg.substring(2, separator);
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Неизвестный аргумент: " + name);
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+
+        LoaderOptions options = new LoaderOptions();
+        options.url = values.getOrDefault("url", options.url);
+        options.username = values.getOrDefault("username", options.username);
+        options.password = values.getOrDefault("password", options.password);
+        options.schema = values.getOrDefault("schema", options.schema);
+        options.users = parseLong(values, "users", options.users);
+        options.requests = parseLong(values, "requests", options.requests);
+        options.items = parseLong(values, "items", options.items);
+        options.bookings = parseLong(values, "bookings", options.bookings);
+        options.comments = parseLong(values, "comments", options.comments);
+        options.ownerSkew = parseDouble(values, "owner-skew", options.ownerSkew);
+        options.hotItemShare = parseDouble(values, "hot-item-share", options.hotItemShare);
+        options.hotTrafficShare = parseDouble(values, "hot-traffic-share", options.hotTrafficShare);
+        options.seed = parseLong(values, "seed", options.seed);
+        options.batchSize = (int) parseLong(values, "batch-size", options.batchSize);
+
+        if (options.users < 2) {
+            throw new IllegalArgumentException("Нужно как минимум два пользователя.");
+        }
+        if (options.users > Integer.MAX_VALUE || options.items > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Пользователей и вещей не может быть больше " + Integer.MAX_VALUE);
+        }
+        return options;
+    }
+
+    public boolean isPostgres() {
+        return url.startsWith("jdbc:postgresql:");
+    }
+
+    private static long parseLong(Map<String, String> values, String name, long defaultValue) {
+        return values.containsKey(name) ? Long.parseLong(values.get(name).replace("_", "")) : defaultValue;
+    }
+
+    private static double parseDouble(Map<String, String> values, String name, double defaultValue) {
+        return values.containsKey(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.loader;
+
+import java.sql.SQLException;
+
+/**
+ * Приемник строк одной таблицы. Порядок значений совпадает с порядком колонок, переданным при открытии.
+ */
+public interface RowSink extends AutoCloseable {
+    void accept(Object... values) throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.loader;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public interface RowSinkFactory {
+    RowSink open(String table, List<String> columns) throws SQLException;
+}
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.loader;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Генерирует пользователей, запросы, вещи, бронирования и комментарии с перекосом:
+ * вещи сосредоточены у немногих владельцев (owner-skew), а на небольшую долю «горячих» вещей
+ * приходится заметная доля бронирований и комментариев (hot-item-share, hot-traffic-share).
+ * Id назначаются подряд после уже существующих в таблицах.
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+    private static final String[] NOUNS = {
+        "Дрель", "Перфоратор", "Отвертка", "Лестница", "Палатка", "Велосипед", "Самокат", "Шуруповерт",
+        "Болгарка", "Пила", "Сапборд", "Проектор", "Фотоаппарат", "Генератор", "Мойка", "Спальник"
+    };
+    private static final String[] ADJECTIVES = {
+        "аккумуляторная", "ударная", "складная", "туристическая", "горная", "электрическая",
+        "компактная", "профессиональная", "детская", "надувная", "цифровая", "бензиновая"
+    };
+    private static final long REPORT_EVERY = 1_000_000;
+
+    private final LoaderOptions options;
+    private final RowSinkFactory sinks;
+    private final SplittableRandom random;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    public SyntheticDataGenerator(LoaderOptions options, RowSinkFactory sinks) {
+        this.options = options;
+        this.sinks = sinks;
+        this.random = new SplittableRandom(options.getSeed());
+    }
+
+    /**
+     * @param baseIds текущие максимальные id в порядке users, requests, items, bookings, comments
+     */
+    public void generate(long[] baseIds) throws SQLException {
+        long userBase = baseIds[0];
+        long requestBase = baseIds[1];
+        long itemBase = baseIds[2];
+        long bookingBase = baseIds[3];
+        long commentBase = baseIds[4];
+
+        generateUsers(userBase);
+        generateRequests(requestBase, userBase);
+        int[] itemOwners = generateItems(itemBase, userBase, requestBase);
+        generateBookings(bookingBase, itemBase, userBase, itemOwners);
+        generateComments(commentBase, itemBase, userBase, itemOwners);
+    }
+
+    private void generateUsers(long userBase) throws SQLException {
+        Progress progress = new Progress("users", options.getUsers());
+        try (RowSink sink = sinks.open("users", List.of("id", "name", "email", "email_normalized", "deleted"))) {
+            for (long i = 1; i <= options.getUsers(); i++) {
+                long id = userBase + i;
+                String email = "user" + id + "@load.shareit";
+                sink.accept(id, "user" + id, email, email, false);
+                progress.tick();
+            }
+        }
+        progress.done();
+    }
+
+    private void generateRequests(long requestBase, long userBase) throws SQLException {
+        Progress progress = new Progress("requests", options.getRequests());
+        try (RowSink sink = sinks.open("requests", List.of("id", "description", "requester_id", "created"))) {
+            for (long i = 1; i <= options.getRequests(); i++) {
+                sink.accept(requestBase + i, "Нужна " + phrase(), userBase + 1 + uniform(options.getUsers()),
+                        now.minusMinutes(random.nextLong(365L * 24 * 60)));
+                progress.tick();
+            }
+        }
+        progress.done();
+    }
+
+    private int[] generateItems(long itemBase, long userBase, long requestBase) throws SQLException {
+        int[] owners = new int[(int) options.getItems()];
+        Progress progress = new Progress("items", options.getItems());
+        try (RowSink sink = sinks.open("items",
+                List.of("id", "name", "description", "is_available", "owner_id", "request_id"))) {
+            for (int i = 0; i < owners.length; i++) {
+                owners[i] = (int) skewed(options.getUsers());
+                Long requestId = options.getRequests() > 0 && random.nextInt(10) == 0
+                        ? requestBase + 1 + uniform(options.getRequests()) : null;
+                sink.accept(itemBase + i + 1, NOUNS[random.nextInt(NOUNS.length)] + " " + (i + 1), phrase(),
+                        random.nextInt(10) > 0, userBase + 1 + owners[i], requestId);
+                progress.tick();
+            }
+        }
+        progress.done();
+        return owners;
+    }
+
+    private void generateBookings(long bookingBase, long itemBase, long userBase, int[] itemOwners) throws SQLException {
+        if (itemOwners.length == 0) {
+            return;
+        }
+        Progress progress = new Progress("bookings", options.getBookings());
+        try (RowSink sink = sinks.open("bookings",
+                List.of("id", "start_date", "end_date", "status", "item_id", "booker_id", "owner_id"))) {
+            for (long i = 1; i <= options.getBookings(); i++) {
+                int item = pickItem(itemOwners.length);
+                long owner = itemOwners[item];
+                long booker = otherUser(owner);
+                LocalDateTime start = now.minusHours(365L * 24).plusHours(random.nextLong(425L * 24));
+                LocalDateTime end = start.plusHours(1 + random.nextLong(14L * 24));
+                sink.accept(bookingBase + i, start, end, status(start), itemBase + item + 1,
+                        userBase + 1 + booker, userBase + 1 + owner);
+                progress.tick();
+            }
+        }
+        progress.done();
+    }
+
+    private void generateComments(long commentBase, long itemBase, long userBase, int[] itemOwners) throws SQLException {
+        if (itemOwners.length == 0) {
+            return;
+        }
+        Progress progress = new Progress("comments", options.getComments());
+        try (RowSink sink = sinks.open("comments", List.of("id", "text", "item_id", "author_id", "created"))) {
+            for (long i = 1; i <= options.getComments(); i++) {
+                int item = pickItem(itemOwners.length);
+                sink.accept(commentBase + i, "Отличная вещь: " + phrase(), itemBase + item + 1,
+                        userBase + 1 + otherUser(itemOwners[item]), now.minusMinutes(random.nextLong(365L * 24 * 60)));
+                progress.tick();
+            }
+        }
+        progress.done();
+    }
+
+    private String status(LocalDateTime start) {
+        int roll = random.nextInt(100);
+        if (start.isAfter(now)) {
+            return roll < 60 ? "WAITING" : roll < 95 ? "APPROVED" : "REJECTED";
+        }
+        return roll < 80 ? "APPROVED" : roll < 90 ? "REJECTED" : roll < 95 ? "CANCELED" : "EXPIRED";
+    }
+
+    private int pickItem(int items) {
+        int hot = Math.max(1, (int) (items * options.getHotItemShare()));
+        return random.nextDouble() < options.getHotTrafficShare() ? random.nextInt(hot) : random.nextInt(items);
+    }
+
+    private long otherUser(long owner) {
+        long user = uniform(options.getUsers() - 1);
+        return user >= owner ? user + 1 : user;
+    }
+
+    private long uniform(long bound) {
+        return random.nextLong(bound);
+    }
+
+    /**
+     * Индекс в [0, bound) с перекосом к началу: при ownerSkew = 1 распределение равномерное.
+     */
+    private long skewed(long bound) {
+        return Math.min(bound - 1, (long) (bound * Math.pow(random.nextDouble(), options.getOwnerSkew())));
+    }
+
+    private String phrase() {
+        return ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)].toLowerCase()
+                + ", " + ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+    }
+
+    private static class Progress {
+        private final String table;
+        private final long total;
+        private final long started = System.nanoTime();
+        private long written;
+
+        Progress(String table, long total) {
+            this.table = table;
+            this.total = total;
+        }
+
+        void tick() {
+            if (++written % REPORT_EVERY == 0) {
+                log.info("{}: {} из {} ({} строк/с)", table, written, total, rate());
+            }
+        }
+
+        void done() {
+            log.info("{}: записано {} строк ({} строк/с)", table, written, rate());
+        }
+
+        private long rate() {
+            double seconds = (System.nanoTime() - started) / 1e9;
+            return seconds > 0 ? (long) (written / seconds) : written;
+        }
+    }
+}
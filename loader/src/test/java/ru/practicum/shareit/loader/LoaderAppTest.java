@@ -0,0 +1,59 @@
+package ru.practicum.shareit.loader;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoaderAppTest {
+    @Test
+    void testBatchInsertRowSink_ShouldWriteAllRows_WhenLastBatchIncomplete() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:loader-sink", "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name varchar(100))");
+            }
+            connection.setAutoCommit(false);
+
+            try (RowSink sink = BatchInsertRowSink.factory(connection, 2).open("users", List.of("id", "name"))) {
+                sink.accept(1L, "first");
+                sink.accept(2L, "second");
+                sink.accept(3L, "third");
+            }
+            connection.rollback();
+
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM users")).isEqualTo(3);
+            assertThat(queryLong(connection, "SELECT id FROM users WHERE name = 'third'")).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void testMain_ShouldLoadRowsAndAdvanceSequences() throws Exception {
+        String url = "jdbc:h2:mem:loader-app;DB_CLOSE_DELAY=-1";
+        LoaderApp.main(new String[]{"--url=" + url, "--username=sa", "--password=",
+                "--schema=../server/src/main/resources/schema.sql", "--users=10", "--requests=3", "--items=20",
+                "--bookings=30", "--comments=5", "--batch-size=7"});
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM users")).isEqualTo(10);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM items")).isEqualTo(20);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM bookings")).isEqualTo(30);
+            // Пул id, который сервер получит следующим nextval, начинается за последней загруженной строкой.
+            assertThat(queryLong(connection, "SELECT NEXT VALUE FOR items_seq")).isEqualTo(20 + 51);
+            assertThat(queryLong(connection, "SELECT NEXT VALUE FOR bookings_seq")).isEqualTo(30 + 51);
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
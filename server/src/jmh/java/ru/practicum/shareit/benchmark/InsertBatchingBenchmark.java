@@ -0,0 +1,198 @@
+package ru.practicum.shareit.benchmark;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.openjdk.jmh.annotations.*;
+
+import javax.persistence.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вставка вещей через Hibernate так же, как saveAll репозитория: для новых сущностей SimpleJpaRepository
+ * вызывает persist по одной, а пакеты формирует сессия при flush.
+ * IDENTITY - ключ возвращает сама вставка, поэтому Hibernate выполняет ее сразу и не пакетирует;
+ * SEQUENCE - последовательность с шагом 1, отдельный запрос за каждым id;
+ * POOLED - шаг 50 и оптимизатор pooled, как в сущностях приложения.
+ * К каждой вещи сохраняется заметка: без order_inserts вставки двух таблиц чередуются и пакет прерывается на каждой смене.
+ * Результат в вещах в секунду.
+ * Запуск: mvn -pl server -P benchmark test-compile exec:java -Dexec.args="InsertBatchingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBatchingBenchmark {
+    private static final int ROWS_PER_TRANSACTION = 1000;
+
+    @Param({"IDENTITY", "SEQUENCE", "POOLED"})
+    private IdMapping mapping;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"false", "true"})
+    private boolean orderInserts;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.URL, "jdbc:h2:mem:insert-benchmark;DB_CLOSE_DELAY=-1")
+                .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize)
+                .applySetting(AvailableSettings.ORDER_INSERTS, orderInserts)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(IdentityItem.class)
+                .addAnnotatedClass(IdentityNote.class)
+                .addAnnotatedClass(SequenceItem.class)
+                .addAnnotatedClass(SequenceNote.class)
+                .addAnnotatedClass(PooledItem.class)
+                .addAnnotatedClass(PooledNote.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TRANSACTION)
+    public Object saveAll() {
+        Object last = null;
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+                BenchItem item = mapping.newItem();
+                item.name = "Дрель " + i;
+                item.description = "Аккумуляторная дрель с набором бит " + i;
+                item.available = true;
+                item.ownerId = (long) (i % 100);
+                session.persist(item);
+                BenchNote note = mapping.newNote();
+                note.text = "Проверена " + i;
+                session.persist(note);
+                last = note;
+            }
+            transaction.commit();
+        }
+        return last;
+    }
+
+    public enum IdMapping {
+        IDENTITY {
+            @Override
+            BenchItem newItem() {
+                return new IdentityItem();
+            }
+
+            @Override
+            BenchNote newNote() {
+                return new IdentityNote();
+            }
+        },
+        SEQUENCE {
+            @Override
+            BenchItem newItem() {
+                return new SequenceItem();
+            }
+
+            @Override
+            BenchNote newNote() {
+                return new SequenceNote();
+            }
+        },
+        POOLED {
+            @Override
+            BenchItem newItem() {
+                return new PooledItem();
+            }
+
+            @Override
+            BenchNote newNote() {
+                return new PooledNote();
+            }
+        };
+
+        abstract BenchItem newItem();
+
+        abstract BenchNote newNote();
+    }
+
+    @MappedSuperclass
+    public abstract static class BenchItem {
+        String name;
+        String description;
+        boolean available;
+        Long ownerId;
+    }
+
+    @MappedSuperclass
+    public abstract static class BenchNote {
+        String text;
+    }
+
+    @Entity
+    @Table(name = "items_identity")
+    public static class IdentityItem extends BenchItem {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+    }
+
+    @Entity
+    @Table(name = "notes_identity")
+    public static class IdentityNote extends BenchNote {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+    }
+
+    @Entity
+    @Table(name = "items_sequence")
+    public static class SequenceItem extends BenchItem {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_sequence_seq")
+        @SequenceGenerator(name = "items_sequence_seq", sequenceName = "items_sequence_seq", allocationSize = 1)
+        Long id;
+    }
+
+    @Entity
+    @Table(name = "notes_sequence")
+    public static class SequenceNote extends BenchNote {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_sequence_seq")
+        @SequenceGenerator(name = "notes_sequence_seq", sequenceName = "notes_sequence_seq", allocationSize = 1)
+        Long id;
+    }
+
+    @Entity
+    @Table(name = "items_pooled")
+    public static class PooledItem extends BenchItem {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_pooled_seq")
+        @SequenceGenerator(name = "items_pooled_seq", sequenceName = "items_pooled_seq", allocationSize = 50)
+        Long id;
+    }
+
+    @Entity
+    @Table(name = "notes_pooled")
+    public static class PooledNote extends BenchNote {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_pooled_seq")
+        @SequenceGenerator(name = "notes_pooled_seq", sequenceName = "notes_pooled_seq", allocationSize = 50)
+        Long id;
+    }
+}
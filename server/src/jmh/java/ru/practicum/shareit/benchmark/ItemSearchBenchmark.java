@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemInMemoryStorage;
+import ru.practicum.shareit.storage.FsyncPolicy;
+import ru.practicum.shareit.storage.StorageJournal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сравнение поиска по заранее свернутому тексту с прежней реализацией через toLowerCase.
+ * Запуск: mvn -pl server -P benchmark test-compile exec:java -Dexec.args="ItemSearchBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final String[] WORDS = {
+        "Дрель", "перфоратор", "Отвертка", "лестница", "Палатка", "велосипед", "Самокат", "шуруповерт",
+        "Drill", "ladder", "Tent", "bicycle", "Scooter", "аккумуляторная", "Ударная", "складная"
+    };
+
+    @Param({"1000", "100000"})
+    private int catalogSize;
+
+    @Param({"дрель", "АККУМУЛЯТОР", "missing"})
+    private String query;
+
+    private List<Item> legacyItems;
+    private ItemInMemoryStorage storage;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StorageJournal journal = new StorageJournal(false, "target/benchmark-journal", FsyncPolicy.INTERVAL,
+                Duration.ofSeconds(1), 1024, Duration.ofSeconds(5));
+        storage = new ItemInMemoryStorage(journal, 10_000);
+        legacyItems = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            Item item = Item.builder()
+                    .name(phrase(random, 2) + " " + i)
+                    .description(phrase(random, 8))
+                    .available(random.nextInt(10) > 0)
+                    .build();
+            legacyItems.add(storage.addItem(item, (long) random.nextInt(1000)));
+        }
+    }
+
+    @Benchmark
+    public List<Item> legacyToLowerCase() {
+        return legacyItems.stream()
+                .filter(i -> i.getAvailable()
+                        && (i.getName().toLowerCase().contains(query.toLowerCase())
+                        || i.getDescription().toLowerCase().contains(query.toLowerCase())))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Item> preNormalized() {
+        return storage.searchItems(query);
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
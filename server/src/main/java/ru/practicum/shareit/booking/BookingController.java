@@ -4,6 +4,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoBulk;
+import ru.practicum.shareit.booking.dto.BookingDtoBulkResult;
 import ru.practicum.shareit.booking.dto.BookingDtoPartial;
 import ru.practicum.shareit.booking.service.BookingService;
 import org.springframework.data.domain.PageRequest;
@@ -38,6 +40,15 @@ public class BookingController {
         return bookingService.updateBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public List<BookingDtoBulkResult> updateBookings(@Valid @RequestBody BookingDtoBulk bookings,
+                                                     @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @RequestParam Boolean approved) {
+        log.info("Получен PATCH запрос на обновление бронирований: {} пользователем: {}, одобрено: {}",
+                bookings.getBookingIds(), userId, approved);
+        return bookingService.updateBookings(bookings.getBookingIds(), userId, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@PathVariable Long bookingId,
                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDtoPartial;
+import ru.practicum.shareit.booking.dto.BookingIntakeDto;
+import ru.practicum.shareit.booking.service.BookingIntakeService;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping(path = "/bookings/intake")
+@ConditionalOnProperty(name = "shareit.booking.intake.enabled", havingValue = "true")
+@Slf4j
+public class BookingIntakeController {
+    private final BookingIntakeService bookingIntakeService;
+
+    @Autowired
+    public BookingIntakeController(BookingIntakeService bookingIntakeService) {
+        this.bookingIntakeService = bookingIntakeService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public BookingIntakeDto submitBooking(@Valid @RequestBody BookingDtoPartial booking,
+                                          @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен POST запрос на постановку бронирования в очередь: {}, пользователем: {}", booking, userId);
+        return bookingIntakeService.submit(booking, userId);
+    }
+
+    @GetMapping("/{intakeId}")
+    public BookingIntakeDto getIntake(@PathVariable String intakeId,
+                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен GET запрос на статус заявки на бронирование: {} пользователем: {}", intakeId, userId);
+        return bookingIntakeService.getIntake(intakeId, userId);
+    }
+}
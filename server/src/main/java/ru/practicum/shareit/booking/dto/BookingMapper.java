@@ -33,6 +33,7 @@ public class BookingMapper {
                     .end(bookingDto.getEnd())
                     .item(item)
                     .booker(user)
+                    .ownerId(item != null ? item.getOwner() : null)
                     .status(bookingDto.getStatus())
                     .build();
         } else {
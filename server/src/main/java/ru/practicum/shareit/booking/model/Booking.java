@@ -12,11 +12,17 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_status_start", columnList = "status, start_date"),
+        @Index(name = "idx_bookings_owner_start", columnList = "owner_id, start_date"),
+        @Index(name = "idx_bookings_status_end", columnList = "status, end_date"),
+        @Index(name = "idx_bookings_item_booker_end", columnList = "item_id, booker_id, end_date")
+})
 public class Booking {
     @EqualsAndHashCode.Exclude
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date")
@@ -35,6 +41,9 @@ public class Booking {
     @ToString.Exclude
     private User booker;
 
+    @Column(name = "owner_id")
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private BookingStatus status;
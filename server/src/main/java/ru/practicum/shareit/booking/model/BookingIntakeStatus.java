@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.model;
+
+public enum BookingIntakeStatus {
+    QUEUED,
+    CREATED,
+    FAILED
+}
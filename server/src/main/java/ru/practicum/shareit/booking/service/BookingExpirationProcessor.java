@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.outbox.dto.BookingEvent;
+import ru.practicum.shareit.outbox.dto.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Переводит бронирования, оставшиеся в статусе WAITING после начала аренды, в статус EXPIRED.
+ * Обработка идет пачками ограниченного размера, каждая пачка в отдельной транзакции.
+ */
+@Component
+@Slf4j
+public class BookingExpirationProcessor {
+    private final BookingRepository bookingRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration gracePeriod;
+    private final AtomicLong backlog = new AtomicLong();
+    private final Timer batchTimer;
+    private final Counter expiredCounter;
+
+    @Autowired
+    public BookingExpirationProcessor(BookingRepository bookingRepository,
+                                      OutboxPublisher outboxPublisher,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${shareit.booking.expiration.batch-size:500}") int batchSize,
+                                      @Value("${shareit.booking.expiration.max-batches-per-run:20}") int maxBatchesPerRun,
+                                      @Value("${shareit.booking.expiration.grace-period:PT1H}") Duration gracePeriod) {
+        this.bookingRepository = bookingRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.gracePeriod = gracePeriod;
+        this.batchTimer = Timer.builder("shareit.booking.expiration.batch")
+                .description("Время обработки одной пачки истекших бронирований")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("shareit.booking.expiration.expired")
+                .description("Количество бронирований, переведенных в статус EXPIRED")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.expiration.backlog", backlog, AtomicLong::get)
+                .description("Количество бронирований WAITING, ожидающих перевода в EXPIRED")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiration.interval:PT1M}",
+            initialDelayString = "${shareit.booking.expiration.initial-delay:PT1M}")
+    public void expireStaleBookings() {
+        LocalDateTime threshold = LocalDateTime.now().minus(gracePeriod);
+        int expired = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int processed = batchTimer.record(() -> expireBatch(threshold));
+            expired += processed;
+            if (processed < batchSize) {
+                break;
+            }
+        }
+        backlog.set(bookingRepository.countByStatusAndStartBefore(BookingStatus.WAITING, threshold));
+        if (expired > 0) {
+            log.info("Бронирований переведено в статус EXPIRED: {}, осталось в очереди: {}", expired, backlog.get());
+        }
+    }
+
+    private int expireBatch(LocalDateTime threshold) {
+        Integer result = transactionTemplate.execute(status -> {
+            List<Long> ids = bookingRepository.findIdsByStatusAndStartBefore(BookingStatus.WAITING, threshold,
+                    PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            int updated = bookingRepository.updateBookingStatusByIdsAndStatus(ids, BookingStatus.WAITING,
+                    BookingStatus.EXPIRED);
+            expiredCounter.increment(updated);
+            // Перечитываем после обновления: строки, которые владелец успел подтвердить, остаются в своем статусе.
+            for (Booking booking : bookingRepository.findAllByIdInWithItem(ids)) {
+                if (booking.getStatus() == BookingStatus.EXPIRED) {
+                    BookingEvent event = OutboxEventMapper.toBookingEvent(booking);
+                    outboxPublisher.publish(OutboxEventType.BOOKING_EXPIRED, booking.getId(), event,
+                            OutboxEventMapper.toAudience(event));
+                }
+            }
+            return ids.size();
+        });
+        return result != null ? result : 0;
+    }
+}
@@ -0,0 +1,279 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoPartial;
+import ru.practicum.shareit.booking.dto.BookingIntakeDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingIntakeStatus;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ServiceUnavailableException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.dto.BookingEvent;
+import ru.practicum.shareit.outbox.dto.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Прием бронирований через ограниченную очередь для пиковой нагрузки.
+ * Запрос проверяется без обращения к базе и ставится в очередь; пул обработчиков забирает заявки пачками,
+ * загружает пользователей и вещи одним запросом на пачку и сохраняет бронирования в одной транзакции.
+ */
+@Service
+@ConditionalOnProperty(name = "shareit.booking.intake.enabled", havingValue = "true")
+@Slf4j
+public class BookingIntakeService {
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final ItemPopularityService itemPopularityService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<IntakeTask> queue;
+    private final Map<String, IntakeTask> tasks = new ConcurrentHashMap<>();
+    private final int workers;
+    private final int batchSize;
+    private final Duration retention;
+    private final ExecutorService executor;
+    private final Counter rejectedCounter;
+    private final Timer batchTimer;
+
+    @Autowired
+    public BookingIntakeService(BookingService bookingService,
+                                BookingRepository bookingRepository,
+                                UserRepository userRepository,
+                                ItemRepository itemRepository,
+                                OutboxPublisher outboxPublisher,
+                                ItemPopularityService itemPopularityService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.booking.intake.queue-capacity:10000}") int queueCapacity,
+                                @Value("${shareit.booking.intake.workers:4}") int workers,
+                                @Value("${shareit.booking.intake.batch-size:100}") int batchSize,
+                                @Value("${shareit.booking.intake.retention:PT10M}") Duration retention) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.itemPopularityService = itemPopularityService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "booking-intake-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rejectedCounter = Counter.builder("shareit.booking.intake.rejected")
+                .description("Количество заявок на бронирование, отклоненных из-за заполненной очереди")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("shareit.booking.intake.batch")
+                .description("Время обработки одной пачки заявок на бронирование")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.intake.queue", queue, Collection::size)
+                .description("Количество заявок на бронирование в очереди")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public BookingIntakeDto submit(BookingDtoPartial bookingDto, Long userId) {
+        bookingService.checkValidation(bookingDto);
+        IntakeTask task = new IntakeTask(UUID.randomUUID().toString(), bookingDto, userId);
+        tasks.put(task.id, task);
+        if (!queue.offer(task)) {
+            tasks.remove(task.id);
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Очередь бронирований заполнена, повторите запрос позже.");
+        }
+        log.debug("Заявка на бронирование {} поставлена в очередь пользователем: {}", task.id, userId);
+        return task.toDto();
+    }
+
+    public BookingIntakeDto getIntake(String intakeId, Long userId) {
+        IntakeTask task = tasks.get(intakeId);
+        if (task == null || !task.userId.equals(userId)) {
+            throw new NotFoundException("Заявка на бронирование " + intakeId + " не найдена.");
+        }
+        return task.toDto();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.intake.retention:PT10M}")
+    public void evictCompleted() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        tasks.values().removeIf(task -> task.status != BookingIntakeStatus.QUEUED && task.completed.isBefore(threshold));
+    }
+
+    private void runWorker() {
+        List<IntakeTask> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                batchTimer.record(() -> processBatch(batch));
+            } catch (RuntimeException e) {
+                log.error("Ошибка обработки пачки заявок на бронирование", e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void processBatch(List<IntakeTask> batch) {
+        Map<IntakeTask, Long> created = new HashMap<>();
+        Map<IntakeTask, String> errors = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> saveBatch(batch, created, errors));
+            created.forEach((task, bookingId) -> task.complete(bookingId, null));
+            errors.forEach((task, error) -> task.complete(null, error));
+            log.info("Сохранена пачка бронирований: {}, отклонено заявок: {}", created.size(), errors.size());
+        } catch (RuntimeException e) {
+            log.warn("Пачка из {} заявок не сохранена целиком, заявки будут обработаны по одной: {}",
+                    batch.size(), e.getMessage());
+            batch.forEach(this::saveSingle);
+        }
+    }
+
+    private void saveBatch(List<IntakeTask> batch, Map<IntakeTask, Long> created, Map<IntakeTask, String> errors) {
+        Set<Long> userIds = batch.stream()
+                .map(task -> task.userId)
+                .collect(Collectors.toSet());
+        Set<Long> itemIds = batch.stream()
+                .map(task -> task.bookingDto.getItemId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Item> items = itemRepository.findAllWithActiveOwnerByIds(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<IntakeTask> accepted = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (IntakeTask task : batch) {
+            User booker = users.get(task.userId);
+            Item item = task.bookingDto.getItemId() != null ? items.get(task.bookingDto.getItemId()) : null;
+            String error = checkTask(task, booker, item);
+            if (error != null) {
+                errors.put(task, error);
+                continue;
+            }
+            task.bookingDto.setStatus(BookingStatus.WAITING);
+            accepted.add(task);
+            bookings.add(BookingMapper.toBooking(task.bookingDto, item, booker));
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        for (Booking booking : saved) {
+            BookingEvent event = OutboxEventMapper.toBookingEvent(booking);
+            outboxPublisher.publish(OutboxEventType.BOOKING_CREATED, booking.getId(), event, OutboxEventMapper.toAudience(event));
+            itemPopularityService.recordBookingAfterCommit(booking.getItem().getId());
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            created.put(accepted.get(i), saved.get(i).getId());
+        }
+    }
+
+    private void saveSingle(IntakeTask task) {
+        try {
+            BookingDto booking = bookingService.addBooking(task.bookingDto, task.userId);
+            task.complete(booking.getId(), null);
+        } catch (RuntimeException e) {
+            task.complete(null, e.getMessage());
+        }
+    }
+
+    private String checkTask(IntakeTask task, User booker, Item item) {
+        if (booker == null) {
+            return "Пользователь не найден.";
+        }
+        if (item == null) {
+            return "Вещь не найдена.";
+        }
+        if (!item.getAvailable()) {
+            return "Вещь недоступна для бронирования: " + item.getId();
+        }
+        if (item.getOwner().equals(task.userId)) {
+            return "Владелец вещи не может ее бронировать.";
+        }
+        return null;
+    }
+
+    private static class IntakeTask {
+        private final String id;
+        private final BookingDtoPartial bookingDto;
+        private final Long userId;
+        private volatile BookingIntakeStatus status = BookingIntakeStatus.QUEUED;
+        private volatile Long bookingId;
+        private volatile String error;
+        private volatile LocalDateTime completed;
+
+        IntakeTask(String id, BookingDtoPartial bookingDto, Long userId) {
+            this.id = id;
+            this.bookingDto = bookingDto;
+            this.userId = userId;
+        }
+
+        void complete(Long bookingId, String error) {
+            this.bookingId = bookingId;
+            this.error = error;
+            this.completed = LocalDateTime.now();
+            this.status = error == null ? BookingIntakeStatus.CREATED : BookingIntakeStatus.FAILED;
+        }
+
+        BookingIntakeDto toDto() {
+            return BookingIntakeDto.builder()
+                    .intakeId(id)
+                    .status(status)
+                    .bookingId(bookingId)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.util.List;
+
+/**
+ * Заполняет bookings.owner_id для строк, созданных до появления колонки.
+ * Работает пачками, каждая пачка в отдельной транзакции.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.owner-backfill.enabled", matchIfMissing = true)
+@Slf4j
+public class BookingOwnerBackfill {
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public BookingOwnerBackfill(BookingRepository bookingRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking.owner-backfill.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long lastId = 0L;
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = bookingRepository.findIdsWithoutOwner(lastId, PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                total += backfillBatch(ids);
+                lastId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == batchSize);
+
+        if (total > 0) {
+            log.info("Заполнен owner_id для бронирований: {}", total);
+        }
+    }
+
+    private int backfillBatch(List<Long> ids) {
+        Integer result = transactionTemplate.execute(status -> bookingRepository.updateOwnerIdByIds(ids));
+        return result != null ? result : 0;
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoBulkResult;
 import ru.practicum.shareit.booking.dto.BookingDtoPartial;
 
 import java.util.List;
@@ -11,6 +12,8 @@ public interface BookingService {
 
     BookingDto updateBooking(Long bookingId, Long userId, Boolean approved);
 
+    List<BookingDtoBulkResult> updateBookings(List<Long> bookingIds, Long userId, Boolean approved);
+
     BookingDto getBookingById(Long bookingId, Long userId);
 
     BookingDto getBookingById(Long bookingId);
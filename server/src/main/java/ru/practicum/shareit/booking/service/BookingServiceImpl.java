@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoBulkResult;
 import ru.practicum.shareit.booking.dto.BookingDtoPartial;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -14,15 +15,24 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.feed.model.FeedEvent;
+import ru.practicum.shareit.feed.model.FeedEventType;
+import ru.practicum.shareit.feed.service.FeedEventBus;
+import ru.practicum.shareit.item.catalog.ItemSearchCatalog;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityService;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.dto.BookingEvent;
+import ru.practicum.shareit.outbox.dto.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,13 +42,23 @@ public class BookingServiceImpl implements BookingService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final EntityManager entityManager;
+    private final OutboxPublisher outboxPublisher;
+    private final ItemSearchCatalog itemSearchCatalog;
+    private final FeedEventBus feedEventBus;
+    private final ItemPopularityService itemPopularityService;
 
     @Autowired
-    public BookingServiceImpl(BookingRepository bookingRepository, UserRepository userRepository, ItemRepository itemRepository, EntityManager entityManager) {
+    public BookingServiceImpl(BookingRepository bookingRepository, UserRepository userRepository, ItemRepository itemRepository,
+                              EntityManager entityManager, OutboxPublisher outboxPublisher, ItemSearchCatalog itemSearchCatalog,
+                              FeedEventBus feedEventBus, ItemPopularityService itemPopularityService) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
         this.entityManager = entityManager;
+        this.outboxPublisher = outboxPublisher;
+        this.itemSearchCatalog = itemSearchCatalog;
+        this.feedEventBus = feedEventBus;
+        this.itemPopularityService = itemPopularityService;
     }
 
     @Transactional
@@ -48,6 +68,10 @@ public class BookingServiceImpl implements BookingService {
 
         User booker = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
         Item item = itemRepository.findById(bookingDto.getItemId()).orElseThrow(() -> new NotFoundException("Вещь не найдена."));
+        // Вещь удаленного, но еще не очищенного владельца не показывается и не бронируется.
+        if (userRepository.findById(item.getOwner()).isEmpty()) {
+            throw new NotFoundException("Вещь не найдена.");
+        }
 
         if (!item.getAvailable()) {
             throw new ValidationException("Вещь недоступна для бронирования: " + item);
@@ -59,6 +83,9 @@ public class BookingServiceImpl implements BookingService {
         bookingDto.setStatus(BookingStatus.WAITING);
         Booking booking = BookingMapper.toBooking(bookingDto, item, booker);
         Booking bookingDb = bookingRepository.save(booking);
+        BookingEvent event = OutboxEventMapper.toBookingEvent(bookingDb);
+        outboxPublisher.publish(OutboxEventType.BOOKING_CREATED, bookingDb.getId(), event, OutboxEventMapper.toAudience(event));
+        itemPopularityService.recordBookingAfterCommit(item.getId());
         log.info("Бронирование добавлено в базу данных в таблицу bookings по ID: {} \n {}", bookingDb.getId(), bookingDb);
         return BookingMapper.toBookingDto(bookingDb);
     }
@@ -66,26 +93,91 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Override
     public BookingDto updateBooking(Long bookingId, Long userId, Boolean approved) {
-        Booking bookingOld = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено."));
+        Booking bookingOld = getVisibleBooking(bookingId);
 
         checkOwner(userId, bookingOld.getItem());
 
         if (bookingOld.getStatus().equals(BookingStatus.APPROVED) && approved) {
             throw new ValidationException("Статус букинга " + bookingId + " уже был одобрен.");
         }
+        if (bookingOld.getStatus().equals(BookingStatus.EXPIRED)) {
+            throw new ValidationException("Бронирование " + bookingId + " истекло без ответа владельца.");
+        }
 
         if (approved) {
             bookingRepository.updateBookingStatusById(bookingId, BookingStatus.APPROVED);
             itemRepository.updateItemAvailableById(bookingOld.getItem().getId(), true);
+            itemSearchCatalog.setAvailableAfterCommit(List.of(bookingOld.getItem().getId()), true);
         } else {
             bookingRepository.updateBookingStatusById(bookingId, BookingStatus.REJECTED);
         }
 
         Booking bookingUpd = bookingRepository.findById(bookingId).get();
         entityManager.refresh(bookingUpd);
+        BookingEvent event = OutboxEventMapper.toBookingEvent(bookingUpd);
+        outboxPublisher.publish(approved ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED,
+                bookingId, event, OutboxEventMapper.toAudience(event));
         log.info("Бронирование обновлено в базе данных в таблице bookings по ID: {} \n {}", bookingId, bookingUpd);
 
-        return BookingMapper.toBookingDto(bookingUpd);
+        BookingDto bookingDto = BookingMapper.toBookingDto(bookingUpd);
+        feedEventBus.publishAfterCommit(FeedEvent.toUsers(FeedEventType.BOOKING_STATUS_CHANGED, bookingDto,
+                bookingUpd.getBooker().getId(), bookingUpd.getOwnerId()));
+        return bookingDto;
+    }
+
+    @Transactional
+    @Override
+    public List<BookingDtoBulkResult> updateBookings(List<Long> bookingIds, Long userId, Boolean approved) {
+        List<Long> ids = bookingIds.stream()
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInWithItem(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+
+        List<BookingDtoBulkResult> results = new ArrayList<>();
+        List<Long> updatedIds = new ArrayList<>();
+        Set<Long> itemIds = new HashSet<>();
+        for (Long id : ids) {
+            Booking booking = bookings.get(id);
+            String error = checkBulkUpdate(booking, userId, approved);
+            if (error != null) {
+                results.add(BookingDtoBulkResult.builder()
+                        .bookingId(id)
+                        .error(error)
+                        .build());
+                continue;
+            }
+            updatedIds.add(id);
+            itemIds.add(booking.getItem().getId());
+            results.add(BookingDtoBulkResult.builder()
+                    .bookingId(id)
+                    .status(status)
+                    .build());
+        }
+
+        if (!updatedIds.isEmpty()) {
+            bookingRepository.updateBookingStatusByIds(updatedIds, status);
+            if (approved) {
+                itemRepository.updateItemsAvailableByIds(itemIds, true);
+                itemSearchCatalog.setAvailableAfterCommit(itemIds, true);
+            }
+            OutboxEventType eventType = approved ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED;
+            for (Long id : updatedIds) {
+                Booking booking = bookings.get(id);
+                BookingEvent event = OutboxEventMapper.toBookingEvent(booking);
+                event.setStatus(status);
+                outboxPublisher.publish(eventType, id, event, OutboxEventMapper.toAudience(event));
+                BookingDto bookingDto = BookingMapper.toBookingDto(booking);
+                bookingDto.setStatus(status);
+                feedEventBus.publishAfterCommit(FeedEvent.toUsers(FeedEventType.BOOKING_STATUS_CHANGED, bookingDto,
+                        booking.getBooker().getId(), booking.getOwnerId()));
+            }
+        }
+        log.info("Бронирования обновлены в базе данных в таблице bookings по ID: {}, статус: {}. Отклонено: {}",
+                updatedIds, status, ids.size() - updatedIds.size());
+
+        return results;
     }
 
     @Transactional(readOnly = true)
@@ -93,7 +185,7 @@ public class BookingServiceImpl implements BookingService {
     public BookingDto getBookingById(Long bookingId, Long userId) {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
 
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено."));
+        Booking booking = getVisibleBooking(bookingId);
 
         User ogBooker = booking.getBooker();
         Item itemForBooking = booking.getItem();
@@ -140,6 +232,7 @@ public class BookingServiceImpl implements BookingService {
                 break;
             case WAITING:
             case REJECTED:
+            case EXPIRED:
                 bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.valueOf(bookingState.name()), pageable);
                 break;
             case ALL:
@@ -180,6 +273,7 @@ public class BookingServiceImpl implements BookingService {
                 break;
             case WAITING:
             case REJECTED:
+            case EXPIRED:
                 bookings = bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.valueOf(bookingState.name()), pageable);
                 break;
             case ALL:
@@ -196,12 +290,41 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    /**
+     * Бронирование удаленного, но еще не очищенного бронирующего или владельца вещи уже не показывается.
+     */
+    private Booking getVisibleBooking(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("Бронирование не найдено."));
+        if (userRepository.findById(booking.getBooker().getId()).isEmpty()
+                || userRepository.findById(booking.getItem().getOwner()).isEmpty()) {
+            throw new NotFoundException("Бронирование не найдено.");
+        }
+        return booking;
+    }
+
     private void checkOwner(Long userId, Item item) {
         if (!userId.equals(item.getOwner())) {
             throw new NotFoundException("Пользователь не является владельцем вещи: " + userId + item);
         }
     }
 
+    private String checkBulkUpdate(Booking booking, Long userId, Boolean approved) {
+        // findAllByIdInWithItem не возвращает бронирования удаленных бронирующих и владельцев.
+        if (booking == null) {
+            return "Бронирование не найдено.";
+        }
+        if (!userId.equals(booking.getItem().getOwner())) {
+            return "Пользователь " + userId + " не является владельцем вещи.";
+        }
+        if (booking.getStatus().equals(BookingStatus.APPROVED) && approved) {
+            return "Статус букинга " + booking.getId() + " уже был одобрен.";
+        }
+        if (booking.getStatus().equals(BookingStatus.EXPIRED)) {
+            return "Бронирование " + booking.getId() + " истекло без ответа владельца.";
+        }
+        return null;
+    }
+
     private void checkOwnerOrBooker(Long userId, Item item, User booker) {
         if (!userId.equals(item.getOwner()) && !userId.equals(booker.getId())) {
             throw new NotFoundException("Пользователь " + userId + " не является владельцем вещи ( " + item + " ) или автором бронирования ( " + booker + " ).");
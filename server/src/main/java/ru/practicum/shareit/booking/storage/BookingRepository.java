@@ -7,7 +7,11 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.projection.FinishedBooking;
+import ru.practicum.shareit.outbox.dto.DeletedEvent;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,44 +25,143 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "and b.end < current_timestamp")
     List<Booking> findAllByItemIdAndBookerId(Long itemId, Long userId, BookingStatus status, Pageable pageable);
 
-    @Query("select b " +
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long userId, BookingStatus status,
+                                                           LocalDateTime time);
+
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBetween(Long itemId, Long userId, BookingStatus status,
+                                                            LocalDateTime from, LocalDateTime until);
+
+    @Query("select new ru.practicum.shareit.item.projection.FinishedBooking(b.id, b.booker.id, b.item.id) " +
             "from Booking as b " +
-            "join b.item as i " +
-            "join b.booker as u " +
-            "where i.id = ?1 and u.id = ?2 " +
-            "and b.status = ?3 " +
-            "and b.end < current_timestamp")
-    List<Booking> findAllByItemIdAndBookerId(Long itemId, Long userId, BookingStatus status);
+            "where b.status = ?1 and b.end <= ?2 and b.id > ?3 " +
+            "order by b.id")
+    List<FinishedBooking> findFinishedAfterId(BookingStatus status, LocalDateTime until, Long afterId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.projection.FinishedBooking(b.id, b.booker.id, b.item.id) " +
+            "from Booking as b " +
+            "where b.status = ?1 and b.end > ?2 and b.end <= ?3 and b.id > ?4 " +
+            "order by b.id")
+    List<FinishedBooking> findFinishedBetween(BookingStatus status, LocalDateTime from, LocalDateTime until,
+                                              Long afterId, Pageable pageable);
 
+    /**
+     * Бронирования пользователя без вещей удаленных, но еще не очищенных владельцев.
+     */
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.booker.id = ?1 " +
+            "and exists (select u.id from User as u where u.id = b.item.owner and u.deleted = false) " +
+            "order by b.start desc")
     List<Booking> findAllByBookerIdOrderByStartDesc(Long userId, Pageable pageable);
 
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.booker.id = ?1 " +
+            "and b.status = ?2 " +
+            "and exists (select u.id from User as u where u.id = b.item.owner and u.deleted = false) " +
+            "order by b.start desc")
     List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long userId, BookingStatus status, Pageable pageable);
 
+    /**
+     * Бронирования вещей владельца без бронирований удаленных, но еще не очищенных пользователей.
+     */
     @Query("select b " +
             "from Booking as b " +
-            "join b.item as i " +
-            "where i.owner = ?1 " +
+            "where b.ownerId = ?1 " +
+            "and b.booker.deleted = false " +
             "order by b.start desc")
     List<Booking> findAllByOwnerIdOrderByStartDesc(Long userId, Pageable pageable);
 
 
     @Query("select b " +
             "from Booking as b " +
-            "join b.item as i " +
-            "where i.id = ?1 and i.owner = ?2")
+            "where b.item.id = ?1 and b.ownerId = ?2 " +
+            "and b.booker.deleted = false")
     List<Booking> findAllByItemIdAndOwnerId(Long itemId, Long userId);
 
     @Query("select b " +
             "from Booking as b " +
-            "join b.item as i " +
-            "where i.owner = ?1 " +
+            "where b.ownerId = ?1 " +
             "and b.status = ?2 " +
+            "and b.booker.deleted = false " +
             "order by b.start desc")
     List<Booking> findAllByOwnerIdAndStatusOrderByStartDesc(Long userId, BookingStatus status, Pageable pageable);
 
+    @Query("select b.id " +
+            "from Booking as b " +
+            "where b.ownerId is null and b.id > ?1 " +
+            "order by b.id")
+    List<Long> findIdsWithoutOwner(Long afterId, Pageable pageable);
+
+    @Query("select b.id " +
+            "from Booking as b " +
+            "where b.booker.id = ?1 or b.item.owner = ?1 " +
+            "order by b.id")
+    List<Long> findIdsByBookerOrItemOwner(Long userId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.outbox.dto.DeletedEvent(b.id, b.item.owner, b.booker.id) " +
+            "from Booking as b " +
+            "where b.id in ?1")
+    List<DeletedEvent> findDeletedEventsByIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Booking b where b.id in ?1")
+    int deleteAllByIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Booking b " +
+            "set b.ownerId = (select i.owner from Item i where i.id = b.item.id) " +
+            "where b.id in ?1")
+    int updateOwnerIdByIds(Collection<Long> ids);
+
+    /**
+     * Бронирования по списку id вместе с вещью и бронирующим. Бронирования удаленных, но еще не очищенных
+     * бронирующих и владельцев вещей не возвращаются.
+     */
+    @Query("select b " +
+            "from Booking as b " +
+            "join fetch b.item as i " +
+            "join fetch b.booker as u " +
+            "where b.id in ?1 and u.deleted = false " +
+            "and exists (select o.id from User as o where o.id = i.owner and o.deleted = false)")
+    List<Booking> findAllByIdInWithItem(Collection<Long> ids);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join fetch b.item as i " +
+            "where b.id > ?1 and b.booker.deleted = false " +
+            "order by b.id")
+    List<Booking> findAllAfterIdWithItem(Long afterId, Pageable pageable);
+
+    @Query("select distinct b.item.id " +
+            "from Booking as b " +
+            "where b.booker.id = ?1")
+    List<Long> findItemIdsByBookerId(Long userId);
+
     @Modifying
     @Query("update Booking b " +
             "set b.status = ?2 " +
             "where b.id = ?1")
     void updateBookingStatusById(Long id, BookingStatus status);
+
+    @Modifying
+    @Query("update Booking b " +
+            "set b.status = ?2 " +
+            "where b.id in ?1")
+    void updateBookingStatusByIds(Collection<Long> ids, BookingStatus status);
+
+    @Query("select b.id " +
+            "from Booking as b " +
+            "where b.status = ?1 " +
+            "and b.start < ?2 " +
+            "order by b.start")
+    List<Long> findIdsByStatusAndStartBefore(BookingStatus status, LocalDateTime time, Pageable pageable);
+
+    long countByStatusAndStartBefore(BookingStatus status, LocalDateTime time);
+
+    @Modifying
+    @Query("update Booking b " +
+            "set b.status = ?3 " +
+            "where b.id in ?1 and b.status = ?2")
+    int updateBookingStatusByIdsAndStatus(Collection<Long> ids, BookingStatus oldStatus, BookingStatus newStatus);
 }
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.changes;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+import ru.practicum.shareit.changes.service.ChangesService;
+
+@RestController
+@Slf4j
+public class ChangesController {
+    private final ChangesService changesService;
+
+    @Autowired
+    public ChangesController(ChangesService changesService) {
+        this.changesService = changesService;
+    }
+
+    @GetMapping("/changes")
+    public ChangesDto getChanges(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                 @RequestParam(defaultValue = "0") long since,
+                                 @RequestParam(defaultValue = "500") int limit) {
+        log.info("Получен GET запрос на изменения для пользователя: {} после курсора: {}, лимит: {}", userId, since, limit);
+        return changesService.getChanges(userId, since, limit);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.changes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Id сущностей, удаленных после курсора: клиент убирает их из своей копии.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChangesDeletedDto {
+    private List<Long> items;
+    private List<Long> bookings;
+    private List<Long> requests;
+    private List<Long> comments;
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.changes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+/**
+ * Текущее состояние сущностей, изменившихся после курсора. cursor передается в следующий запрос как since;
+ * hasMore означает, что изменений больше лимита и нужно запросить следующую порцию.
+ * reset означает, что курсор старше хранимой истории: клиент заново загружает свои данные целиком
+ * и продолжает синхронизацию с возвращенного cursor.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChangesDto {
+    private long cursor;
+    private boolean hasMore;
+    private boolean reset;
+    private List<UserDto> users;
+    private List<ItemDto> items;
+    private List<BookingDto> bookings;
+    private List<ItemRequestDto> requests;
+    private List<CommentDto> comments;
+    private ChangesDeletedDto deleted;
+}
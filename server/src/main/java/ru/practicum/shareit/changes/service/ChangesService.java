@@ -0,0 +1,210 @@
+package ru.practicum.shareit.changes.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.changes.dto.ChangesDeletedDto;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.dto.BookingEvent;
+import ru.practicum.shareit.outbox.dto.CommentEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.storage.OutboxRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Лента изменений для синхронизации клиентов. Источник - outbox: каждое обработанное событие имеет
+ * номер change_seq, индекс по нему позволяет читать только события после курсора клиента,
+ * а колонки owner_id/user_id отбирают события, относящиеся к вызывающему пользователю.
+ * Для измененных сущностей возвращается их текущее состояние, повторные изменения одной сущности схлопываются;
+ * для удаленных - только id из надгробий *_DELETED.
+ * Обработанные события удаляются по сроку хранения, поэтому для курсора старше оставшейся истории
+ * возвращается признак reset вместо неполного списка изменений.
+ */
+@Service
+@Slf4j
+public class ChangesService {
+    private final OutboxRepository outboxRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestService itemRequestService;
+    private final ObjectMapper objectMapper;
+    private final int maxLimit;
+
+    @Autowired
+    public ChangesService(OutboxRepository outboxRepository,
+                          UserRepository userRepository,
+                          ItemRepository itemRepository,
+                          BookingRepository bookingRepository,
+                          CommentRepository commentRepository,
+                          ItemRequestService itemRequestService,
+                          ObjectMapper objectMapper,
+                          @Value("${shareit.changes.max-limit:1000}") int maxLimit) {
+        this.outboxRepository = outboxRepository;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.itemRequestService = itemRequestService;
+        this.objectMapper = objectMapper;
+        this.maxLimit = maxLimit;
+    }
+
+    @Transactional(readOnly = true)
+    public ChangesDto getChanges(Long userId, long since, int limit) {
+        if (since < 0) {
+            throw new ValidationException("Курсор не может быть отрицательным.");
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new ValidationException("Лимит должен быть от 1 до " + maxLimit + ".");
+        }
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
+
+        List<OutboxEvent> events = outboxRepository.findChanges(userId, since, PageRequest.of(0, limit));
+        // Проверка после чтения: история, удаленная во время запроса, тоже будет замечена.
+        if (since + 1 < outboxRepository.findMinChangeSeq()) {
+            long cursor = outboxRepository.findMaxChangeSeq();
+            log.info("Курсор {} пользователя {} старше хранимой истории, требуется полная синхронизация с {}",
+                    since, userId, cursor);
+            return ChangesDto.builder()
+                    .cursor(cursor)
+                    .reset(true)
+                    .users(List.of())
+                    .items(List.of())
+                    .bookings(List.of())
+                    .requests(List.of())
+                    .comments(List.of())
+                    .deleted(ChangesDeletedDto.builder()
+                            .items(List.of())
+                            .bookings(List.of())
+                            .requests(List.of())
+                            .comments(List.of())
+                            .build())
+                    .build();
+        }
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> itemIds = new HashSet<>();
+        Set<Long> bookingIds = new HashSet<>();
+        Set<Long> requestIds = new HashSet<>();
+        Set<Long> commentIds = new HashSet<>();
+        Set<Long> deletedItemIds = new TreeSet<>();
+        Set<Long> deletedBookingIds = new TreeSet<>();
+        Set<Long> deletedRequestIds = new TreeSet<>();
+        Set<Long> deletedCommentIds = new TreeSet<>();
+        for (OutboxEvent event : events) {
+            switch (event.getType()) {
+                case USER_CREATED:
+                case USER_UPDATED:
+                    userIds.add(event.getAggregateId());
+                    break;
+                case ITEM_CREATED:
+                case ITEM_UPDATED:
+                    itemIds.add(event.getAggregateId());
+                    break;
+                case BOOKING_CREATED:
+                case BOOKING_APPROVED:
+                case BOOKING_REJECTED:
+                case BOOKING_EXPIRED:
+                    bookingIds.add(event.getAggregateId());
+                    BookingEvent bookingEvent = read(event, BookingEvent.class);
+                    // Подтверждение бронирования меняет доступность вещи владельца.
+                    if (userId.equals(bookingEvent.getOwnerId()) && bookingEvent.getItemId() != null) {
+                        itemIds.add(bookingEvent.getItemId());
+                    }
+                    break;
+                case COMMENT_ADDED:
+                    commentIds.add(read(event, CommentEvent.class).getCommentId());
+                    break;
+                case REQUEST_CREATED:
+                    requestIds.add(event.getAggregateId());
+                    break;
+                case ITEM_DELETED:
+                    deletedItemIds.add(event.getAggregateId());
+                    break;
+                case BOOKING_DELETED:
+                    deletedBookingIds.add(event.getAggregateId());
+                    break;
+                case REQUEST_DELETED:
+                    deletedRequestIds.add(event.getAggregateId());
+                    break;
+                case COMMENT_DELETED:
+                    deletedCommentIds.add(event.getAggregateId());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        long cursor = events.isEmpty() ? since : events.get(events.size() - 1).getChangeSeq();
+        log.info("Лента изменений пользователя {} после {}: событий {}, новый курсор {}", userId, since, events.size(), cursor);
+        return ChangesDto.builder()
+                .cursor(cursor)
+                .hasMore(events.size() == limit)
+                .users(userIds.isEmpty() ? List.of() : userRepository.findAllById(userIds).stream()
+                        .sorted(Comparator.comparing(User::getId))
+                        .map(UserMapper::toUserDto)
+                        .collect(Collectors.toList()))
+                .items(itemIds.isEmpty() ? List.of() : itemRepository.findAllWithActiveOwnerByIds(itemIds).stream()
+                        .sorted(Comparator.comparing(Item::getId))
+                        .map(ItemMapper::toItemDto)
+                        .collect(Collectors.toList()))
+                .bookings(bookingIds.isEmpty() ? List.of() : toBookingDtos(bookingIds))
+                .requests(requestIds.isEmpty() ? List.of() : itemRequestService.getRequestsByIds(requestIds).stream()
+                        .sorted(Comparator.comparing(ItemRequestDto::getId))
+                        .collect(Collectors.toList()))
+                .comments(commentIds.isEmpty() ? List.of() : commentRepository.findAllActiveByIds(commentIds).stream()
+                        .sorted(Comparator.comparing(Comment::getId))
+                        .map(CommentMapper::toCommentDto)
+                        .collect(Collectors.toList()))
+                .deleted(ChangesDeletedDto.builder()
+                        .items(new ArrayList<>(deletedItemIds))
+                        .bookings(new ArrayList<>(deletedBookingIds))
+                        .requests(new ArrayList<>(deletedRequestIds))
+                        .comments(new ArrayList<>(deletedCommentIds))
+                        .build())
+                .build();
+    }
+
+    private List<BookingDto> toBookingDtos(Set<Long> bookingIds) {
+        return bookingRepository.findAllByIdInWithItem(bookingIds).stream()
+                .sorted(Comparator.comparing(Booking::getId))
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    private <T> T read(OutboxEvent event, Class<T> type) {
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать событие outbox " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.Function;
+
+/**
+ * Доля попаданий в кэш второго уровня по каждому региону.
+ * Требует включенной статистики Hibernate (hibernate.generate_statistics).
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+public class CacheRegionMetrics {
+
+    @Autowired
+    public CacheRegionMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : CacheRegions.ENTITY_REGIONS) {
+            register(meterRegistry, region, statistics, s -> s.getDomainDataRegionStatistics(region));
+        }
+        for (String region : CacheRegions.QUERY_REGIONS) {
+            register(meterRegistry, region, statistics, s -> s.getQueryRegionStatistics(region));
+        }
+    }
+
+    private static void register(MeterRegistry meterRegistry, String region, Statistics statistics,
+                                 Function<Statistics, CacheRegionStatistics> regionStatistics) {
+        Gauge.builder("shareit.cache.hit-ratio", statistics, s -> hitRatio(regionStatistics.apply(s)))
+                .description("Доля попаданий в регион кэша второго уровня")
+                .tag("region", region)
+                .register(meterRegistry);
+    }
+
+    private static double hitRatio(CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long hits = regionStatistics.getHitCount();
+        long total = hits + regionStatistics.getMissCount();
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+}
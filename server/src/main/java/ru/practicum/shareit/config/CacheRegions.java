@@ -0,0 +1,21 @@
+package ru.practicum.shareit.config;
+
+import java.util.List;
+
+/**
+ * Имена регионов кэша второго уровня Hibernate. Размеры и время жизни регионов
+ * задаются в application.conf (конфигурация Caffeine JCache).
+ */
+public final class CacheRegions {
+    public static final String USER = "user";
+    public static final String ITEM = "item";
+    public static final String ITEM_REQUEST = "item-request";
+    public static final String ITEMS_BY_OWNER = "items-by-owner";
+    public static final String REQUESTS_BY_REQUESTER = "requests-by-requester";
+
+    public static final List<String> ENTITY_REGIONS = List.of(USER, ITEM, ITEM_REQUEST);
+    public static final List<String> QUERY_REGIONS = List.of(ITEMS_BY_OWNER, REQUESTS_BY_REQUESTER);
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Источник данных с разделением чтения и записи: основная база из spring.datasource.*,
+ * реплики из shareit.datasource.replica.urls (учетные данные общие для всех реплик).
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+@Slf4j
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 ReadYourWritesGuard guard,
+                                 @Value("${shareit.datasource.replica.urls:}") String[] replicaUrls,
+                                 @Value("${shareit.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                 @Value("${shareit.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        DataSource primary = properties.initializeDataSourceBuilder().build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, primary);
+        List<String> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String key = "replica-" + replicas.size();
+            targets.put(key, DataSourceBuilder.create()
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build());
+            replicas.add(key);
+        }
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicas, guard);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        log.info("Маршрутизация источника данных включена, реплик: {}", replicas.size());
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
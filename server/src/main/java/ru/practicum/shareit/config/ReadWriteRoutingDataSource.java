@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Направляет транзакции только для чтения на реплики по кругу, остальные — на основную базу.
+ * Пользователь, недавно выполнивший запись, читает с основной базы (см. {@link ReadYourWritesGuard}).
+ * Работает только за {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * соединение должно браться уже после того, как у транзакции выставлен признак readOnly.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicas;
+    private final ReadYourWritesGuard guard;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(List<String> replicas, ReadYourWritesGuard guard) {
+        this.replicas = List.copyOf(replicas);
+        this.guard = guard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = SharerUserFilter.getCurrentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                guard.recordWrite(userId);
+            }
+            return PRIMARY;
+        }
+        if (replicas.isEmpty() || (userId != null && guard.isPinned(userId))) {
+            return PRIMARY;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+}
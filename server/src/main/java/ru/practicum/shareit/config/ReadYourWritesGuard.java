@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Защита от отставания реплик: после записи пользователь на время окна
+ * shareit.datasource.routing.read-your-writes-window читает с основной базы.
+ * Состояние хранится в памяти экземпляра сервера; записи истекают вместе с окном,
+ * поэтому пользователи, которые больше не читают, в нем не копятся.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+public class ReadYourWritesGuard {
+    private final Cache<Long, Boolean> pinned;
+
+    public ReadYourWritesGuard(@Value("${shareit.datasource.routing.read-your-writes-window:PT5S}") Duration window) {
+        this.pinned = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void recordWrite(Long userId) {
+        pinned.put(userId, Boolean.TRUE);
+    }
+
+    public boolean isPinned(Long userId) {
+        return pinned.getIfPresent(userId) != null;
+    }
+}
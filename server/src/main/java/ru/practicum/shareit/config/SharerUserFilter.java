@@ -0,0 +1,49 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Запоминает пользователя из заголовка X-Sharer-User-Id на время обработки запроса,
+ * чтобы маршрутизация источника данных могла учитывать его недавние записи.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+public class SharerUserFilter extends OncePerRequestFilter {
+    public static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+
+    public static Long getCurrentUserId() {
+        return CURRENT_USER.get();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CURRENT_USER.set(parseUserId(request.getHeader(USER_HEADER)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CURRENT_USER.remove();
+        }
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -47,6 +47,13 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServiceUnavailableException(ServiceUnavailableException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler({UserAlreadyExistException.class, ItemAlreadyExistException.class})
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse userExistHandle(final RuntimeException e) {
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.export;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.export.model.ExportFormat;
+import ru.practicum.shareit.export.service.ExportService;
+
+@RestController
+@Slf4j
+public class ExportController {
+    private final ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/bookings/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam(defaultValue = "csv") String format) {
+        log.info("Получен GET запрос на выгрузку бронирований владельца: {} в формате: {}", userId, format);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        exportService.checkUser(userId);
+        return stream("bookings", exportFormat, out -> exportService.exportOwnerBookings(userId, exportFormat, out));
+    }
+
+    @GetMapping("/items/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                  @RequestParam(defaultValue = "csv") String format) {
+        log.info("Получен GET запрос на выгрузку вещей владельца: {} в формате: {}", userId, format);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        exportService.checkUser(userId);
+        return stream("items", exportFormat, out -> exportService.exportOwnerItems(userId, exportFormat, out));
+    }
+
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        log.info("Получен GET запрос на выгрузку всех пользователей в формате: {}", format);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return stream("users", exportFormat, out -> exportService.exportUsers(exportFormat, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format,
+                                                                StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + name + "." + format.getExtension())
+                .body(body);
+    }
+}
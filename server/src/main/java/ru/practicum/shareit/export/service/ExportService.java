@@ -0,0 +1,119 @@
+package ru.practicum.shareit.export.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.export.model.ExportFormat;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Выгрузка бронирований и вещей владельца. Строки читаются однонаправленным JDBC-курсором
+ * с размером выборки shareit.export.fetch-size и сразу пишутся в поток ответа,
+ * поэтому расход памяти не зависит от объема выгрузки. Чтение идет в транзакции только для чтения:
+ * PostgreSQL использует курсор лишь при выключенном autocommit.
+ */
+@Service
+@Slf4j
+public class ExportService {
+    private static final List<String> BOOKING_COLUMNS = List.of(
+            "id", "start", "end", "status", "itemId", "itemName", "bookerId");
+    private static final String BOOKINGS_SQL = "select b.id, b.start_date, b.end_date, b.status, b.item_id, i.name, b.booker_id " +
+            "from bookings as b " +
+            "join items as i on i.id = b.item_id " +
+            "where b.owner_id = ? " +
+            "order by b.start_date desc";
+    private static final List<String> ITEM_COLUMNS = List.of(
+            "id", "name", "description", "available", "requestId");
+    private static final String ITEMS_SQL = "select i.id, i.name, i.description, i.is_available, i.request_id " +
+            "from items as i " +
+            "where i.owner_id = ? " +
+            "order by i.id";
+
+    private static final List<String> USER_COLUMNS = List.of(
+            "id", "name", "email");
+    private static final String USERS_SQL = "select u.id, u.name, u.email " +
+            "from users as u " +
+            "where u.deleted = false " +
+            "order by u.id";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ExportService(UserRepository userRepository,
+                         DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${shareit.export.fetch-size:1000}") int fetchSize) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void checkUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден.");
+        }
+    }
+
+    public long exportOwnerBookings(Long userId, ExportFormat format, OutputStream out) {
+        long rows = export(BOOKINGS_SQL, BOOKING_COLUMNS, userId, format, out);
+        log.info("Выгружено бронирований владельца {}: {}", userId, rows);
+        return rows;
+    }
+
+    public long exportOwnerItems(Long userId, ExportFormat format, OutputStream out) {
+        long rows = export(ITEMS_SQL, ITEM_COLUMNS, userId, format, out);
+        log.info("Выгружено вещей владельца {}: {}", userId, rows);
+        return rows;
+    }
+
+    public long exportUsers(ExportFormat format, OutputStream out) {
+        long rows = export(USERS_SQL, USER_COLUMNS, null, format, out);
+        log.info("Выгружено пользователей: {}", rows);
+        return rows;
+    }
+
+    private long export(String sql, List<String> columns, Long userId, ExportFormat format, OutputStream out) {
+        Long rows = transactionTemplate.execute(status -> {
+            long[] count = {0};
+            try {
+                RowWriter writer = RowWriter.open(format, out, columns, objectMapper.getFactory());
+                Object[] values = new Object[columns.size()];
+                jdbcTemplate.query(sql, resultSet -> {
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = resultSet.getObject(i + 1);
+                    }
+                    try {
+                        writer.write(values);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0]++;
+                }, userId != null ? new Object[]{userId} : new Object[0]);
+                writer.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count[0];
+        });
+        return rows != null ? rows : 0;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.feed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.feed.service.FeedEventBus;
+import ru.practicum.shareit.user.service.UserService;
+
+@RestController
+@Slf4j
+public class FeedController {
+    private final FeedEventBus feedEventBus;
+    private final UserService userService;
+
+    @Autowired
+    public FeedController(FeedEventBus feedEventBus, UserService userService) {
+        this.feedEventBus = feedEventBus;
+        this.userService = userService;
+    }
+
+    @GetMapping("/feed")
+    public SseEmitter subscribe(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен GET запрос на подписку на ленту событий пользователем: {}", userId);
+        userService.getUserById(userId);
+        return feedEventBus.subscribe(userId);
+    }
+}
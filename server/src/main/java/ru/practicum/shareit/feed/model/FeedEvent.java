@@ -0,0 +1,33 @@
+package ru.practicum.shareit.feed.model;
+
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Событие ленты. Адресовано либо конкретным пользователям, либо всем подписчикам, кроме автора.
+ */
+@Value
+public class FeedEvent {
+    FeedEventType type;
+    Set<Long> recipients;
+    Long authorId;
+    Object payload;
+
+    public static FeedEvent toUsers(FeedEventType type, Object payload, Long... userIds) {
+        return new FeedEvent(type, Arrays.stream(userIds)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet()), null, payload);
+    }
+
+    public static FeedEvent toAllExcept(FeedEventType type, Object payload, Long authorId) {
+        return new FeedEvent(type, null, authorId, payload);
+    }
+
+    public boolean isBroadcast() {
+        return recipients == null;
+    }
+}
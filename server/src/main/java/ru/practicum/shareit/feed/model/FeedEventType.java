@@ -0,0 +1,6 @@
+package ru.practicum.shareit.feed.model;
+
+public enum FeedEventType {
+    REQUEST_CREATED,
+    BOOKING_STATUS_CHANGED
+}
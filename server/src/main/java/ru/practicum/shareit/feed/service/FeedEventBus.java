@@ -0,0 +1,239 @@
+package ru.practicum.shareit.feed.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.feed.model.FeedEvent;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Шина событий для SSE-ленты внутри процесса. Сервисы публикуют события после коммита,
+ * шина раскладывает их по ограниченным буферам подписчиков, а пул доставки пишет буферы в потоки ответов.
+ * Подписчик, чей буфер переполнен (клиент не успевает читать), отключается: он переподключится
+ * и догонит состояние обычными запросами, а память и потоки доставки не копятся из-за одного медленного клиента.
+ * Запись в поток ответа блокирующая, поэтому у каждой отправки есть срок shareit.feed.send-timeout:
+ * клиент, не принимающий данные дольше, отключается, а поток доставки прерывается и возвращается в пул.
+ * Шина рассчитана на один экземпляр приложения: подписчики хранятся в памяти процесса.
+ */
+@Component
+@Slf4j
+public class FeedEventBus {
+    private static final FeedEvent HEARTBEAT = new FeedEvent(null, Set.of(), null, null);
+
+    private final Map<Long, Set<FeedSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final ExecutorService executor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Counter deliveredCounter;
+    private final Counter evictedCounter;
+
+    @Autowired
+    public FeedEventBus(MeterRegistry meterRegistry,
+                        @Value("${shareit.feed.buffer-size:256}") int bufferSize,
+                        @Value("${shareit.feed.timeout:PT30M}") Duration timeout,
+                        @Value("${shareit.feed.delivery-threads:4}") int deliveryThreads,
+                        @Value("${shareit.feed.send-timeout:PT10S}") Duration sendTimeout) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "feed-delivery-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deliveredCounter = Counter.builder("shareit.feed.delivered")
+                .description("Количество событий ленты, отправленных подписчикам")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("shareit.feed.evicted")
+                .description("Количество подписчиков ленты, отключенных из-за переполнения буфера или зависшей отправки")
+                .register(meterRegistry);
+        Gauge.builder("shareit.feed.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Количество открытых подключений к ленте")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        FeedSubscriber subscriber = new FeedSubscriber(userId, emitter, bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.compute(userId, (key, userSubscribers) -> {
+            Set<FeedSubscriber> result = userSubscribers != null ? userSubscribers : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+        subscriberCount.incrementAndGet();
+        log.debug("Пользователь {} подписался на ленту", userId);
+        return emitter;
+    }
+
+    /**
+     * Публикует событие после коммита текущей транзакции (или сразу, если транзакции нет),
+     * чтобы подписчики не увидели изменений, которые затем откатятся.
+     */
+    public void publishAfterCommit(FeedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(event);
+            }
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Пустой комментарий раз в интервал: держит соединение через прокси и выявляет отключившихся клиентов.
+     */
+    @Scheduled(fixedDelayString = "${shareit.feed.heartbeat-interval:PT15S}",
+            initialDelayString = "${shareit.feed.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT)));
+    }
+
+    /**
+     * Отключает подписчиков, чья отправка идет дольше send-timeout: иначе несколько клиентов с заполненным
+     * TCP-окном займут все потоки доставки, и переполнятся буферы остальных.
+     */
+    @Scheduled(fixedDelayString = "${shareit.feed.send-check-interval:PT1S}")
+    public void evictStalledSenders() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            if (subscriber.interruptSendOlderThan(now, sendTimeoutNanos)) {
+                evictedCounter.increment();
+                log.warn("Подписчик ленты {} не принимает данные дольше {} мс, соединение закрыто",
+                        subscriber.getUserId(), TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+                remove(subscriber);
+                subscriber.getEmitter().completeWithError(new IOException("Истек срок отправки события ленты"));
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.getEmitter().complete()));
+    }
+
+    private void publish(FeedEvent event) {
+        if (event.isBroadcast()) {
+            subscribers.forEach((userId, userSubscribers) -> {
+                if (!Objects.equals(userId, event.getAuthorId())) {
+                    userSubscribers.forEach(subscriber -> enqueue(subscriber, event));
+                }
+            });
+        } else {
+            for (Long userId : event.getRecipients()) {
+                Set<FeedSubscriber> userSubscribers = subscribers.get(userId);
+                if (userSubscribers != null) {
+                    userSubscribers.forEach(subscriber -> enqueue(subscriber, event));
+                }
+            }
+        }
+    }
+
+    private void enqueue(FeedSubscriber subscriber, FeedEvent event) {
+        if (subscriber.isClosed()) {
+            return;
+        }
+        if (!subscriber.offer(event)) {
+            evictedCounter.increment();
+            log.warn("Подписчик ленты {} не успевает читать события, соединение закрыто", subscriber.getUserId());
+            remove(subscriber);
+            subscriber.getEmitter().complete();
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(FeedSubscriber subscriber) {
+        if (!subscriber.startDraining()) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.stopDraining();
+        }
+    }
+
+    private void drain(FeedSubscriber subscriber) {
+        try {
+            FeedEvent event;
+            while (!subscriber.isClosed() && (event = subscriber.poll()) != null) {
+                if (event == HEARTBEAT) {
+                    send(subscriber, SseEmitter.event().comment(""));
+                    continue;
+                }
+                send(subscriber, SseEmitter.event()
+                        .id(String.valueOf(eventIds.incrementAndGet()))
+                        .name(event.getType().name())
+                        .data(event.getPayload(), MediaType.APPLICATION_JSON));
+                deliveredCounter.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Подписчик ленты {} отключился: {}", subscriber.getUserId(), e.getMessage());
+            remove(subscriber);
+            subscriber.getEmitter().completeWithError(e);
+        } finally {
+            subscriber.stopDraining();
+        }
+        if (!subscriber.isClosed() && subscriber.hasPending()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void send(FeedSubscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.startSend();
+        try {
+            subscriber.getEmitter().send(event);
+        } finally {
+            subscriber.finishSend();
+        }
+    }
+
+    private void remove(FeedSubscriber subscriber) {
+        if (!subscriber.close()) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.getUserId(), (userId, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+        subscriberCount.decrementAndGet();
+        log.debug("Пользователь {} отписался от ленты", subscriber.getUserId());
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.feed.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.feed.model.FeedEvent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Подключение одного клиента: собственный ограниченный буфер событий, флаг,
+ * не дающий двум потокам доставки писать в один поток ответа одновременно, и текущая отправка,
+ * которую можно прервать по таймауту.
+ */
+class FeedSubscriber {
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<FeedEvent> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private Thread sender;
+    private long sendStarted;
+
+    FeedSubscriber(Long userId, SseEmitter emitter, int bufferSize) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean offer(FeedEvent event) {
+        return buffer.offer(event);
+    }
+
+    FeedEvent poll() {
+        return buffer.poll();
+    }
+
+    boolean hasPending() {
+        return !buffer.isEmpty();
+    }
+
+    boolean startDraining() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void stopDraining() {
+        draining.set(false);
+    }
+
+    synchronized void startSend() {
+        sender = Thread.currentThread();
+        sendStarted = System.nanoTime();
+    }
+
+    /**
+     * Снимает и флаг прерывания: если таймаут сработал сразу после отправки, он не должен
+     * достаться следующей задаче потока доставки.
+     */
+    synchronized void finishSend() {
+        sender = null;
+        Thread.interrupted();
+    }
+
+    /**
+     * @return true, если отправка идет дольше timeoutNanos и ее поток прерван
+     */
+    synchronized boolean interruptSendOlderThan(long now, long timeoutNanos) {
+        if (sender == null || now - sendStarted < timeoutNanos) {
+            return false;
+        }
+        sender.interrupt();
+        return true;
+    }
+
+    /**
+     * @return true только для первого вызова: закрытие выполняется один раз
+     */
+    boolean close() {
+        return closed.compareAndSet(false, true);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+}
@@ -7,9 +7,12 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoPartial;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoExtra;
+import ru.practicum.shareit.item.dto.PopularItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityService;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.utilities.Create;
 import ru.practicum.shareit.utilities.Update;
@@ -22,10 +25,12 @@ import java.util.List;
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final ItemPopularityService itemPopularityService;
 
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ItemPopularityService itemPopularityService) {
         this.itemService = itemService;
+        this.itemPopularityService = itemPopularityService;
     }
 
     @PostMapping
@@ -71,6 +76,22 @@ public class ItemController {
         return itemService.searchItems(text, PageRequest.of(page, size));
     }
 
+    @GetMapping("/popular")
+    public List<PopularItemDto> getPopularItems(@RequestParam(required = false, defaultValue = "10") final Integer size) {
+        log.info("Получен GET запрос на популярные вещи с параметром size= {}.", size);
+        return itemPopularityService.getPopularItems(size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public CommentPageDto getComments(@PathVariable Long itemId,
+                                      @RequestHeader("X-Sharer-User-Id") Long userId,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false, defaultValue = "20") final Integer size) {
+        log.info("Получен GET запрос на комментарии вещи: {} пользователем: {} с параметрами cursor={} & size= {}.",
+                itemId, userId, cursor, size);
+        return itemService.getComments(itemId, userId, cursor, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@PathVariable Long itemId,
                                  @RequestHeader("X-Sharer-User-Id") Long userId,
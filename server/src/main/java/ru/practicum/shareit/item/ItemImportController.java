@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.service.ItemImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/items/import")
+@Slf4j
+public class ItemImportController {
+    private final ItemImportService itemImportService;
+
+    @Autowired
+    public ItemImportController(ItemImportService itemImportService) {
+        this.itemImportService = itemImportService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportReport importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                        InputStream body) throws IOException {
+        log.info("Получен POST запрос на импорт вещей пользователем: {}", userId);
+        return itemImportService.importItems(body, userId);
+    }
+}
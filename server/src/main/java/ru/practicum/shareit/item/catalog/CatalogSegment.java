@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.catalog;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Сегмент каталога: колонки id, флагов и свернутого текста в UTF-8 в буферах вне кучи.
+ * Строки только дописываются; измененная вещь получает новую строку, а старая помечается удаленной.
+ */
+class CatalogSegment {
+    private static final byte LIVE = 1;
+    private static final byte AVAILABLE = 2;
+    private static final int OFFSET_BYTES = 12;
+
+    private final int capacity;
+    private final ByteBuffer ids;
+    private final ByteBuffer flags;
+    private final ByteBuffer offsets;
+    private final ByteBuffer text;
+    private int rows;
+
+    CatalogSegment(int capacity, int textCapacity) {
+        this.capacity = capacity;
+        this.ids = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        this.flags = ByteBuffer.allocateDirect(capacity);
+        this.offsets = ByteBuffer.allocateDirect(capacity * OFFSET_BYTES);
+        this.text = ByteBuffer.allocateDirect(textCapacity);
+    }
+
+    boolean fits(int textLength) {
+        return rows < capacity && text.remaining() >= textLength;
+    }
+
+    int append(long id, boolean available, byte[] name, byte[] description) {
+        int row = rows++;
+        ids.putLong(row * Long.BYTES, id);
+        flags.put(row, (byte) (LIVE | (available ? AVAILABLE : 0)));
+        offsets.putInt(row * OFFSET_BYTES, text.position());
+        offsets.putInt(row * OFFSET_BYTES + 4, name.length);
+        offsets.putInt(row * OFFSET_BYTES + 8, description.length);
+        text.put(name);
+        text.put(description);
+        return row;
+    }
+
+    void kill(int row) {
+        flags.put(row, (byte) 0);
+    }
+
+    void setAvailable(int row, boolean available) {
+        byte current = flags.get(row);
+        if ((current & LIVE) != 0) {
+            flags.put(row, (byte) (available ? current | AVAILABLE : current & ~AVAILABLE));
+        }
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    boolean isLive(int row) {
+        return (flags.get(row) & LIVE) != 0;
+    }
+
+    boolean isAvailable(int row) {
+        return (flags.get(row) & AVAILABLE) != 0;
+    }
+
+    long getId(int row) {
+        return ids.getLong(row * Long.BYTES);
+    }
+
+    byte[] getName(int row) {
+        return copy(offsets.getInt(row * OFFSET_BYTES), offsets.getInt(row * OFFSET_BYTES + 4));
+    }
+
+    byte[] getDescription(int row) {
+        int start = offsets.getInt(row * OFFSET_BYTES) + offsets.getInt(row * OFFSET_BYTES + 4);
+        return copy(start, offsets.getInt(row * OFFSET_BYTES + 8));
+    }
+
+    /**
+     * Линейный проход по строкам сегмента: id доступных вещей, в названии или описании которых есть подстрока.
+     */
+    long[] scan(byte[] pattern) {
+        long[] found = new long[16];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (flags.get(row) != (LIVE | AVAILABLE)) {
+                continue;
+            }
+            int start = offsets.getInt(row * OFFSET_BYTES);
+            int nameLength = offsets.getInt(row * OFFSET_BYTES + 4);
+            int descriptionLength = offsets.getInt(row * OFFSET_BYTES + 8);
+            if (contains(start, nameLength, pattern) || contains(start + nameLength, descriptionLength, pattern)) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = ids.getLong(row * Long.BYTES);
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private boolean contains(int start, int length, byte[] pattern) {
+        if (pattern.length == 0) {
+            return true;
+        }
+        int max = start + length - pattern.length;
+        byte first = pattern[0];
+        for (int i = start; i <= max; i++) {
+            if (text.get(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < pattern.length && text.get(i + j) == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] copy(int start, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = text.get(start + i);
+        }
+        return bytes;
+    }
+}
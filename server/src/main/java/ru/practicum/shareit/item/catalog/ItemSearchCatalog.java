@@ -0,0 +1,264 @@
+package ru.practicum.shareit.item.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.utilities.TextNormalizer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Колоночная копия вещей для поиска по подстроке (семантика like '%text%' без учета регистра).
+ * Хранит id, доступность и свернутый текст названия и описания в буферах вне кучи;
+ * поиск - линейный проход по сегментам, сегменты обходятся параллельно.
+ * Заполняется при старте из таблицы items и обновляется после коммита изменений вещей.
+ */
+@Component
+@Slf4j
+public class ItemSearchCatalog implements SmartInitializingSingleton {
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int segmentRows;
+    private final int segmentTextBytes;
+    private final int loadBatchSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private List<CatalogSegment> segments = new ArrayList<>();
+    private Map<Long, Long> rowIndex = new HashMap<>();
+    private int deadRows;
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemSearchCatalog(ItemRepository itemRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${shareit.item.catalog.enabled:true}") boolean enabled,
+                             @Value("${shareit.item.catalog.segment-rows:4096}") int segmentRows,
+                             @Value("${shareit.item.catalog.segment-text-bytes:1048576}") int segmentTextBytes,
+                             @Value("${shareit.item.catalog.load-batch-size:1000}") int loadBatchSize) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Без readOnly: при включенной маршрутизации загрузка идет с основной базы, реплика может отставать.
+        this.enabled = enabled;
+        this.segmentRows = segmentRows;
+        this.segmentTextBytes = segmentTextBytes;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        long afterId = 0;
+        int loaded = 0;
+        List<Item> batch;
+        do {
+            long cursor = afterId;
+            batch = transactionTemplate.execute(status ->
+                    itemRepository.findAllByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, loadBatchSize)));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            batch.forEach(this::upsert);
+            loaded += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == loadBatchSize);
+        ready = true;
+        log.info("Каталог поиска вещей загружен: {} вещей, сегментов: {}", loaded, segments.size());
+    }
+
+    /**
+     * Id доступных вещей, в названии или описании которых встречается текст, по возрастанию id.
+     */
+    public List<Long> search(String text, Pageable pageable) {
+        if (text.indexOf('\0') >= 0) {
+            return List.of();
+        }
+        byte[] pattern = new String(TextNormalizer.fold(text)).getBytes(StandardCharsets.UTF_8);
+        long[] found;
+        lock.readLock().lock();
+        try {
+            found = segments.size() > 1
+                    ? segments.parallelStream()
+                    .map(segment -> segment.scan(pattern))
+                    .reduce(new long[0], ItemSearchCatalog::concat)
+                    : segments.isEmpty() ? new long[0] : segments.get(0).scan(pattern);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Arrays.sort(found);
+        int from = pageable != null && pageable.isPaged() ? (int) Math.min(pageable.getOffset(), found.length) : 0;
+        int to = pageable != null && pageable.isPaged() ? (int) Math.min((long) from + pageable.getPageSize(), found.length) : found.length;
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(found[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Обновляет вещь в каталоге после коммита текущей транзакции (или сразу, если транзакции нет).
+     */
+    public void upsertAfterCommit(Item item) {
+        Item snapshot = Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .build();
+        afterCommit(() -> upsert(snapshot));
+    }
+
+    public void setAvailableAfterCommit(Collection<Long> itemIds, boolean available) {
+        List<Long> ids = new ArrayList<>(itemIds);
+        afterCommit(() -> setAvailable(ids, available));
+    }
+
+    public void removeAfterCommit(Collection<Long> itemIds) {
+        List<Long> ids = new ArrayList<>(itemIds);
+        afterCommit(() -> remove(ids));
+    }
+
+    private void upsert(Item item) {
+        if (!enabled || item.getId() == null) {
+            return;
+        }
+        byte[] name = item.getName() != null ? new String(TextNormalizer.fold(item.getName())).getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] description = item.getDescription() != null
+                ? new String(TextNormalizer.fold(item.getDescription())).getBytes(StandardCharsets.UTF_8) : new byte[0];
+        lock.writeLock().lock();
+        try {
+            Long previous = rowIndex.get(item.getId());
+            if (previous != null) {
+                segments.get(segmentOf(previous)).kill(rowOf(previous));
+                deadRows++;
+            }
+            int textLength = name.length + description.length;
+            CatalogSegment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (segment == null || !segment.fits(textLength)) {
+                segment = new CatalogSegment(segmentRows, Math.max(segmentTextBytes, textLength));
+                segments.add(segment);
+            }
+            int row = segment.append(item.getId(), Boolean.TRUE.equals(item.getAvailable()), name, description);
+            rowIndex.put(item.getId(), position(segments.size() - 1, row));
+            if (deadRows > rowIndex.size()) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void setAvailable(List<Long> itemIds, boolean available) {
+        lock.writeLock().lock();
+        try {
+            for (Long itemId : itemIds) {
+                Long position = rowIndex.get(itemId);
+                if (position != null) {
+                    segments.get(segmentOf(position)).setAvailable(rowOf(position), available);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(List<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long itemId : itemIds) {
+                Long position = rowIndex.remove(itemId);
+                if (position != null) {
+                    segments.get(segmentOf(position)).kill(rowOf(position));
+                    deadRows++;
+                }
+            }
+            if (deadRows > rowIndex.size()) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Переписывает живые строки в новые сегменты, освобождая место удаленных. Вызывается под блокировкой записи.
+     */
+    private void compact() {
+        List<CatalogSegment> compacted = new ArrayList<>();
+        Map<Long, Long> index = new HashMap<>(rowIndex.size() * 2);
+        CatalogSegment target = null;
+        for (CatalogSegment segment : segments) {
+            for (int row = 0; row < segment.getRows(); row++) {
+                if (!segment.isLive(row)) {
+                    continue;
+                }
+                byte[] name = segment.getName(row);
+                byte[] description = segment.getDescription(row);
+                if (target == null || !target.fits(name.length + description.length)) {
+                    target = new CatalogSegment(segmentRows, Math.max(segmentTextBytes, name.length + description.length));
+                    compacted.add(target);
+                }
+                int newRow = target.append(segment.getId(row), segment.isAvailable(row), name, description);
+                index.put(segment.getId(row), position(compacted.size() - 1, newRow));
+            }
+        }
+        log.debug("Каталог поиска вещей уплотнен: сегментов было {}, стало {}", segments.size(), compacted.size());
+        segments = compacted;
+        rowIndex = index;
+        deadRows = 0;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long[] concat(long[] left, long[] right) {
+        if (left.length == 0) {
+            return right;
+        }
+        if (right.length == 0) {
+            return left;
+        }
+        long[] result = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, result, left.length, right.length);
+        return result;
+    }
+
+    private static long position(int segment, int row) {
+        return ((long) segment << 32) | row;
+    }
+
+    private static int segmentOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int rowOf(long position) {
+        return (int) position;
+    }
+}
@@ -1,8 +1,12 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
 @UtilityClass
 public class CommentMapper {
     public static CommentDto toCommentDto(Comment comment) {
@@ -17,4 +21,35 @@ public class CommentMapper {
             return null;
         }
     }
+
+    /**
+     * Курсор страницы комментариев - ключ (created, id) последнего отданного комментария.
+     */
+    public static String toCursor(Comment comment) {
+        return comment.getCreated() + "_" + comment.getId();
+    }
+
+    public static LocalDateTime cursorCreated(String cursor) {
+        try {
+            return LocalDateTime.parse(cursor.substring(0, cursorSeparator(cursor)));
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор комментариев: " + cursor);
+        }
+    }
+
+    public static Long cursorId(String cursor) {
+        try {
+            return Long.parseLong(cursor.substring(cursorSeparator(cursor) + 1));
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Некорректный курсор комментариев: " + cursor);
+        }
+    }
+
+    private static int cursorSeparator(String cursor) {
+        int separator = cursor.lastIndexOf('_');
+        if (separator < 0) {
+            throw new ValidationException("Некорректный курсор комментариев: " + cursor);
+        }
+        return separator;
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CommentPageDto {
+    private List<CommentDto> comments;
+    /**
+     * Курсор следующей страницы; null, если комментариев больше нет.
+     */
+    private String nextCursor;
+}
@@ -22,5 +22,10 @@ public class ItemDtoExtra {
     private Boolean available;
     private BookingDtoItem lastBooking;
     private BookingDtoItem nextBooking;
+    /**
+     * Только самые новые комментарии; остальные - через GET /items/{id}/comments с курсором commentsCursor.
+     */
     private List<CommentDto> comments;
+    private Long commentsCount;
+    private String commentsCursor;
 }
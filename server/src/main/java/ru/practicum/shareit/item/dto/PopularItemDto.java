@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PopularItemDto {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+    private long views;
+    private long bookings;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "item_popularity", indexes = {
+        @Index(name = "idx_item_popularity_rank", columnList = "bookings, views")
+})
+public class ItemPopularity {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "views", nullable = false)
+    private long views;
+
+    @Column(name = "bookings", nullable = false)
+    private long bookings;
+}
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item.popularity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.PopularItemDto;
+import ru.practicum.shareit.item.storage.ItemPopularityRepository;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики просмотров и бронирований вещей. На пути запроса только увеличивается LongAdder в памяти,
+ * запись в базу идет периодическим сбросом: накопленные приращения прибавляются к строкам item_popularity
+ * пачками по batch-size, недостающие строки вставляются. Если пачка не записалась, ее приращения
+ * возвращаются в счетчики и уйдут со следующим сбросом. Счетчики приблизительные: приращения,
+ * не сброшенные до остановки процесса, теряются.
+ */
+@Service
+@Slf4j
+public class ItemPopularityService {
+    private static final String UPDATE_SQL = "update item_popularity " +
+            "set views = views + ?, bookings = bookings + ? " +
+            "where item_id = ?";
+    private static final String INSERT_SQL = "insert into item_popularity (item_id, views, bookings) " +
+            "select i.id, cast(? as bigint), cast(? as bigint) from items as i where i.id = ?";
+
+    private final ItemPopularityRepository itemPopularityRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxSize;
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Counter flushedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public ItemPopularityService(ItemPopularityRepository itemPopularityRepository,
+                                 DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.item.popularity.batch-size:500}") int batchSize,
+                                 @Value("${shareit.item.popularity.max-size:100}") int maxSize) {
+        this.itemPopularityRepository = itemPopularityRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxSize = maxSize;
+        this.flushTimer = Timer.builder("shareit.item.popularity.flush")
+                .description("Время записи одной пачки счетчиков популярности вещей")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("shareit.item.popularity.flushed")
+                .description("Количество вещей, чьи счетчики популярности записаны в базу")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("shareit.item.popularity.failed")
+                .description("Количество пачек счетчиков популярности, не записанных в базу")
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.popularity.tracked", counters, Map::size)
+                .description("Количество вещей со счетчиками популярности в памяти")
+                .register(meterRegistry);
+    }
+
+    public void recordView(Long itemId) {
+        counters(itemId).views.increment();
+    }
+
+    /**
+     * Бронирование учитывается только после коммита: откаченная транзакция не меняет популярность.
+     */
+    public void recordBookingAfterCommit(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counters(itemId).bookings.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counters(itemId).bookings.increment();
+            }
+        });
+    }
+
+    /**
+     * Вещи с наибольшим числом бронирований, при равенстве - просмотров. Учитываются только сброшенные счетчики.
+     */
+    public List<PopularItemDto> getPopularItems(int size) {
+        if (size <= 0 || size > maxSize) {
+            throw new ValidationException("Размер выборки должен быть от 1 до " + maxSize + ": " + size);
+        }
+        return itemPopularityRepository.findTop(PageRequest.of(0, size));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item.popularity.flush-interval:PT30S}",
+            initialDelayString = "${shareit.item.popularity.flush-interval:PT30S}")
+    public synchronized void flush() {
+        List<Delta> deltas = drain();
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<Delta> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(batch)));
+                flushedCounter.increment(batch.size());
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                batch.forEach(this::restore);
+                log.warn("Счетчики популярности {} вещей не записаны, повтор при следующем сбросе", batch.size(), e);
+            }
+        }
+        if (!deltas.isEmpty()) {
+            log.debug("Счетчики популярности сброшены, вещей: {}", deltas.size());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<Delta> batch) {
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, delta) -> {
+            ps.setLong(1, delta.views);
+            ps.setLong(2, delta.bookings);
+            ps.setLong(3, delta.itemId);
+        });
+        List<Delta> missing = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (updated[0][i] == 0) {
+                missing.add(batch.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            // Вставка через select из items: счетчики удаленной вещи просто отбрасываются.
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, delta) -> {
+                ps.setLong(1, delta.views);
+                ps.setLong(2, delta.bookings);
+                ps.setLong(3, delta.itemId);
+            });
+        }
+    }
+
+    /**
+     * Забирает накопленные приращения. Вещи без приращений с прошлого сброса убираются из памяти;
+     * увеличение, пришедшееся ровно на момент удаления, может потеряться.
+     */
+    private List<Delta> drain() {
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<Long, Counters> entry : counters.entrySet()) {
+            Counters current = entry.getValue();
+            long views = current.views.sumThenReset();
+            long bookings = current.bookings.sumThenReset();
+            if (views == 0 && bookings == 0) {
+                counters.remove(entry.getKey(), current);
+                continue;
+            }
+            deltas.add(new Delta(entry.getKey(), views, bookings));
+        }
+        return deltas;
+    }
+
+    private void restore(Delta delta) {
+        Counters current = counters(delta.itemId);
+        current.views.add(delta.views);
+        current.bookings.add(delta.bookings);
+    }
+
+    private Counters counters(Long itemId) {
+        return counters.computeIfAbsent(itemId, id -> new Counters());
+    }
+
+    private static class Counters {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder bookings = new LongAdder();
+    }
+
+    private static class Delta {
+        private final long itemId;
+        private final long views;
+        private final long bookings;
+
+        Delta(long itemId, long views, long bookings) {
+            this.itemId = itemId;
+            this.views = views;
+            this.bookings = bookings;
+        }
+    }
+}
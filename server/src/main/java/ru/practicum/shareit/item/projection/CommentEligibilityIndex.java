@@ -0,0 +1,237 @@
+package ru.practicum.shareit.item.projection;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.outbox.dto.BookingEvent;
+import ru.practicum.shareit.outbox.dto.UserEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.service.OutboxEventHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Пары (бронирующий, вещь), у которых есть хотя бы одно завершенное одобренное бронирование, то есть право
+ * оставить отзыв. Строится при старте по бронированиям, закончившимся до отметки watermark, и периодически
+ * дополняется бронированиями, закончившимися после нее. Одобрение уже закончившегося бронирования приходит
+ * из outbox, отклонение ранее одобренного перепроверяется в базе. Промах проверяется узким запросом
+ * по бронированиям, закончившимся после отметки, поэтому частота обновления влияет только на число таких запросов.
+ * Пока индекс не построен или выключен, проверка целиком идет в базу.
+ */
+@Component
+@Slf4j
+public class CommentEligibilityIndex implements OutboxEventHandler {
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private LongPairSet pairs = new LongPairSet();
+    private volatile LocalDateTime watermark;
+    private volatile boolean ready;
+
+    @Autowired
+    public CommentEligibilityIndex(BookingRepository bookingRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${shareit.item.comment-eligibility.enabled:true}") boolean enabled,
+                                   @Value("${shareit.item.comment-eligibility.load-batch-size:1000}") int loadBatchSize) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        Gauge.builder("shareit.item.comment-eligibility.pairs", this, CommentEligibilityIndex::size)
+                .description("Количество пар бронирующий-вещь с правом оставить отзыв")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * true, если у пользователя есть завершенное одобренное бронирование вещи.
+     */
+    public boolean isEligible(Long bookerId, Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!ready) {
+            return bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(itemId, bookerId,
+                    BookingStatus.APPROVED, now);
+        }
+        LocalDateTime from = watermark;
+        if (contains(bookerId, itemId)) {
+            return true;
+        }
+        if (!bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBetween(itemId, bookerId,
+                BookingStatus.APPROVED, from, now)) {
+            return false;
+        }
+        add(bookerId, itemId);
+        return true;
+    }
+
+    @Override
+    public void rebuild() {
+        ready = false;
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime until = LocalDateTime.now();
+        LongPairSet rebuilt = new LongPairSet();
+        long afterId = 0;
+        List<FinishedBooking> batch;
+        do {
+            long cursor = afterId;
+            batch = transactionTemplate.execute(status -> bookingRepository.findFinishedAfterId(BookingStatus.APPROVED,
+                    until, cursor, PageRequest.of(0, loadBatchSize)));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            batch.forEach(booking -> rebuilt.add(booking.getBookerId(), booking.getItemId()));
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == loadBatchSize);
+        lock.writeLock().lock();
+        try {
+            pairs = rebuilt;
+            watermark = until;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Индекс права на отзыв построен, пар: {}", rebuilt.size());
+    }
+
+    /**
+     * Добавляет пары по бронированиям, закончившимся с прошлой отметки, и сдвигает отметку.
+     * Пары добавляются до сдвига: проверка, прочитавшая новую отметку, уже найдет их в индексе.
+     */
+    @Scheduled(fixedDelayString = "${shareit.item.comment-eligibility.refresh-interval:PT1M}",
+            initialDelayString = "${shareit.item.comment-eligibility.refresh-interval:PT1M}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime from = watermark;
+        LocalDateTime until = LocalDateTime.now();
+        long afterId = 0;
+        int added = 0;
+        List<FinishedBooking> batch;
+        do {
+            long cursor = afterId;
+            batch = transactionTemplate.execute(status -> bookingRepository.findFinishedBetween(BookingStatus.APPROVED,
+                    from, until, cursor, PageRequest.of(0, loadBatchSize)));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            for (FinishedBooking booking : batch) {
+                if (add(booking.getBookerId(), booking.getItemId())) {
+                    added++;
+                }
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == loadBatchSize);
+        watermark = until;
+        log.debug("Индекс права на отзыв обновлен до {}, новых пар: {}", until, added);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        if (!ready) {
+            return;
+        }
+        switch (event.getType()) {
+            case BOOKING_APPROVED:
+                BookingEvent approved = read(event, BookingEvent.class);
+                if (approved.getEnd() != null && approved.getEnd().isBefore(LocalDateTime.now())) {
+                    add(approved.getBookerId(), approved.getItemId());
+                }
+                break;
+            case BOOKING_REJECTED:
+                BookingEvent rejected = read(event, BookingEvent.class);
+                if (contains(rejected.getBookerId(), rejected.getItemId())
+                        && !bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(rejected.getItemId(),
+                        rejected.getBookerId(), BookingStatus.APPROVED, LocalDateTime.now())) {
+                    remove(rejected.getBookerId(), rejected.getItemId());
+                }
+                break;
+            case USER_PURGED:
+                removeBooker(read(event, UserEvent.class).getUserId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return pairs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean contains(Long bookerId, Long itemId) {
+        lock.readLock().lock();
+        try {
+            return pairs.contains(bookerId, itemId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean add(Long bookerId, Long itemId) {
+        lock.writeLock().lock();
+        try {
+            return pairs.add(bookerId, itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long bookerId, Long itemId) {
+        lock.writeLock().lock();
+        try {
+            pairs.remove(bookerId, itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Пары с вещами удаленного пользователя не убираются: таких вещей больше нет, отзыв на них не пройдет
+     * проверку существования вещи.
+     */
+    private void removeBooker(Long userId) {
+        lock.writeLock().lock();
+        try {
+            pairs.removeFirst(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T read(OutboxEvent event, Class<T> type) {
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать событие outbox " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.projection;
+
+import lombok.Value;
+
+/**
+ * Завершенное одобренное бронирование в том виде, в каком оно нужно индексу права на отзыв.
+ */
+@Value
+public class FinishedBooking {
+    Long id;
+    Long bookerId;
+    Long itemId;
+}
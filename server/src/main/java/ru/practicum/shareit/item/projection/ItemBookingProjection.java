@@ -0,0 +1,261 @@
+package ru.practicum.shareit.item.projection;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.outbox.dto.BookingEvent;
+import ru.practicum.shareit.outbox.dto.OutboxEventMapper;
+import ru.practicum.shareit.outbox.dto.UserEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.service.OutboxEventHandler;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Проекция бронирований по вещам для расчета последнего и следующего бронирования в карточке вещи.
+ * Заполняется из outbox; пока проекция не построена, сервис читает бронирования из базы.
+ * На вещь хранится только число бронирований, подтвержденные незавершенные бронирования и последнее
+ * завершенное: остальная история для карточки не нужна. Запись вещи меняется на месте под ее монитором.
+ */
+@Component
+@Slf4j
+public class ItemBookingProjection implements OutboxEventHandler {
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int rebuildBatchSize;
+    private volatile Map<Long, Entry> items = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemBookingProjection(BookingRepository bookingRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${shareit.outbox.rebuild-batch-size:1000}") int rebuildBatchSize) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Без readOnly: при включенной маршрутизации загрузка идет с основной базы, реплика может отставать.
+        this.objectMapper = objectMapper;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Бронирования вещи, видимые пользователю: владелец видит свои, остальные - ни одного.
+     * Список содержит только кандидатов в последнее и следующее бронирование, total - число всех бронирований.
+     */
+    public ItemBookings getBookings(Long itemId, Long userId) {
+        Entry entry = items.get(itemId);
+        if (entry == null || !entry.ownerId.equals(userId)) {
+            return ItemBookings.EMPTY;
+        }
+        synchronized (entry) {
+            return entry.toItemBookings(LocalDateTime.now());
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        ready = false;
+        Map<Long, Entry> rebuilt = new ConcurrentHashMap<>();
+        long afterId = 0;
+        List<Booking> batch;
+        do {
+            long cursor = afterId;
+            batch = transactionTemplate.execute(status -> {
+                List<Booking> bookings = bookingRepository.findAllAfterIdWithItem(cursor, PageRequest.of(0, rebuildBatchSize));
+                bookings.forEach(booking -> put(rebuilt, OutboxEventMapper.toBookingEvent(booking), true));
+                return bookings;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == rebuildBatchSize);
+        items = rebuilt;
+        ready = true;
+        log.info("Проекция бронирований по вещам построена, вещей: {}", rebuilt.size());
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        switch (event.getType()) {
+            case BOOKING_CREATED:
+                put(items, read(event, BookingEvent.class), true);
+                break;
+            case BOOKING_APPROVED:
+            case BOOKING_REJECTED:
+            case BOOKING_EXPIRED:
+                put(items, read(event, BookingEvent.class), false);
+                break;
+            case USER_DELETED:
+                removeDeletedUser(read(event, UserEvent.class).getUserId());
+                break;
+            case USER_PURGED:
+                removeUser(read(event, UserEvent.class).getUserId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void put(Map<Long, Entry> target, BookingEvent event, boolean created) {
+        if (event.getItemId() == null || event.getOwnerId() == null) {
+            return;
+        }
+        Entry entry = target.computeIfAbsent(event.getItemId(), itemId -> new Entry(event.getOwnerId()));
+        boolean stale;
+        synchronized (entry) {
+            if (created) {
+                entry.total++;
+            }
+            stale = entry.apply(toSnapshot(event), LocalDateTime.now());
+        }
+        if (stale) {
+            reload(target, event.getItemId(), event.getOwnerId());
+        }
+    }
+
+    /**
+     * Пользователь помечен удаленным: его вещи уходят из проекции, а вещи, которые он бронировал, перечитываются
+     * из базы, где его бронирования уже не видны. Так карточки не ждут очистки и не фильтруют бронирующих при чтении.
+     */
+    private void removeDeletedUser(Long userId) {
+        Map<Long, Entry> current = items;
+        current.values().removeIf(entry -> entry.ownerId.equals(userId));
+        List<Long> itemIds = transactionTemplate.execute(status -> bookingRepository.findItemIdsByBookerId(userId));
+        for (Long itemId : itemIds != null ? itemIds : List.<Long>of()) {
+            Entry entry = current.get(itemId);
+            if (entry != null) {
+                reload(current, itemId, entry.ownerId);
+            }
+        }
+    }
+
+    /**
+     * Убирает вещи очищенного пользователя и его бронирования чужих вещей: строки уже удалены из базы.
+     */
+    private void removeUser(Long userId) {
+        Map<Long, Entry> current = items;
+        current.values().removeIf(entry -> entry.ownerId.equals(userId));
+        current.forEach((itemId, entry) -> {
+            boolean stale;
+            synchronized (entry) {
+                stale = entry.removeBooker(userId);
+            }
+            if (stale) {
+                reload(current, itemId, entry.ownerId);
+            }
+        });
+    }
+
+    /**
+     * Перечитывает вещь из базы, когда из записи ушло хранимое последнее бронирование: предыдущего проекция
+     * не хранит. Бывает редко - при отклонении уже завершенного бронирования или удалении бронирующего.
+     */
+    private void reload(Map<Long, Entry> target, Long itemId, Long ownerId) {
+        List<BookingEvent> events = transactionTemplate.execute(status ->
+                bookingRepository.findAllByItemIdAndOwnerId(itemId, ownerId).stream()
+                        .map(OutboxEventMapper::toBookingEvent)
+                        .collect(Collectors.toList()));
+        Entry entry = new Entry(ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        for (BookingEvent event : events != null ? events : List.<BookingEvent>of()) {
+            entry.total++;
+            entry.apply(toSnapshot(event), now);
+        }
+        target.put(itemId, entry);
+    }
+
+    private static Booking toSnapshot(BookingEvent event) {
+        return Booking.builder()
+                .id(event.getBookingId())
+                .start(event.getStart())
+                .end(event.getEnd())
+                .booker(User.builder().id(event.getBookerId()).build())
+                .ownerId(event.getOwnerId())
+                .status(event.getStatus())
+                .build();
+    }
+
+    private <T> T read(OutboxEvent event, Class<T> type) {
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать событие outbox " + event.getId(), e);
+        }
+    }
+
+    /**
+     * Сводка по вещи. Подтвержденные бронирования лежат в upcoming, пока не завершатся; из завершенных
+     * хранится одно, начавшееся позже всех, - только оно может оказаться последним бронированием.
+     */
+    private static class Entry {
+        private final Long ownerId;
+        private final Map<Long, Booking> upcoming = new HashMap<>();
+        private Booking last;
+        private int total;
+
+        Entry(Long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        /**
+         * Применяет новое состояние бронирования. Возвращает true, если из записи ушло хранимое
+         * последнее бронирование и запись нужно перечитать.
+         */
+        boolean apply(Booking booking, LocalDateTime now) {
+            if (booking.getStatus() == BookingStatus.APPROVED) {
+                upcoming.put(booking.getId(), booking);
+                moveFinished(now);
+                return false;
+            }
+            upcoming.remove(booking.getId());
+            return last != null && last.getId().equals(booking.getId());
+        }
+
+        boolean removeBooker(Long userId) {
+            upcoming.values().removeIf(booking -> userId.equals(booking.getBooker().getId()));
+            return last != null && userId.equals(last.getBooker().getId());
+        }
+
+        ItemBookings toItemBookings(LocalDateTime now) {
+            moveFinished(now);
+            List<Booking> bookings = new ArrayList<>(upcoming.values());
+            if (last != null) {
+                bookings.add(last);
+            }
+            return new ItemBookings(total, bookings);
+        }
+
+        private void moveFinished(LocalDateTime now) {
+            Iterator<Booking> iterator = upcoming.values().iterator();
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                if (booking.getEnd().isAfter(now)) {
+                    continue;
+                }
+                iterator.remove();
+                if (last == null || booking.getStart().isAfter(last.getStart())) {
+                    last = booking;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.Collections;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemBookings {
+    public static final ItemBookings EMPTY = new ItemBookings(0, Collections.emptyList());
+
+    private final int total;
+    private final List<Booking> bookings;
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item.projection;
+
+/**
+ * Множество пар положительных long с открытой адресацией и линейным пробированием.
+ * Пары лежат в двух массивах примитивов без упаковки в объекты, 0 в первом массиве обозначает пустую ячейку.
+ * Удаление сдвигает следующие элементы цепочки назад, поэтому надгробия не копятся.
+ * Не потокобезопасно, синхронизация на стороне владельца.
+ */
+class LongPairSet {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] first;
+    private long[] second;
+    private int mask;
+    private int size;
+
+    LongPairSet() {
+        this(MIN_CAPACITY);
+    }
+
+    LongPairSet(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expected * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long a, long b) {
+        int i = slot(a, b);
+        while (first[i] != 0) {
+            if (first[i] == a && second[i] == b) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    boolean add(long a, long b) {
+        if (a <= 0 || b <= 0) {
+            throw new IllegalArgumentException("Элементы пары должны быть положительными: " + a + ", " + b);
+        }
+        int i = slot(a, b);
+        while (first[i] != 0) {
+            if (first[i] == a && second[i] == b) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        first[i] = a;
+        second[i] = b;
+        if (++size * 2 > first.length) {
+            resize(first.length * 2);
+        }
+        return true;
+    }
+
+    boolean remove(long a, long b) {
+        int i = slot(a, b);
+        while (first[i] != 0) {
+            if (first[i] == a && second[i] == b) {
+                shiftBack(i);
+                size--;
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет все пары с заданным первым элементом. Полный проход по таблице.
+     */
+    int removeFirst(long a) {
+        long[] oldFirst = first;
+        long[] oldSecond = second;
+        int before = size;
+        allocate(oldFirst.length);
+        for (int i = 0; i < oldFirst.length; i++) {
+            if (oldFirst[i] != 0 && oldFirst[i] != a) {
+                insert(oldFirst[i], oldSecond[i]);
+            }
+        }
+        return before - size;
+    }
+
+    private void shiftBack(int gap) {
+        int j = gap;
+        while (true) {
+            j = (j + 1) & mask;
+            if (first[j] == 0) {
+                break;
+            }
+            int home = slot(first[j], second[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                first[gap] = first[j];
+                second[gap] = second[j];
+                gap = j;
+            }
+        }
+        first[gap] = 0;
+        second[gap] = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldFirst = first;
+        long[] oldSecond = second;
+        allocate(capacity);
+        for (int i = 0; i < oldFirst.length; i++) {
+            if (oldFirst[i] != 0) {
+                insert(oldFirst[i], oldSecond[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        first = new long[capacity];
+        second = new long[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private void insert(long a, long b) {
+        int i = slot(a, b);
+        while (first[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        first[i] = a;
+        second[i] = b;
+        size++;
+    }
+
+    private int slot(long a, long b) {
+        long h = a * 0x9e3779b97f4a7c15L ^ b;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
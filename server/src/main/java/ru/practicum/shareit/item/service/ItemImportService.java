@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.catalog.ItemSearchCatalog;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.dto.ItemEvent;
+import ru.practicum.shareit.outbox.dto.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.RequestMatchingService;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.utilities.Create;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт вещей из потока NDJSON: одна вещь в строке. Тело читается построчно и не буферизуется целиком,
+ * каждая строка проверяется по группе {@link Create}, корректные строки записываются пачками
+ * по shareit.item.import.batch-size в отдельных транзакциях. Ошибки возвращаются по номерам строк.
+ */
+@Service
+@Slf4j
+public class ItemImportService {
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final ItemSearchCatalog itemSearchCatalog;
+    private final RequestMatchingService requestMatchingService;
+    private final ObjectReader itemReader;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxErrors;
+
+    @Autowired
+    public ItemImportService(ItemRepository itemRepository,
+                             UserRepository userRepository,
+                             ItemRequestRepository itemRequestRepository,
+                             OutboxPublisher outboxPublisher,
+                             ItemSearchCatalog itemSearchCatalog,
+                             RequestMatchingService requestMatchingService,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${shareit.item.import.batch-size:500}") int batchSize,
+                             @Value("${shareit.item.import.max-errors:1000}") int maxErrors) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.itemSearchCatalog = itemSearchCatalog;
+        this.requestMatchingService = requestMatchingService;
+        this.itemReader = objectMapper.readerFor(ItemDto.class);
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public ItemImportReport importItems(InputStream body, Long userId) throws IOException {
+        User owner = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
+        ItemImportReport report = new ItemImportReport();
+        List<ImportLine> batch = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ItemDto itemDto = parse(line, lineNumber, report);
+            if (itemDto == null) {
+                continue;
+            }
+            batch.add(new ImportLine(lineNumber, itemDto));
+            if (batch.size() >= batchSize) {
+                writeBatch(batch, owner, report);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, owner, report);
+        }
+
+        log.info("Импорт вещей пользователя {}: добавлено {}, ошибок {}", userId, report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private ItemDto parse(String line, long lineNumber, ItemImportReport report) {
+        ItemDto itemDto;
+        try {
+            itemDto = itemReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            addError(report, lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        if (itemDto == null) {
+            addError(report, lineNumber, "Пустая вещь.");
+            return null;
+        }
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto, Create.class);
+        if (!violations.isEmpty()) {
+            addError(report, lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return itemDto;
+    }
+
+    private void writeBatch(List<ImportLine> batch, User owner, ItemImportReport report) {
+        List<ItemImportError> batchErrors = new ArrayList<>();
+        Integer saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                Set<Long> requestIds = batch.stream()
+                        .map(importLine -> importLine.item.getRequestId())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Map.of()
+                        : itemRequestRepository.findAllById(requestIds).stream()
+                        .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+                List<Item> items = new ArrayList<>(batch.size());
+                for (ImportLine importLine : batch) {
+                    ItemDto itemDto = importLine.item;
+                    itemDto.setId(null);
+                    if (itemDto.getRequestId() == null) {
+                        items.add(ItemMapper.toItem(itemDto, owner));
+                    } else if (requests.containsKey(itemDto.getRequestId())) {
+                        items.add(ItemMapper.toItemWithRequest(itemDto, owner, requests.get(itemDto.getRequestId())));
+                    } else {
+                        batchErrors.add(new ItemImportError(importLine.line,
+                                "Запрос с id = " + itemDto.getRequestId() + " не найден"));
+                    }
+                }
+                for (Item item : itemRepository.saveAll(items)) {
+                    ItemEvent event = OutboxEventMapper.toItemEvent(item);
+                    outboxPublisher.publish(OutboxEventType.ITEM_CREATED, item.getId(), event, OutboxEventMapper.toAudience(event));
+                    itemSearchCatalog.upsertAfterCommit(item);
+                    requestMatchingService.itemAdded(item);
+                }
+                return items.size();
+            });
+        } catch (RuntimeException e) {
+            log.warn("Не удалось записать пачку импорта из {} строк", batch.size(), e);
+            for (ImportLine importLine : batch) {
+                addError(report, importLine.line, "Ошибка записи: " + e.getMessage());
+            }
+            return;
+        }
+        report.setImported(report.getImported() + (saved != null ? saved : 0));
+        for (ItemImportError error : batchErrors) {
+            addError(report, error.getLine(), error.getMessage());
+        }
+    }
+
+    private void addError(ItemImportReport report, long line, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxErrors) {
+            report.getErrors().add(new ItemImportError(line, message));
+        }
+    }
+
+    private static class ImportLine {
+        private final long line;
+        private final ItemDto item;
+
+        ImportLine(long line, ItemDto item) {
+            this.line = line;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemInMemoryStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserInMemoryStorage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Вещи профиля memory: хранятся в {@link ItemInMemoryStorage}, поиск идет по индексу в памяти.
+ * Бронирования, запросы и комментарии в этом профиле не ведутся: у вещи нет бронирований и отзывов,
+ * привязка к запросу и добавление отзыва отклоняются так же, как в базе при их отсутствии.
+ */
+@Service
+@Profile("memory")
+@Slf4j
+public class ItemInMemoryService implements ItemService {
+    private final ItemInMemoryStorage itemStorage;
+    private final UserInMemoryStorage userStorage;
+    private final int commentsMaxPageSize;
+
+    @Autowired
+    public ItemInMemoryService(ItemInMemoryStorage itemStorage, UserInMemoryStorage userStorage,
+                               @Value("${shareit.item.comments.max-page-size:100}") int commentsMaxPageSize) {
+        this.itemStorage = itemStorage;
+        this.userStorage = userStorage;
+        this.commentsMaxPageSize = commentsMaxPageSize;
+    }
+
+    @Override
+    public ItemDto addItem(ItemDto itemDto, Long userId) {
+        checkValidation(userId, itemDto, true);
+        if (itemDto.getRequestId() != null) {
+            throw new NotFoundException("Запрос с id = " + itemDto.getRequestId() + " не найден");
+        }
+        User user = userStorage.getUserById(userId).orElseThrow();
+        return ItemMapper.toItemDto(itemStorage.addItem(ItemMapper.toItem(itemDto, user), userId));
+    }
+
+    @Override
+    public ItemDtoExtra getItemById(Long itemId, Long userId) {
+        checkValidation(userId);
+        return toItemDtoExtra(itemStorage.getItemById(itemId).orElseThrow());
+    }
+
+    @Override
+    public ItemDto updateItem(Long itemId, Item item, Long userId) {
+        checkValidation(userId);
+        Item itemUpd = Item.builder()
+                .id(itemId)
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .build();
+        return ItemMapper.toItemDto(itemStorage.updateItem(itemUpd, userId));
+    }
+
+    @Override
+    public List<ItemDtoExtra> getAllItems(Long userId, Pageable pageable) {
+        checkValidation(userId);
+        return itemStorage.getAllItems(userId).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(this::toItemDtoExtra)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemDto> searchItems(String text, Pageable pageable) {
+        if (text == null || text.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemStorage.searchItems(text).stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void checkValidation(Long userId, ItemDto item, boolean checkEmpty) {
+        if (checkEmpty && ((item.getName() == null || item.getName().isEmpty())
+                || (item.getDescription() == null || item.getDescription().isEmpty())
+                || item.getAvailable() == null)) {
+            throw new ValidationException("Поля Item не заполнены.");
+        }
+        checkValidation(userId);
+    }
+
+    @Override
+    public void checkValidation(Long userId) {
+        if (userId == null) {
+            throw new ValidationException("Пользователь пустой.");
+        }
+        userStorage.getUserById(userId);
+    }
+
+    @Override
+    public CommentDto addComment(Long itemId, Long userId, CommentDtoPartial comment) {
+        checkValidation(userId);
+        itemStorage.getItemById(itemId);
+        throw new ValidationException("Не найдено бронирования вещи: " + itemId + " пользователем: " + userId);
+    }
+
+    @Override
+    public CommentPageDto getComments(Long itemId, Long userId, String cursor, int size) {
+        checkValidation(userId);
+        if (size < 1 || size > commentsMaxPageSize) {
+            throw new ValidationException("Размер страницы комментариев должен быть от 1 до " + commentsMaxPageSize + ".");
+        }
+        itemStorage.getItemById(itemId);
+        return CommentPageDto.builder()
+                .comments(new ArrayList<>())
+                .build();
+    }
+
+    private ItemDtoExtra toItemDtoExtra(Item item) {
+        ItemDtoExtra itemDto = ItemMapper.toItemDto(item, null, null, new ArrayList<>());
+        itemDto.setCommentsCount(0L);
+        return itemDto;
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.service;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoPartial;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoExtra;
 import ru.practicum.shareit.item.model.Item;
@@ -25,4 +26,6 @@ public interface ItemService {
     void checkValidation(Long userId);
 
     CommentDto addComment(Long itemId, Long userId, CommentDtoPartial comment);
+
+    CommentPageDto getComments(Long itemId, Long userId, String cursor, int size);
 }
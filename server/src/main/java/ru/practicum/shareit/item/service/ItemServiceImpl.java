@@ -2,6 +2,9 @@ package ru.practicum.shareit.item.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -10,23 +13,34 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.catalog.ItemSearchCatalog;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityService;
+import ru.practicum.shareit.item.projection.CommentEligibilityIndex;
+import ru.practicum.shareit.item.projection.ItemBookingProjection;
+import ru.practicum.shareit.item.projection.ItemBookings;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.dto.CommentEvent;
+import ru.practicum.shareit.outbox.dto.ItemEvent;
+import ru.practicum.shareit.outbox.dto.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.RequestMatchingService;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Profile("!memory")
 @Slf4j
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
@@ -34,18 +48,42 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemBookingProjection itemBookingProjection;
+    private final CommentEligibilityIndex commentEligibilityIndex;
+    private final ItemPopularityService itemPopularityService;
+    private final OutboxPublisher outboxPublisher;
+    private final ItemSearchCatalog itemSearchCatalog;
+    private final RequestMatchingService requestMatchingService;
+    private final int commentsPreviewSize;
+    private final int commentsMaxPageSize;
 
     @Autowired
     public ItemServiceImpl(ItemRepository itemRepository,
                            UserRepository userRepository,
                            BookingRepository bookingRepository,
                            CommentRepository commentRepository,
-                           ItemRequestRepository itemRequestRepository) {
+                           ItemRequestRepository itemRequestRepository,
+                           ItemBookingProjection itemBookingProjection,
+                           CommentEligibilityIndex commentEligibilityIndex,
+                           ItemPopularityService itemPopularityService,
+                           OutboxPublisher outboxPublisher,
+                           ItemSearchCatalog itemSearchCatalog,
+                           RequestMatchingService requestMatchingService,
+                           @Value("${shareit.item.comments.preview-size:10}") int commentsPreviewSize,
+                           @Value("${shareit.item.comments.max-page-size:100}") int commentsMaxPageSize) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemBookingProjection = itemBookingProjection;
+        this.commentEligibilityIndex = commentEligibilityIndex;
+        this.itemPopularityService = itemPopularityService;
+        this.outboxPublisher = outboxPublisher;
+        this.itemSearchCatalog = itemSearchCatalog;
+        this.requestMatchingService = requestMatchingService;
+        this.commentsPreviewSize = commentsPreviewSize;
+        this.commentsMaxPageSize = commentsMaxPageSize;
     }
 
     @Transactional
@@ -65,6 +103,10 @@ public class ItemServiceImpl implements ItemService {
         }
         item.setOwner(userId);
         Item itemDb = itemRepository.save(item);
+        ItemEvent event = OutboxEventMapper.toItemEvent(itemDb);
+        outboxPublisher.publish(OutboxEventType.ITEM_CREATED, itemDb.getId(), event, OutboxEventMapper.toAudience(event));
+        itemSearchCatalog.upsertAfterCommit(itemDb);
+        requestMatchingService.itemAdded(itemDb);
         log.info("Вещь добавлена в базу данных в таблицу items по ID: {} \n {}", itemDb.getId(), itemDb);
         return ItemMapper.toItemDto(itemDb);
     }
@@ -73,8 +115,10 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemDtoExtra getItemById(Long itemId, Long userId) {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
+        Item item = getVisibleItem(itemId);
 
-        List<Booking> bookings = bookingRepository.findAllByItemIdAndOwnerId(itemId, userId);
+        ItemBookings itemBookings = getItemBookings(itemId, userId);
+        List<Booking> bookings = itemBookings.getBookings();
         log.info("getItemById: for item {} all bookings: {}", itemId, bookings);
 
         LocalDateTime now = LocalDateTime.now();
@@ -82,7 +126,7 @@ public class ItemServiceImpl implements ItemService {
 
         Booking nextBooking;
         Booking lastBooking;
-        if (bookings.size() == 1) {
+        if (itemBookings.getTotal() == 1) {
             nextBooking = null;
             lastBooking = getNextBooking(bookings);
         } else {
@@ -103,13 +147,48 @@ public class ItemServiceImpl implements ItemService {
             log.info("getItemById: next booking null");
         }
 
-        List<Comment> comments = commentRepository.findAllByItemId(itemId);
+        List<Comment> comments = commentRepository.findNewestByItemId(itemId, PageRequest.of(0, commentsPreviewSize));
         List<CommentDto> commentsDto = comments.stream()
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
+        // Неполная первая страница - это все комментарии вещи, отдельный подсчет не нужен.
+        long commentsCount = comments.size() < commentsPreviewSize ? comments.size() : commentRepository.countByItemId(itemId);
 
-        return ItemMapper.toItemDto(itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь не найдена.")), nextBooking, lastBooking, commentsDto);
+        ItemDtoExtra itemDto = ItemMapper.toItemDto(item, nextBooking, lastBooking, commentsDto);
+        itemDto.setCommentsCount(commentsCount);
+        itemDto.setCommentsCursor(commentsCount > comments.size()
+                ? CommentMapper.toCursor(comments.get(comments.size() - 1)) : null);
+        // Просмотры владельцем, в том числе при логировании PATCH, в популярность не входят.
+        if (!userId.equals(item.getOwner())) {
+            itemPopularityService.recordView(itemId);
+        }
+        return itemDto;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CommentPageDto getComments(Long itemId, Long userId, String cursor, int size) {
+        checkValidation(userId);
+        if (size < 1 || size > commentsMaxPageSize) {
+            throw new ValidationException("Размер страницы комментариев должен быть от 1 до " + commentsMaxPageSize + ".");
+        }
+        getVisibleItem(itemId);
+        // На одну запись больше, чтобы без подсчета понять, есть ли следующая страница.
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<Comment> comments = cursor == null || cursor.isBlank()
+                ? commentRepository.findNewestByItemId(itemId, page)
+                : commentRepository.findByItemIdBefore(itemId, CommentMapper.cursorCreated(cursor),
+                CommentMapper.cursorId(cursor), page);
+        boolean hasMore = comments.size() > size;
+        if (hasMore) {
+            comments = comments.subList(0, size);
+        }
+        return CommentPageDto.builder()
+                .comments(comments.stream()
+                        .map(CommentMapper::toCommentDto)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasMore ? CommentMapper.toCursor(comments.get(comments.size() - 1)) : null)
+                .build();
     }
 
     @Transactional
@@ -128,6 +207,9 @@ public class ItemServiceImpl implements ItemService {
             itemOld.setAvailable(item.getAvailable());
         }
         Item itemUpd = itemRepository.save(itemOld);
+        ItemEvent event = OutboxEventMapper.toItemEvent(itemUpd);
+        outboxPublisher.publish(OutboxEventType.ITEM_UPDATED, itemId, event, OutboxEventMapper.toAudience(event));
+        itemSearchCatalog.upsertAfterCommit(itemUpd);
         log.info("Вещь обновлена в базе данных в таблице items по ID: {} \n {}", itemId, itemUpd);
         return ItemMapper.toItemDto(itemUpd);
     }
@@ -148,6 +230,17 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> searchItems(String text, Pageable pageable) {
         if (text == null || text.isEmpty()) {
             return new ArrayList<>();
+        } else if (itemSearchCatalog.isReady()) {
+            // Вещи удаленных владельцев убираются из каталога при удалении, поэтому страница полная;
+            // фильтр по владельцу ниже закрывает только гонку с еще не примененным удалением.
+            List<Long> ids = itemSearchCatalog.search(text, pageable);
+            Map<Long, Item> items = itemRepository.findAllWithActiveOwnerByIds(ids).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            return ids.stream()
+                    .map(items::get)
+                    .filter(Objects::nonNull)
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
         } else {
             return itemRepository.searchItems(text, pageable)
                     .stream()
@@ -182,10 +275,9 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public CommentDto addComment(Long itemId, Long userId, CommentDtoPartial comment) {
         User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Вещь не найдена."));
-        List<Booking> booking = bookingRepository.findAllByItemIdAndBookerId(itemId, userId, BookingStatus.APPROVED);
+        Item item = getVisibleItem(itemId);
 
-        if (booking.isEmpty()) {
+        if (!commentEligibilityIndex.isEligible(userId, itemId)) {
             throw new ValidationException("Не найдено бронирования вещи: " + itemId + " пользователем: " + userId);
         }
 
@@ -195,10 +287,31 @@ public class ItemServiceImpl implements ItemService {
                 .text(comment.getText())
                 .build();
         Comment commentDb = commentRepository.save(commentBuild);
+        CommentEvent event = OutboxEventMapper.toCommentEvent(commentDb);
+        outboxPublisher.publish(OutboxEventType.COMMENT_ADDED, itemId, event, OutboxEventMapper.toAudience(event));
         log.info("Комментарий добавлен в базу данных в таблицу comments по ID: {} \n {}", commentDb.getId(), commentDb);
         return CommentMapper.toCommentDto(commentDb);
     }
 
+    /**
+     * Вещь удаленного, но еще не очищенного владельца уже не показывается.
+     */
+    private Item getVisibleItem(Long itemId) {
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Вещь не найдена."));
+        if (userRepository.findById(item.getOwner()).isEmpty()) {
+            throw new NotFoundException("Вещь не найдена.");
+        }
+        return item;
+    }
+
+    private ItemBookings getItemBookings(Long itemId, Long userId) {
+        if (itemBookingProjection.isReady()) {
+            return itemBookingProjection.getBookings(itemId, userId);
+        }
+        List<Booking> bookings = bookingRepository.findAllByItemIdAndOwnerId(itemId, userId);
+        return new ItemBookings(bookings.size(), bookings);
+    }
+
     private Booking getNextBooking(List<Booking> bookings) {
         return bookings.stream()
                 .filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
@@ -1,12 +1,64 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.outbox.dto.DeletedEvent;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+    /**
+     * Самые новые комментарии вещи вместе с авторами, одним запросом по индексу (item_id, created, id).
+     * Комментарии удаленных, но еще не очищенных пользователей не показываются.
+     */
+    @Query("select c " +
+            "from Comment as c " +
+            "join fetch c.author as a " +
+            "where c.item.id = ?1 and a.deleted = false " +
+            "order by c.created desc, c.id desc")
+    List<Comment> findNewestByItemId(Long itemId, Pageable pageable);
+
+    /**
+     * Следующая страница комментариев после ключа (created, id) последнего комментария предыдущей страницы.
+     */
+    @Query("select c " +
+            "from Comment as c " +
+            "join fetch c.author as a " +
+            "where c.item.id = ?1 and a.deleted = false " +
+            "   and (c.created < ?2 or (c.created = ?2 and c.id < ?3)) " +
+            "order by c.created desc, c.id desc")
+    List<Comment> findByItemIdBefore(Long itemId, LocalDateTime created, Long id, Pageable pageable);
+
+    @Query("select count(c) " +
+            "from Comment as c " +
+            "where c.item.id = ?1 and c.author.deleted = false")
+    long countByItemId(Long itemId);
+
+    @Query("select c " +
+            "from Comment as c " +
+            "join fetch c.author as a " +
+            "where c.id in ?1 and a.deleted = false")
+    List<Comment> findAllActiveByIds(Collection<Long> ids);
+
+    @Query("select c.id " +
+            "from Comment as c " +
+            "where c.author.id = ?1 or c.item.owner = ?1 " +
+            "order by c.id")
+    List<Long> findIdsByAuthorOrItemOwner(Long userId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.outbox.dto.DeletedEvent(c.id, c.item.owner, c.author.id) " +
+            "from Comment as c " +
+            "where c.id in ?1")
+    List<DeletedEvent> findDeletedEventsByIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Comment c where c.id in ?1")
+    int deleteAllByIds(Collection<Long> ids);
 }
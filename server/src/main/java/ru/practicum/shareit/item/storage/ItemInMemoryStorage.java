@@ -1,94 +1,250 @@
 package ru.practicum.shareit.item.storage;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exceptions.ItemAlreadyExistException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.storage.JournalRecordMapper;
+import ru.practicum.shareit.storage.StorageJournal;
+import ru.practicum.shareit.utilities.TextNormalizer;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * Хранилище вещей в памяти: поиск по id за O(1), индекс вещей по владельцу
+ * и заранее приведенные к нижнему регистру название и описание для поиска по тексту.
+ * Подключается профилем memory. Изменения записываются в журнал {@link StorageJournal}.
+ */
 @Component("itemInMemoryStorage")
+@Profile("memory")
 @Slf4j
 public class ItemInMemoryStorage implements ItemStorage {
-    private final List<Item> items = new ArrayList<>();
-    private long id = 1L;
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> ownerIndex = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, SearchEntry> searchIndex = new ConcurrentHashMap<>();
+    private final AtomicLong id = new AtomicLong(1L);
+    private final StorageJournal journal;
+    private final long searchParallelismThreshold;
+
+    @Autowired
+    public ItemInMemoryStorage(StorageJournal journal,
+                               @Value("${shareit.storage.search.parallelism-threshold:10000}") long searchParallelismThreshold) {
+        this.journal = journal;
+        this.searchParallelismThreshold = searchParallelismThreshold;
+    }
 
     @Override
     public Item addItem(Item item, Long userId) {
-        item.setId(id);
-        id++;
         item.setOwner(userId);
-
-        if (items.contains(item)) {
-            throw new ItemAlreadyExistException("Вещь уже была добавлена: " + item);
+        long position;
+        journal.lock();
+        try {
+            boolean exists = ownerIndex.getOrDefault(userId, Collections.emptySet()).stream()
+                    .map(items::get)
+                    .anyMatch(item::equals);
+            if (exists) {
+                throw new ItemAlreadyExistException("Вещь уже была добавлена: " + item);
+            }
+            item.setId(id.getAndIncrement());
+            position = journal.append(JournalRecordMapper.toRecord(item));
+            put(item);
+        } finally {
+            journal.unlock();
         }
+        journal.sync(position);
 
         log.info("Вещь добавлена в память items по ID: {} \n {}", item.getId(), item);
-        items.add(item);
         return item;
     }
 
     @Override
     public Optional<Item> getItemById(Long itemId, Long userId) {
-        return Optional.ofNullable(items.stream()
-                .filter(i -> Objects.equals(itemId, i.getId()) && Objects.equals(userId, i.getOwner())).findFirst()
-                .orElseThrow(() ->
-                        new NotFoundException("Такой вещи с id = " + itemId + " не существует.")));
+        Item item = itemId != null ? items.get(itemId) : null;
+        if (item == null || !Objects.equals(userId, item.getOwner())) {
+            throw new NotFoundException("Такой вещи с id = " + itemId + " не существует.");
+        }
+        return Optional.of(item);
     }
 
     @Override
     public Optional<Item> getItemById(Long itemId) {
-        return Optional.ofNullable(items.stream()
-                .filter(i -> Objects.equals(itemId, i.getId())).findFirst()
-                .orElseThrow(() ->
-                        new NotFoundException("Такой вещи с id = " + itemId + " не существует.")));
+        Item item = itemId != null ? items.get(itemId) : null;
+        if (item == null) {
+            throw new NotFoundException("Такой вещи с id = " + itemId + " не существует.");
+        }
+        return Optional.of(item);
     }
 
     @Override
     public Item updateItem(Item item, Long userId) {
-        Item oldItem = getItemById(item.getId(), userId).orElse(null);
-        items.remove(oldItem);
+        long position;
+        journal.lock();
+        try {
+            Item oldItem = getItemById(item.getId(), userId).orElse(null);
 
-        if (oldItem.getOwner() != null && !oldItem.getOwner().equals(userId)) {
-            throw new NotFoundException("Такой вещи с id = " + item.getId() + " у пользователя с id = " + userId + " не существует.");
-        }
-        if (item.getName() == null && oldItem.getName() != null) {
-            item.setName(oldItem.getName());
-        }
-        if (item.getDescription() == null && oldItem.getDescription() != null) {
-            item.setDescription(oldItem.getDescription());
-        }
-        if (item.getAvailable() == null && oldItem.getAvailable() != null) {
-            item.setAvailable(oldItem.getAvailable());
+            if (item.getName() == null && oldItem.getName() != null) {
+                item.setName(oldItem.getName());
+            }
+            if (item.getDescription() == null && oldItem.getDescription() != null) {
+                item.setDescription(oldItem.getDescription());
+            }
+            if (item.getAvailable() == null && oldItem.getAvailable() != null) {
+                item.setAvailable(oldItem.getAvailable());
+            }
+
+            item.setOwner(oldItem.getOwner());
+            item.setRequest(oldItem.getRequest());
+            position = journal.append(JournalRecordMapper.toRecord(item));
+            put(item);
+        } finally {
+            journal.unlock();
         }
+        journal.sync(position);
 
-        item.setOwner(oldItem.getOwner());
         log.info("Текущая вещь: {}", item);
-        items.add(item);
         return item;
     }
 
     @Override
     public List<Item> getAllItems(Long userId) {
-        List<Item> itemsByUser = items.stream()
-                .filter(i -> Objects.equals(i.getOwner(), userId))
+        List<Item> itemsByUser = ownerIndex.getOrDefault(userId, Collections.emptySet()).stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
         log.info("Текущее количество всех вещей: {}, текущее количество всех вещей: {} пользователя: {}",
                 items.size(), itemsByUser.size(), userId);
         return itemsByUser;
     }
 
+    /**
+     * Удаляет все вещи владельца одной серией записей журнала. Вызывается перед удалением пользователя.
+     */
+    public List<Item> deleteItemsByOwner(Long userId) {
+        List<Item> removed = new ArrayList<>();
+        long position = -1;
+        journal.lock();
+        try {
+            for (Long itemId : new ArrayList<>(ownerIndex.getOrDefault(userId, Collections.emptySet()))) {
+                Item item = items.get(itemId);
+                if (item != null) {
+                    position = journal.append(JournalRecordMapper.toDeleteRecord(item));
+                    remove(itemId);
+                    removed.add(item);
+                }
+            }
+        } finally {
+            journal.unlock();
+        }
+        if (position >= 0) {
+            journal.sync(position);
+        }
+        log.info("Удалено вещей из памяти items: {} пользователя: {}", removed.size(), userId);
+        return removed;
+    }
+
+    /**
+     * Поиск доступных вещей по подстроке в названии или описании без учета регистра.
+     * Начиная с порога shareit.storage.search.parallelism-threshold обход делится между потоками ForkJoinPool.
+     */
     @Override
     public List<Item> searchItems(String text) {
-        return items.stream()
-                .filter(i -> i.getAvailable()
-                        && (i.getName().toLowerCase().contains(text.toLowerCase())
-                        || i.getDescription().toLowerCase().contains(text.toLowerCase())))
+        char[] query = TextNormalizer.fold(text);
+        Queue<Item> found = new ConcurrentLinkedQueue<>();
+        searchIndex.forEachValue(searchParallelismThreshold, entry -> {
+            if (entry.matches(query)) {
+                found.add(entry.item);
+            }
+        });
+        return found.stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Применяет вещь из снимка или журнала при восстановлении, без записи в журнал.
+     */
+    public void restoreItem(Item item) {
+        put(item);
+        id.accumulateAndGet(item.getId() + 1, Math::max);
+    }
+
+    public void restoreDelete(Long itemId) {
+        remove(itemId);
+    }
+
+    /**
+     * Копия всех вещей для снимка. Вызывается под блокировкой журнала.
+     */
+    public List<Item> copyItems() {
+        return items.values().stream()
+                .map(item -> Item.builder()
+                        .id(item.getId())
+                        .name(item.getName())
+                        .description(item.getDescription())
+                        .available(item.getAvailable())
+                        .owner(item.getOwner())
+                        .request(item.getRequest() != null ? ItemRequest.builder().id(item.getRequest().getId()).build() : null)
+                        .build())
                 .collect(Collectors.toList());
     }
+
+    public void clear() {
+        items.clear();
+        searchIndex.clear();
+        ownerIndex.clear();
+        id.set(1L);
+    }
+
+    private void put(Item item) {
+        Item old = items.put(item.getId(), item);
+        if (old != null && !Objects.equals(old.getOwner(), item.getOwner())) {
+            Set<Long> oldOwnerItems = ownerIndex.get(old.getOwner());
+            if (oldOwnerItems != null) {
+                oldOwnerItems.remove(item.getId());
+            }
+        }
+        if (item.getOwner() != null) {
+            ownerIndex.computeIfAbsent(item.getOwner(), key -> ConcurrentHashMap.newKeySet()).add(item.getId());
+        }
+        searchIndex.put(item.getId(), new SearchEntry(item));
+    }
+
+    private void remove(Long itemId) {
+        Item removed = items.remove(itemId);
+        if (removed == null) {
+            return;
+        }
+        Set<Long> ownerItems = ownerIndex.get(removed.getOwner());
+        if (ownerItems != null) {
+            ownerItems.remove(itemId);
+        }
+        searchIndex.remove(itemId);
+    }
+
+    private static class SearchEntry {
+        private final Item item;
+        private final boolean available;
+        private final char[] name;
+        private final char[] description;
+
+        SearchEntry(Item item) {
+            this.item = item;
+            this.available = Boolean.TRUE.equals(item.getAvailable());
+            this.name = item.getName() != null ? TextNormalizer.fold(item.getName()) : new char[0];
+            this.description = item.getDescription() != null ? TextNormalizer.fold(item.getDescription()) : new char[0];
+        }
+
+        boolean matches(char[] query) {
+            return available && (TextNormalizer.contains(name, query) || TextNormalizer.contains(description, query));
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.PopularItemDto;
+import ru.practicum.shareit.item.model.ItemPopularity;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemPopularityRepository extends JpaRepository<ItemPopularity, Long> {
+    @Query("select new ru.practicum.shareit.item.dto.PopularItemDto(i.id, i.name, i.description, i.available, " +
+            "p.views, p.bookings) " +
+            "from ItemPopularity as p, Item as i " +
+            "where i.id = p.itemId and i.available = true " +
+            "   and exists (select u.id from User as u where u.id = i.owner and u.deleted = false) " +
+            "order by p.bookings desc, p.views desc, p.itemId")
+    List<PopularItemDto> findTop(Pageable pageable);
+
+    @Query("select p.itemId " +
+            "from ItemPopularity as p, Item as i " +
+            "where i.id = p.itemId and i.owner = ?1 " +
+            "order by p.itemId")
+    List<Long> findIdsByItemOwner(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ItemPopularity p where p.itemId in ?1")
+    int deleteAllByIds(Collection<Long> ids);
+}
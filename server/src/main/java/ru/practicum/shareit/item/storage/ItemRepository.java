@@ -4,28 +4,99 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.config.CacheRegions;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     Optional<Item> findByIdAndOwner(Long itemId, Long userId);
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.ITEMS_BY_OWNER)})
     List<Item> findAllByOwner(Long userId, Pageable pageable);
 
+    /**
+     * Загрузка каталога поиска: вещи удаленных, но еще не очищенных владельцев в каталог не попадают.
+     */
+    @Query("select i " +
+            "from Item as i " +
+            "where i.id > ?1 " +
+            "   and exists (select u.id from User as u where u.id = i.owner and u.deleted = false) " +
+            "order by i.id")
+    List<Item> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Ответы на запросы без вещей удаленных, но еще не очищенных владельцев.
+     */
+    @Query("select i " +
+            "from Item as i " +
+            "where i.request.id in ?1 " +
+            "   and exists (select u.id from User as u where u.id = i.owner and u.deleted = false) " +
+            "order by i.id")
+    List<Item> findAllByRequestIdInOrderByIdAsc(Collection<Long> requestIds);
+
     @Query(" select i from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "   or upper(i.description) like upper(concat('%', ?1, '%')))" +
-            "   and is_available = true")
+            "   and is_available = true " +
+            "   and exists (select u.id from User as u where u.id = i.owner and u.deleted = false)")
     List<Item> searchItems(String text, Pageable pageable);
 
+    /**
+     * Вещи каталога поиска по id: вещи удаленных, но еще не очищенных владельцев отбрасываются.
+     */
+    @Query("select i " +
+            "from Item as i " +
+            "where i.id in ?1 " +
+            "   and exists (select u.id from User as u where u.id = i.owner and u.deleted = false)")
+    List<Item> findAllWithActiveOwnerByIds(Collection<Long> ids);
+
+    /**
+     * Массовое обновление в обход кэша второго уровня: Hibernate после него очищает регион item
+     * и помечает таблицу items измененной, поэтому кэшированные запросы по ней тоже устаревают.
+     */
     @Modifying(clearAutomatically = true)
     @Query("update Item i " +
             "set i.available = :available " +
             "where i.id = :id")
     void updateItemAvailableById(@Param("id") Long id, @Param("available") Boolean available);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Item i " +
+            "set i.available = :available " +
+            "where i.id in :ids")
+    void updateItemsAvailableByIds(@Param("ids") Collection<Long> ids, @Param("available") Boolean available);
+
+    @Query("select i.id " +
+            "from Item as i " +
+            "where i.request.requester.id = ?1 " +
+            "order by i.id")
+    List<Long> findIdsByRequester(Long requesterId, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Item i " +
+            "set i.request = null " +
+            "where i.id in ?1")
+    int detachRequestByIds(Collection<Long> ids);
+
+    @Query("select i.id " +
+            "from Item as i " +
+            "where i.owner = ?1 " +
+            "order by i.id")
+    List<Long> findIdsByOwner(Long ownerId, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Item i where i.id in ?1")
+    int deleteAllByIds(Collection<Long> ids);
 }
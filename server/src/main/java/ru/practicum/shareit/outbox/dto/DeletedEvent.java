@@ -0,0 +1,19 @@
+package ru.practicum.shareit.outbox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Надгробие удаленной сущности: id и те же владелец и участник, что определяли видимость ее событий.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DeletedEvent {
+    private Long id;
+    private Long ownerId;
+    private Long userId;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.outbox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemEvent {
+    private Long itemId;
+    private Long ownerId;
+    private Long requestId;
+    private Boolean available;
+}
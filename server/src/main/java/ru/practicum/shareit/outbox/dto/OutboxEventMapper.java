@@ -0,0 +1,67 @@
+package ru.practicum.shareit.outbox.dto;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.model.OutboxAudience;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+@UtilityClass
+public class OutboxEventMapper {
+    public static BookingEvent toBookingEvent(Booking booking) {
+        return BookingEvent.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItem() != null ? booking.getItem().getId() : null)
+                .ownerId(booking.getItem() != null ? booking.getItem().getOwner() : booking.getOwnerId())
+                .bookerId(booking.getBooker() != null ? booking.getBooker().getId() : null)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public static ItemEvent toItemEvent(Item item) {
+        return ItemEvent.builder()
+                .itemId(item.getId())
+                .ownerId(item.getOwner())
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+                .available(item.getAvailable())
+                .build();
+    }
+
+    public static CommentEvent toCommentEvent(Comment comment) {
+        return CommentEvent.builder()
+                .commentId(comment.getId())
+                .itemId(comment.getItem() != null ? comment.getItem().getId() : null)
+                .ownerId(comment.getItem() != null ? comment.getItem().getOwner() : null)
+                .authorId(comment.getAuthor() != null ? comment.getAuthor().getId() : null)
+                .build();
+    }
+
+    public static UserEvent toUserEvent(User user) {
+        return UserEvent.builder()
+                .userId(user.getId())
+                .build();
+    }
+
+    public static RequestEvent toRequestEvent(ItemRequest request) {
+        return RequestEvent.builder()
+                .requestId(request.getId())
+                .requesterId(request.getRequester() != null ? request.getRequester().getId() : null)
+                .build();
+    }
+
+    public static OutboxAudience toAudience(BookingEvent event) {
+        return OutboxAudience.of(event.getOwnerId(), event.getBookerId());
+    }
+
+    public static OutboxAudience toAudience(ItemEvent event) {
+        return OutboxAudience.of(event.getOwnerId(), null);
+    }
+
+    public static OutboxAudience toAudience(CommentEvent event) {
+        return OutboxAudience.of(event.getOwnerId(), event.getAuthorId());
+    }
+}
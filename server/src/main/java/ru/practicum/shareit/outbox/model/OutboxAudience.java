@@ -0,0 +1,27 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.Value;
+
+/**
+ * Кому событие видно в ленте изменений: владельцу и/или пользователю-участнику.
+ * Если оба не заданы, событие видно всем пользователям.
+ */
+@Value
+public class OutboxAudience {
+    private static final OutboxAudience EVERYONE = new OutboxAudience(null, null);
+
+    Long ownerId;
+    Long userId;
+
+    public static OutboxAudience of(Long ownerId, Long userId) {
+        return new OutboxAudience(ownerId, userId);
+    }
+
+    public static OutboxAudience user(Long userId) {
+        return new OutboxAudience(null, userId);
+    }
+
+    public static OutboxAudience everyone() {
+        return EVERYONE;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox", indexes = {
+        @Index(name = "idx_outbox_processed", columnList = "processed, id"),
+        @Index(name = "idx_outbox_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_outbox_owner_change_seq", columnList = "owner_id, change_seq"),
+        @Index(name = "idx_outbox_user_change_seq", columnList = "user_id, change_seq")
+})
+public class OutboxEvent {
+    @EqualsAndHashCode.Exclude
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OutboxEventType type;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "payload", nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+
+    @Column(name = "processed", nullable = false)
+    private boolean processed;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Номер в ленте изменений. Присваивается диспетчером при обработке, поэтому растет в порядке,
+     * в котором события становятся видимыми, а не в порядке выдачи id.
+     */
+    @Column(name = "change_seq")
+    private Long changeSeq;
+}
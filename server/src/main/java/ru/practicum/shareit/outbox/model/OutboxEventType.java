@@ -0,0 +1,20 @@
+package ru.practicum.shareit.outbox.model;
+
+public enum OutboxEventType {
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    BOOKING_EXPIRED,
+    ITEM_CREATED,
+    ITEM_UPDATED,
+    ITEM_DELETED,
+    BOOKING_DELETED,
+    COMMENT_ADDED,
+    COMMENT_DELETED,
+    USER_CREATED,
+    USER_UPDATED,
+    USER_DELETED,
+    USER_PURGED,
+    REQUEST_CREATED,
+    REQUEST_DELETED
+}
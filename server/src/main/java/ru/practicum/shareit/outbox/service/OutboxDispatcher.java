@@ -0,0 +1,172 @@
+package ru.practicum.shareit.outbox.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.storage.OutboxRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Применяет события из outbox к проекциям в фоновом потоке.
+ * Обработанным событиям присваивается номер ленты изменений: номера выдает только диспетчер,
+ * поэтому событие, закоммиченное позже, всегда получает больший номер, даже если его id меньше.
+ * Диспетчер рассчитан на один экземпляр приложения: проекции хранятся в памяти процесса.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher implements SmartInitializingSingleton {
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private long lastChangeSeq;
+    private final Counter dispatchedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public OutboxDispatcher(OutboxRepository outboxRepository,
+                            List<OutboxEventHandler> handlers,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.outbox.batch-size:200}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.handlers = handlers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.dispatchedCounter = Counter.builder("shareit.outbox.dispatched")
+                .description("Количество событий outbox, примененных к проекциям")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("shareit.outbox.failed")
+                .description("Количество событий outbox, которые не удалось применить")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.pending", pending, AtomicLong::get)
+                .description("Количество событий outbox, еще не примененных к проекциям")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Возраст самого старого непримененного события outbox, мс")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Перестраивает проекции до того, как приложение начнет принимать запросы.
+     * События, оставшиеся в outbox, затем применяются повторно: обработчики идемпотентны.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        Long maxChangeSeq = transactionTemplate.execute(status -> outboxRepository.findMaxChangeSeq());
+        lastChangeSeq = maxChangeSeq != null ? maxChangeSeq : 0;
+        for (OutboxEventHandler handler : handlers) {
+            handler.rebuild();
+        }
+        log.info("Проекции перестроены: {}", handlers.size());
+        wakeUp();
+    }
+
+    public void wakeUp() {
+        if (!wakeUpScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                wakeUpScheduled.set(false);
+                dispatchPending();
+            });
+        } catch (RejectedExecutionException e) {
+            wakeUpScheduled.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-interval:PT5S}",
+            initialDelayString = "${shareit.outbox.poll-interval:PT5S}")
+    public void dispatchPending() {
+        lock.lock();
+        try {
+            int processed;
+            do {
+                processed = dispatchBatch();
+            } while (processed == batchSize);
+            updateLag();
+        } catch (RuntimeException e) {
+            log.error("Ошибка обработки outbox", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private int dispatchBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status ->
+                outboxRepository.findAllByProcessedFalseOrderByIdAsc(PageRequest.of(0, batchSize)));
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+        for (OutboxEvent event : events) {
+            apply(event);
+        }
+        List<Long> ids = events.stream()
+                .map(OutboxEvent::getId)
+                .collect(Collectors.toList());
+        long offset = lastChangeSeq + 1 - ids.get(0);
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.markProcessed(ids, offset));
+        lastChangeSeq = ids.get(ids.size() - 1) + offset;
+        dispatchedCounter.increment(events.size());
+        return events.size();
+    }
+
+    private void apply(OutboxEvent event) {
+        for (OutboxEventHandler handler : handlers) {
+            try {
+                handler.handle(event);
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                log.error("Событие outbox {} не применено обработчиком {}, проекция будет перестроена",
+                        event.getId(), handler.getClass().getSimpleName(), e);
+                handler.rebuild();
+            }
+        }
+    }
+
+    private void updateLag() {
+        Long count = transactionTemplate.execute(status -> outboxRepository.countByProcessedFalse());
+        pending.set(count != null ? count : 0);
+        LocalDateTime oldest = transactionTemplate.execute(status -> outboxRepository.findFirstByProcessedFalseOrderByIdAsc()
+                .map(OutboxEvent::getCreated)
+                .orElse(null));
+        lagMillis.set(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()) : 0);
+    }
+}
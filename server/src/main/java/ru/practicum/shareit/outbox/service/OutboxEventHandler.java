@@ -0,0 +1,16 @@
+package ru.practicum.shareit.outbox.service;
+
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+/**
+ * Потребитель событий из outbox, поддерживающий собственную модель чтения.
+ */
+public interface OutboxEventHandler {
+    /**
+     * Полностью перестраивает модель чтения по основным таблицам.
+     * Вызывается один раз при старте, до приема запросов.
+     */
+    void rebuild();
+
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.outbox.model.OutboxAudience;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.storage.OutboxRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Записывает доменные события в таблицу outbox в транзакции вызывающего сервиса.
+ * После коммита транзакции будит диспетчер, чтобы проекции догнали изменения без ожидания опроса.
+ */
+@Service
+@Slf4j
+public class OutboxPublisher {
+    private final OutboxRepository outboxRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxPublisher(OutboxRepository outboxRepository,
+                           OutboxDispatcher outboxDispatcher,
+                           ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.outboxDispatcher = outboxDispatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEventType type, Long aggregateId, Object payload, OutboxAudience audience) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + type + ": " + payload, e);
+        }
+        OutboxEvent event = outboxRepository.save(OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload(json)
+                .created(LocalDateTime.now())
+                .processed(false)
+                .ownerId(audience.getOwnerId())
+                .userId(audience.getUserId())
+                .build());
+        log.debug("Событие {} добавлено в outbox по ID: {}", type, event.getId());
+        registerWakeUp();
+    }
+
+    private void registerWakeUp() {
+        Object key = OutboxPublisher.class;
+        if (TransactionSynchronizationManager.hasResource(key)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(key, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                if (status == STATUS_COMMITTED) {
+                    outboxDispatcher.wakeUp();
+                }
+            }
+        });
+    }
+}
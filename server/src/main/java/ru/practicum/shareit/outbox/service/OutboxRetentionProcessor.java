@@ -0,0 +1,82 @@
+package ru.practicum.shareit.outbox.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.storage.OutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Удаляет обработанные события outbox старше срока хранения, иначе таблица и индексы ленты изменений растут бесконечно.
+ * Удаление идет пачками, каждая пачка в отдельной транзакции. Клиент, чей курсор указывает на удаленную историю,
+ * получает в ленте изменений признак reset.
+ */
+@Component
+@Slf4j
+public class OutboxRetentionProcessor {
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter prunedCounter;
+
+    @Autowired
+    public OutboxRetentionProcessor(OutboxRepository outboxRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${shareit.outbox.retention.period:P7D}") Duration retention,
+                                    @Value("${shareit.outbox.retention.batch-size:1000}") int batchSize,
+                                    @Value("${shareit.outbox.retention.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.prunedCounter = Counter.builder("shareit.outbox.pruned")
+                .description("Количество обработанных событий outbox, удаленных по сроку хранения")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.retention.interval:PT1H}",
+            initialDelayString = "${shareit.outbox.retention.initial-delay:PT5M}")
+    public void pruneProcessedEvents() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        long maxChangeSeq = outboxRepository.findMaxChangeSeq();
+        int pruned = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = pruneBatch(threshold, maxChangeSeq);
+            pruned += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        if (pruned > 0) {
+            log.info("Удалено обработанных событий outbox старше {}: {}", threshold, pruned);
+        }
+    }
+
+    private int pruneBatch(LocalDateTime threshold, long maxChangeSeq) {
+        Integer result = transactionTemplate.execute(status -> {
+            List<Long> ids = outboxRepository.findProcessedIdsBefore(threshold, maxChangeSeq,
+                    PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            outboxRepository.deleteAllByIds(ids);
+            prunedCounter.increment(ids.size());
+            return ids.size();
+        });
+        return result != null ? result : 0;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.outbox.storage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findAllByProcessedFalseOrderByIdAsc(Pageable pageable);
+
+    Optional<OutboxEvent> findFirstByProcessedFalseOrderByIdAsc();
+
+    long countByProcessedFalse();
+
+    /**
+     * Помечает события обработанными и присваивает им номера ленты изменений id + offset,
+     * сохраняя порядок id внутри пачки.
+     */
+    @Modifying
+    @Query("update OutboxEvent e " +
+            "set e.processed = true, e.changeSeq = e.id + ?2 " +
+            "where e.id in ?1")
+    void markProcessed(Collection<Long> ids, long changeSeqOffset);
+
+    @Query("select coalesce(max(e.changeSeq), 0) " +
+            "from OutboxEvent e")
+    long findMaxChangeSeq();
+
+    /**
+     * Самый ранний номер ленты, оставшийся после очистки: курсор меньше него указывает на удаленную историю.
+     */
+    @Query("select coalesce(min(e.changeSeq), 0) " +
+            "from OutboxEvent e")
+    long findMinChangeSeq();
+
+    /**
+     * Обработанные события старше created. Событие с номером ленты maxChangeSeq и новее не отбираются:
+     * по максимальному номеру диспетчер продолжает нумерацию после перезапуска.
+     */
+    @Query("select e.id " +
+            "from OutboxEvent e " +
+            "where e.processed = true " +
+            "   and e.created < ?1 " +
+            "   and e.changeSeq < ?2 " +
+            "order by e.id")
+    List<Long> findProcessedIdsBefore(LocalDateTime created, long maxChangeSeq, Pageable pageable);
+
+    @Modifying
+    @Query("delete from OutboxEvent e " +
+            "where e.id in ?1")
+    int deleteAllByIds(Collection<Long> ids);
+
+    @Query("select e " +
+            "from OutboxEvent e " +
+            "where e.changeSeq > ?2 " +
+            "   and (e.ownerId = ?1 or e.userId = ?1 or (e.ownerId is null and e.userId is null)) " +
+            "order by e.changeSeq")
+    List<OutboxEvent> findChanges(Long userId, long since, Pageable pageable);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestPartial;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import javax.validation.Valid;
@@ -51,4 +52,11 @@ public class ItemRequestController {
         log.info("Получен GET запрос на нахождение запроса по ID: {} пользователем по ID: {}", requestId, userId);
         return itemRequestService.getRequestById(requestId, userId);
     }
+
+    @GetMapping("/{requestId}/suggestions")
+    public List<RequestSuggestionDto> getSuggestions(@PathVariable Long requestId,
+                                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен GET запрос на подсказки вещей для запроса: {} пользователем: {}", requestId, userId);
+        return itemRequestService.getSuggestions(requestId, userId);
+    }
 }
@@ -2,10 +2,13 @@ package ru.practicum.shareit.request.dto;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestSuggestion;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @UtilityClass
@@ -25,6 +28,25 @@ public class ItemRequestMapper {
         }
     }
 
+    /**
+     * Вариант для списков: вещи запроса загружены заранее одним запросом на всю страницу,
+     * ленивая коллекция items не трогается.
+     */
+    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<Item> items) {
+        if (itemRequest != null) {
+            return ItemRequestDto.builder()
+                    .id(itemRequest.getId())
+                    .description(itemRequest.getDescription())
+                    .created(itemRequest.getCreated())
+                    .items(items != null
+                            ? items.stream().map(ItemMapper::toItemDto).collect(Collectors.toList())
+                            : Collections.emptyList())
+                    .build();
+        } else {
+            return null;
+        }
+    }
+
     public static ItemRequest toItemRequest(ItemRequestPartial itemRequestPartial, User user) {
         if (itemRequestPartial != null) {
             return ItemRequest.builder()
@@ -35,4 +57,16 @@ public class ItemRequestMapper {
             return null;
         }
     }
+
+    public static RequestSuggestionDto toRequestSuggestionDto(RequestSuggestion suggestion) {
+        if (suggestion != null) {
+            return RequestSuggestionDto.builder()
+                    .item(ItemMapper.toItemDto(suggestion.getItem()))
+                    .score(suggestion.getScore())
+                    .created(suggestion.getCreated())
+                    .build();
+        } else {
+            return null;
+        }
+    }
 }
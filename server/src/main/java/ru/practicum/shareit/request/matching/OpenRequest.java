@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Value;
+
+/**
+ * Открытый запрос в том виде, в каком он нужен индексу: без загрузки сущности и ее связей.
+ */
+@Value
+public class OpenRequest {
+    Long id;
+    Long requesterId;
+    String description;
+}
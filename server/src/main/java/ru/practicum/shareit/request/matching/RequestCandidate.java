@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Value;
+
+/**
+ * Запрос, подходящий к вещи, и число общих с ней слов.
+ */
+@Value
+public class RequestCandidate {
+    Long requestId;
+    int score;
+}
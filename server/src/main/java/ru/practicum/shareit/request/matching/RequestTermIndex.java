@@ -0,0 +1,226 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.utilities.TextNormalizer;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс слов из описаний открытых запросов: слово -> id запросов.
+ * Открытым считается запрос, к которому еще не добавлено ни одной вещи. Поиск кандидатов для вещи
+ * обходит только списки запросов по словам ее названия и описания, поэтому не зависит от общего числа запросов.
+ * Заполняется при старте и обновляется после коммита создания запроса или добавления к нему вещи.
+ */
+@Component
+@Slf4j
+public class RequestTermIndex implements SmartInitializingSingleton {
+    /**
+     * Грубая замена стемминга: у слов длиннее {@link #SHORT_TERM_LENGTH} отбрасывается последний символ,
+     * затем слово обрезается до {@link #TERM_PREFIX}, чтобы "дрель" и "дрели" давали одно слово.
+     */
+    static final int TERM_PREFIX = 6;
+    static final int SHORT_TERM_LENGTH = 4;
+    static final int MIN_TERM_LENGTH = 3;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "для", "или", "без", "при", "что", "как", "где", "кто", "нужен", "нужна", "нужно", "ищу",
+            "the", "and", "for", "with", "need").stream()
+            .map(word -> stem(word.toCharArray(), 0, word.length()))
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, IndexedRequest> requests = new HashMap<>();
+
+    @Autowired
+    public RequestTermIndex(ItemRequestRepository itemRequestRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${shareit.request.matching.enabled:true}") boolean enabled,
+                            @Value("${shareit.request.matching.load-batch-size:1000}") int loadBatchSize) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        long afterId = 0;
+        int loaded = 0;
+        List<OpenRequest> batch;
+        do {
+            long cursor = afterId;
+            batch = transactionTemplate.execute(status ->
+                    itemRequestRepository.findOpenRequests(cursor, PageRequest.of(0, loadBatchSize)));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            batch.forEach(this::add);
+            loaded += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == loadBatchSize);
+        log.info("Индекс открытых запросов загружен: {} запросов, слов: {}", loaded, postings.size());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return requests.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Открытые запросы, делящие с текстом хотя бы minScore слов, кроме запросов самого владельца вещи.
+     * Отсортированы по числу общих слов, затем по id; не больше limit штук.
+     */
+    public List<RequestCandidate> match(String text, Long ownerId, int minScore, int limit) {
+        Set<String> terms = terms(text);
+        Map<Long, Integer> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    continue;
+                }
+                for (Long id : ids) {
+                    if (!Objects.equals(requests.get(id).requesterId, ownerId)) {
+                        scores.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<RequestCandidate> candidates = new ArrayList<>();
+        scores.forEach((id, score) -> {
+            if (score >= minScore) {
+                candidates.add(new RequestCandidate(id, score));
+            }
+        });
+        candidates.sort(Comparator.comparingInt(RequestCandidate::getScore).reversed()
+                .thenComparing(RequestCandidate::getRequestId));
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    public void addAfterCommit(OpenRequest request) {
+        afterCommit(() -> add(request));
+    }
+
+    public void removeAfterCommit(Long requestId) {
+        afterCommit(() -> remove(requestId));
+    }
+
+    private void add(OpenRequest request) {
+        if (!enabled || request.getId() == null) {
+            return;
+        }
+        Set<String> terms = terms(request.getDescription());
+        lock.writeLock().lock();
+        try {
+            if (requests.containsKey(request.getId())) {
+                return;
+            }
+            requests.put(request.getId(), new IndexedRequest(request.getRequesterId(), terms));
+            for (String term : terms) {
+                postings.computeIfAbsent(term, key -> new HashSet<>()).add(request.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long requestId) {
+        lock.writeLock().lock();
+        try {
+            IndexedRequest removed = requests.remove(requestId);
+            if (removed == null) {
+                return;
+            }
+            for (String term : removed.terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids != null && ids.remove(requestId) && ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Разбивает текст на слова из букв и цифр, сворачивает регистр и приводит слова к основе.
+     */
+    static Set<String> terms(String text) {
+        Set<String> terms = new HashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        char[] folded = TextNormalizer.fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length; i++) {
+            boolean wordChar = i < folded.length && Character.isLetterOrDigit(folded[i]);
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                int length = i - start;
+                if (length >= MIN_TERM_LENGTH) {
+                    String term = stem(folded, start, length);
+                    if (!STOP_WORDS.contains(term)) {
+                        terms.add(term);
+                    }
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static String stem(char[] text, int start, int length) {
+        int stemLength = length > SHORT_TERM_LENGTH ? Math.min(length - 1, TERM_PREFIX) : length;
+        return new String(text, start, stemLength);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static class IndexedRequest {
+        private final Long requesterId;
+        private final Set<String> terms;
+
+        IndexedRequest(Long requesterId, Set<String> terms) {
+            this.requesterId = requesterId;
+            this.terms = terms;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "request_suggestions",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"request_id", "item_id"}),
+        indexes = @Index(name = "idx_request_suggestions_request", columnList = "request_id, score"))
+public class RequestSuggestion {
+    @EqualsAndHashCode.Exclude
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_suggestions_seq")
+    @SequenceGenerator(name = "request_suggestions_seq", sequenceName = "request_suggestions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "request_id", nullable = false)
+    private Long requestId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    @ToString.Exclude
+    private Item item;
+
+    @Column(name = "score", nullable = false)
+    private int score;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+}
@@ -3,7 +3,9 @@ package ru.practicum.shareit.request.service;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestPartial;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestService {
@@ -14,4 +16,8 @@ public interface ItemRequestService {
     List<ItemRequestDto> getAllRequests(Long userId, Pageable pageable);
 
     ItemRequestDto getRequestById(Long requestId, Long userId);
+
+    List<RequestSuggestionDto> getSuggestions(Long requestId, Long userId);
+
+    List<ItemRequestDto> getRequestsByIds(Collection<Long> requestIds);
 }
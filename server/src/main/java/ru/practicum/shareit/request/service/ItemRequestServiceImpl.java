@@ -6,15 +6,29 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.feed.model.FeedEvent;
+import ru.practicum.shareit.feed.model.FeedEventType;
+import ru.practicum.shareit.feed.service.FeedEventBus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.dto.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.OutboxAudience;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestPartial;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.request.storage.RequestSuggestionRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,12 +36,27 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final RequestSuggestionRepository requestSuggestionRepository;
+    private final RequestMatchingService requestMatchingService;
+    private final FeedEventBus feedEventBus;
+    private final OutboxPublisher outboxPublisher;
 
     @Autowired
     public ItemRequestServiceImpl(ItemRequestRepository itemRequestRepository,
-                                  UserRepository userRepository) {
+                                  UserRepository userRepository,
+                                  ItemRepository itemRepository,
+                                  RequestSuggestionRepository requestSuggestionRepository,
+                                  RequestMatchingService requestMatchingService,
+                                  FeedEventBus feedEventBus,
+                                  OutboxPublisher outboxPublisher) {
         this.itemRequestRepository = itemRequestRepository;
         this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.requestSuggestionRepository = requestSuggestionRepository;
+        this.requestMatchingService = requestMatchingService;
+        this.feedEventBus = feedEventBus;
+        this.outboxPublisher = outboxPublisher;
     }
 
     @Transactional
@@ -36,8 +65,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User requester = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
 
         ItemRequest itemRequestDb = itemRequestRepository.save(ItemRequestMapper.toItemRequest(request, requester));
+        requestMatchingService.requestAdded(itemRequestDb);
+        outboxPublisher.publish(OutboxEventType.REQUEST_CREATED, itemRequestDb.getId(),
+                OutboxEventMapper.toRequestEvent(itemRequestDb), OutboxAudience.everyone());
         log.info("Запрос добавлен в базу данных в таблицу requests по ID: {} \n {}", itemRequestDb.getId(), itemRequestDb);
-        return ItemRequestMapper.toItemRequestDto(itemRequestDb);
+        ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequestDb);
+        feedEventBus.publishAfterCommit(FeedEvent.toAllExcept(FeedEventType.REQUEST_CREATED, itemRequestDto, userId));
+        return itemRequestDto;
     }
 
     @Transactional(readOnly = true)
@@ -46,19 +80,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
 
         List<ItemRequest> requests = itemRequestRepository.findAllByRequesterId(userId);
-        return requests.stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return toItemRequestDtos(requests);
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDto> getAllRequests(Long userId, Pageable pageable) {
         List<ItemRequest> requests = itemRequestRepository.findAllByNotRequesterId(userId, pageable);
-
-        return requests.stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return toItemRequestDtos(requests);
     }
 
     @Transactional(readOnly = true)
@@ -68,6 +97,49 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос с id = " + requestId + " не найден"));
 
-        return ItemRequestMapper.toItemRequestDto(itemRequest);
+        return toItemRequestDtos(List.of(itemRequest)).get(0);
+    }
+
+    /**
+     * Вещи, подобранные к запросу по совпадению слов. Видны только автору запроса.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<RequestSuggestionDto> getSuggestions(Long requestId, Long userId) {
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос с id = " + requestId + " не найден"));
+        if (!itemRequest.getRequester().getId().equals(userId)) {
+            throw new NotFoundException("Запрос с id = " + requestId + " не найден у пользователя " + userId);
+        }
+
+        return requestSuggestionRepository.findAllByRequestId(requestId).stream()
+                .map(ItemRequestMapper::toRequestSuggestionDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemRequestDto> getRequestsByIds(Collection<Long> requestIds) {
+        return toItemRequestDtos(itemRequestRepository.findAllById(requestIds));
+    }
+
+    /**
+     * Вещи всех запросов страницы загружаются одним запросом по списку id и группируются в памяти,
+     * поэтому число обращений к базе не зависит ни от размера страницы, ни от числа вещей в запросах.
+     */
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequest = itemRepository.findAllByRequestIdInOrderByIdAsc(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request, itemsByRequest.get(request.getId())))
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.matching.OpenRequest;
+import ru.practicum.shareit.request.matching.RequestCandidate;
+import ru.practicum.shareit.request.matching.RequestTermIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+import ru.practicum.shareit.request.storage.RequestSuggestionRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Сопоставление новых вещей с открытыми запросами. Вызывается в транзакции добавления вещи:
+ * подсказки сохраняются вместе с вещью, индекс запросов меняется только после коммита.
+ */
+@Service
+@Slf4j
+public class RequestMatchingService {
+    private final RequestTermIndex requestTermIndex;
+    private final RequestSuggestionRepository requestSuggestionRepository;
+    private final int minScore;
+    private final int maxPerItem;
+
+    @Autowired
+    public RequestMatchingService(RequestTermIndex requestTermIndex,
+                                  RequestSuggestionRepository requestSuggestionRepository,
+                                  @Value("${shareit.request.matching.min-score:1}") int minScore,
+                                  @Value("${shareit.request.matching.max-per-item:50}") int maxPerItem) {
+        this.requestTermIndex = requestTermIndex;
+        this.requestSuggestionRepository = requestSuggestionRepository;
+        this.minScore = minScore;
+        this.maxPerItem = maxPerItem;
+    }
+
+    public void requestAdded(ItemRequest request) {
+        requestTermIndex.addAfterCommit(new OpenRequest(request.getId(), request.getRequester().getId(),
+                request.getDescription()));
+    }
+
+    /**
+     * Вещь, добавленная в ответ на запрос, закрывает его. Доступная вещь без запроса
+     * предлагается всем открытым запросам, с которыми у нее есть общие слова.
+     */
+    public void itemAdded(Item item) {
+        if (item.getRequest() != null) {
+            requestTermIndex.removeAfterCommit(item.getRequest().getId());
+            return;
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        List<RequestCandidate> candidates = requestTermIndex.match(item.getName() + " " + item.getDescription(),
+                item.getOwner(), minScore, maxPerItem);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        requestSuggestionRepository.saveAll(candidates.stream()
+                .map(candidate -> RequestSuggestion.builder()
+                        .requestId(candidate.getRequestId())
+                        .item(item)
+                        .score(candidate.getScore())
+                        .created(now)
+                        .build())
+                .collect(Collectors.toList()));
+        log.info("Вещь {} предложена запросам: {}", item.getId(), candidates.size());
+    }
+}
@@ -2,20 +2,47 @@ package ru.practicum.shareit.request.storage;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.config.CacheRegions;
+import ru.practicum.shareit.request.matching.OpenRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.REQUESTS_BY_REQUESTER)})
     List<ItemRequest> findAllByRequesterId(Long requesterId);
 
     @Query("select i " +
             "from ItemRequest i " +
-            "where i.requester.id != ?1 " +
+            "where i.requester.id != ?1 and i.requester.deleted = false " +
             "order by i.created DESC")
     List<ItemRequest> findAllByNotRequesterId(Long userId, Pageable pageable);
-}
 
+    @Query("select new ru.practicum.shareit.request.matching.OpenRequest(r.id, r.requester.id, r.description) " +
+            "from ItemRequest r " +
+            "where r.id > ?1 " +
+            "   and not exists (select i.id from Item i where i.request = r) " +
+            "order by r.id")
+    List<OpenRequest> findOpenRequests(Long afterId, Pageable pageable);
+
+    @Query("select r.id " +
+            "from ItemRequest as r " +
+            "where r.requester.id = ?1 " +
+            "order by r.id")
+    List<Long> findIdsByRequester(Long requesterId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ItemRequest r where r.id in ?1")
+    int deleteAllByIds(Collection<Long> ids);
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.request.storage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RequestSuggestionRepository extends JpaRepository<RequestSuggestion, Long> {
+    @Query("select s " +
+            "from RequestSuggestion s " +
+            "join fetch s.item as i " +
+            "where s.requestId = ?1 " +
+            "   and exists (select u.id from User as u where u.id = i.owner and u.deleted = false) " +
+            "order by s.score desc, s.id")
+    List<RequestSuggestion> findAllByRequestId(Long requestId);
+
+    @Query("select s.id " +
+            "from RequestSuggestion as s " +
+            "where s.item.owner = ?1 " +
+            "or s.requestId in (select r.id from ItemRequest as r where r.requester.id = ?1) " +
+            "order by s.id")
+    List<Long> findIdsByItemOwnerOrRequester(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from RequestSuggestion s where s.id in ?1")
+    int deleteAllByIds(Collection<Long> ids);
+}
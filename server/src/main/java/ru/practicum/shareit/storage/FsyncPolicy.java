@@ -0,0 +1,16 @@
+package ru.practicum.shareit.storage;
+
+public enum FsyncPolicy {
+    /**
+     * Сброс журнала на диск после каждой записи.
+     */
+    PER_WRITE,
+    /**
+     * Записи, пришедшие почти одновременно, сбрасываются одним вызовом; писатель ждет сброса.
+     */
+    GROUP_COMMIT,
+    /**
+     * Сброс по таймеру; при сбое теряются записи за последний интервал.
+     */
+    INTERVAL
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.storage;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Компактное двоичное представление записей журнала и снимка.
+ * Поля, которые могут быть пустыми, предваряются флагом наличия.
+ * Строки пишутся длиной в байтах и телом в UTF-8, без ограничения writeUTF в 64 КБ.
+ */
+@UtilityClass
+public class JournalCodec {
+    private static final JournalRecordType[] TYPES = JournalRecordType.values();
+
+    public static byte[] encode(JournalRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static JournalRecord decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void write(DataOutput out, JournalRecord record) throws IOException {
+        out.writeByte(record.getType().ordinal());
+        writeLong(out, record.getId());
+        writeString(out, record.getName());
+        writeString(out, record.getEmail());
+        writeString(out, record.getDescription());
+        out.writeByte(record.getAvailable() == null ? -1 : record.getAvailable() ? 1 : 0);
+        writeLong(out, record.getOwner());
+        writeLong(out, record.getRequestId());
+    }
+
+    public static JournalRecord read(DataInput in) throws IOException {
+        JournalRecordType type = TYPES[in.readByte()];
+        Long id = readLong(in);
+        String name = readString(in);
+        String email = readString(in);
+        String description = readString(in);
+        byte available = in.readByte();
+        return JournalRecord.builder()
+                .type(type)
+                .id(id)
+                .name(name)
+                .email(email)
+                .description(description)
+                .available(available < 0 ? null : available == 1)
+                .owner(readLong(in))
+                .requestId(readLong(in))
+                .build();
+    }
+
+    private static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Отрицательная длина строки: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class JournalRecord {
+    private JournalRecordType type;
+    private Long id;
+    private String name;
+    private String email;
+    private String description;
+    private Boolean available;
+    private Long owner;
+    private Long requestId;
+}
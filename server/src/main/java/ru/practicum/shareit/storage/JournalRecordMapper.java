@@ -0,0 +1,63 @@
+package ru.practicum.shareit.storage;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+@UtilityClass
+public class JournalRecordMapper {
+    public static JournalRecord toRecord(User user) {
+        return JournalRecord.builder()
+                .type(JournalRecordType.USER_PUT)
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+
+    public static JournalRecord toDeleteRecord(User user) {
+        return JournalRecord.builder()
+                .type(JournalRecordType.USER_DELETE)
+                .id(user.getId())
+                .build();
+    }
+
+    public static JournalRecord toRecord(Item item) {
+        return JournalRecord.builder()
+                .type(JournalRecordType.ITEM_PUT)
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(item.getOwner())
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+                .build();
+    }
+
+    public static JournalRecord toDeleteRecord(Item item) {
+        return JournalRecord.builder()
+                .type(JournalRecordType.ITEM_DELETE)
+                .id(item.getId())
+                .build();
+    }
+
+    public static User toUser(JournalRecord record) {
+        return User.builder()
+                .id(record.getId())
+                .name(record.getName())
+                .email(record.getEmail())
+                .build();
+    }
+
+    public static Item toItem(JournalRecord record) {
+        return Item.builder()
+                .id(record.getId())
+                .name(record.getName())
+                .description(record.getDescription())
+                .available(record.getAvailable())
+                .owner(record.getOwner())
+                .request(record.getRequestId() != null ? ItemRequest.builder().id(record.getRequestId()).build() : null)
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.storage;
+
+public enum JournalRecordType {
+    USER_PUT,
+    USER_DELETE,
+    ITEM_PUT,
+    ITEM_DELETE
+}
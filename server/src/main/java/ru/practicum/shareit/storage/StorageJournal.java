@@ -0,0 +1,354 @@
+package ru.practicum.shareit.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.ServiceUnavailableException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал изменений хранилищ в памяти (write-ahead log).
+ * Записи дописываются в отображенный в память файл; каждая запись - длина, CRC32 и тело.
+ * Журнал делится на поколения: после снимка начинается новый файл, а старые удаляются.
+ * Все изменения хранилищ выполняются под общей блокировкой журнала, поэтому порядок записей
+ * совпадает с порядком изменений в памяти.
+ * Ошибка фонового сброса не останавливает расписание: она передается ожидающим писателям,
+ * а ожидание сброса ограничено sync-timeout.
+ */
+@Component
+@Profile("memory")
+@Slf4j
+public class StorageJournal {
+    private static final String LOG_PREFIX = "journal-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final int RECORD_HEADER = 8;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final int segmentSize;
+    private final long syncTimeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Object syncMonitor = new Object();
+    private final ScheduledExecutorService flusher;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long bufferBase;
+    private long generation;
+    private long written;
+    private long writtenInGeneration;
+    private volatile long durable;
+    private RuntimeException flushFailure;
+
+    @Autowired
+    public StorageJournal(@Value("${shareit.storage.journal.enabled:true}") boolean enabled,
+                          @Value("${shareit.storage.journal.dir:data/journal}") String directory,
+                          @Value("${shareit.storage.journal.fsync:GROUP_COMMIT}") FsyncPolicy fsyncPolicy,
+                          @Value("${shareit.storage.journal.fsync-interval:PT0.005S}") Duration fsyncInterval,
+                          @Value("${shareit.storage.journal.segment-size:16777216}") int segmentSize,
+                          @Value("${shareit.storage.journal.sync-timeout:PT5S}") Duration syncTimeout) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.fsyncPolicy = fsyncPolicy;
+        this.segmentSize = segmentSize;
+        this.syncTimeoutNanos = syncTimeout.toNanos();
+        if (enabled && fsyncPolicy != FsyncPolicy.PER_WRITE) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "storage-journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalNanos = fsyncInterval.toNanos();
+            this.flusher.scheduleWithFixedDelay(this::flush, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void lock() {
+        lock.lock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * Дописывает запись в журнал. Вызывается под блокировкой журнала.
+     *
+     * @return позиция конца записи, которую можно передать в {@link #sync(long)}
+     */
+    public long append(JournalRecord record) {
+        if (!enabled) {
+            return 0;
+        }
+        if (channel == null) {
+            throw new IllegalStateException("Журнал хранилища не открыт.");
+        }
+        byte[] payload = JournalCodec.encode(record);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        int size = RECORD_HEADER + payload.length;
+        ensureCapacity(size);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        written += size;
+        writtenInGeneration += size;
+        if (fsyncPolicy == FsyncPolicy.PER_WRITE) {
+            buffer.force();
+            durable = written;
+        }
+        return written;
+    }
+
+    /**
+     * Ждет, пока запись до указанной позиции окажется на диске. Вызывается после снятия блокировки.
+     * При политике INTERVAL не ждет.
+     *
+     * @throws ServiceUnavailableException если сброс завершился ошибкой, не уложился в sync-timeout
+     *                                     или ожидание прервано; изменение в памяти уже применено
+     */
+    public void sync(long position) {
+        if (!enabled || fsyncPolicy != FsyncPolicy.GROUP_COMMIT) {
+            return;
+        }
+        long deadline = System.nanoTime() + syncTimeoutNanos;
+        synchronized (syncMonitor) {
+            while (durable < position) {
+                if (flushFailure != null) {
+                    throw new ServiceUnavailableException("Журнал хранилища не сброшен на диск: "
+                            + flushFailure.getMessage());
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ServiceUnavailableException("Журнал хранилища не сброшен на диск за отведенное время.");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(syncMonitor, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ServiceUnavailableException("Ожидание сброса журнала хранилища прервано.");
+                }
+            }
+        }
+    }
+
+    public long getWrittenInGeneration() {
+        lock.lock();
+        try {
+            return writtenInGeneration;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Начинает запись в новый файл журнала указанного поколения.
+     */
+    public void open(long generation) {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            this.generation = generation;
+            this.channel = FileChannel.open(logPath(generation), StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.bufferBase = 0;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            this.writtenInGeneration = 0;
+            log.info("Открыт журнал хранилища: {}", logPath(generation));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Закрывает текущий файл журнала и открывает следующий. Вызывается под блокировкой журнала.
+     *
+     * @return поколение закрытого файла
+     */
+    public long rotate() {
+        long closed = generation;
+        closeChannel();
+        open(closed + 1);
+        return closed;
+    }
+
+    public List<Long> getGenerations() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(LOG_PREFIX) && name.endsWith(LOG_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Читает записи файла журнала до конца или до первой поврежденной записи (оборванная запись при сбое).
+     *
+     * @return количество прочитанных записей
+     */
+    public int replay(long generation, Consumer<JournalRecord> consumer) {
+        Path path = logPath(generation);
+        int count = 0;
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer data = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            while (data.remaining() >= RECORD_HEADER) {
+                int length = data.getInt();
+                int checksum = data.getInt();
+                if (length <= 0 || length > data.remaining()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                data.get(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Журнал {} поврежден после записи {}, остаток пропущен", path, count);
+                    break;
+                }
+                consumer.accept(JournalCodec.decode(payload));
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    public void deleteUpTo(long generation) {
+        for (Long existing : getGenerations()) {
+            if (existing <= generation) {
+                try {
+                    Files.deleteIfExists(logPath(existing));
+                } catch (IOException e) {
+                    log.warn("Не удалось удалить журнал {}: {}", logPath(existing), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        lock.lock();
+        try {
+            closeChannel();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Исключение не выходит наружу: иначе scheduleWithFixedDelay отменит дальнейшие сбросы.
+     * Ошибка запоминается для ожидающих писателей и сбрасывается следующим успешным сбросом.
+     */
+    private void flush() {
+        MappedByteBuffer current;
+        long target;
+        lock.lock();
+        try {
+            if (buffer == null || written == durable) {
+                return;
+            }
+            current = buffer;
+            target = written;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            current.force();
+        } catch (RuntimeException e) {
+            log.error("Не удалось сбросить журнал хранилища на диск", e);
+            synchronized (syncMonitor) {
+                flushFailure = e;
+                syncMonitor.notifyAll();
+            }
+            return;
+        }
+        synchronized (syncMonitor) {
+            durable = Math.max(durable, target);
+            flushFailure = null;
+            syncMonitor.notifyAll();
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (buffer.remaining() >= size) {
+            return;
+        }
+        try {
+            buffer.force();
+            bufferBase += buffer.position();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, bufferBase, Math.max(segmentSize, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            synchronized (syncMonitor) {
+                durable = written;
+                syncMonitor.notifyAll();
+            }
+            channel = null;
+            buffer = null;
+        }
+    }
+
+    private Path logPath(long generation) {
+        return directory.resolve(String.format("%s%020d%s", LOG_PREFIX, generation, LOG_SUFFIX));
+    }
+}
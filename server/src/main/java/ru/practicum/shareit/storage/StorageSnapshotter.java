@@ -0,0 +1,257 @@
+package ru.practicum.shareit.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemInMemoryStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserInMemoryStorage;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Восстанавливает хранилища в памяти при старте (последний снимок + хвост журнала)
+ * и периодически пишет новый снимок в фоновом потоке.
+ */
+@Component
+@Profile("memory")
+@Slf4j
+public class StorageSnapshotter {
+    private static final int MAGIC = 0x53485349;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final StorageJournal journal;
+    private final UserInMemoryStorage userStorage;
+    private final ItemInMemoryStorage itemStorage;
+    private final Duration interval;
+    private final long minJournalBytes;
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public StorageSnapshotter(StorageJournal journal,
+                              UserInMemoryStorage userStorage,
+                              ItemInMemoryStorage itemStorage,
+                              @Value("${shareit.storage.snapshot.interval:PT5M}") Duration interval,
+                              @Value("${shareit.storage.snapshot.min-journal-bytes:1048576}") long minJournalBytes) {
+        this.journal = journal;
+        this.userStorage = userStorage;
+        this.itemStorage = itemStorage;
+        this.interval = interval;
+        this.minJournalBytes = minJournalBytes;
+    }
+
+    @PostConstruct
+    public void recover() {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        long snapshotGeneration = loadLatestSnapshot();
+        long lastGeneration = snapshotGeneration;
+        int replayed = 0;
+        for (Long generation : journal.getGenerations()) {
+            if (generation > snapshotGeneration) {
+                replayed += journal.replay(generation, this::apply);
+                lastGeneration = generation;
+            }
+        }
+        journal.open(lastGeneration + 1);
+        log.info("Хранилище восстановлено: снимок поколения {}, записей журнала применено: {}",
+                snapshotGeneration, replayed);
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "storage-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = interval.toMillis();
+        executor.scheduleWithFixedDelay(this::snapshotIfNeeded, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Пишет снимок и удаляет журналы и снимки старше предыдущего снимка: если новый снимок окажется
+     * поврежденным, восстановление пойдет от предыдущего снимка и журналов после него.
+     * Под блокировкой журнала выполняется только копирование данных и переключение файла журнала.
+     */
+    public void snapshot() {
+        List<User> users;
+        List<Item> items;
+        long generation;
+        journal.lock();
+        try {
+            users = userStorage.copyUsers();
+            items = itemStorage.copyItems();
+            generation = journal.rotate();
+        } finally {
+            journal.unlock();
+        }
+        try {
+            writeSnapshot(generation, users, items);
+        } catch (IOException e) {
+            log.error("Не удалось записать снимок хранилища поколения {}", generation, e);
+            return;
+        }
+        long previous = getSnapshotGenerations().stream()
+                .filter(existing -> existing < generation)
+                .reduce((first, second) -> second)
+                .orElse(0L);
+        journal.deleteUpTo(previous);
+        deleteSnapshotsBefore(previous);
+        log.info("Записан снимок хранилища поколения {}: пользователей {}, вещей {}", generation, users.size(), items.size());
+    }
+
+    private void snapshotIfNeeded() {
+        try {
+            if (journal.getWrittenInGeneration() >= minJournalBytes) {
+                snapshot();
+            }
+        } catch (RuntimeException e) {
+            log.error("Ошибка записи снимка хранилища", e);
+        }
+    }
+
+    private void apply(JournalRecord record) {
+        switch (record.getType()) {
+            case USER_PUT:
+                userStorage.restoreUser(JournalRecordMapper.toUser(record));
+                break;
+            case USER_DELETE:
+                userStorage.restoreDelete(record.getId());
+                break;
+            case ITEM_PUT:
+                itemStorage.restoreItem(JournalRecordMapper.toItem(record));
+                break;
+            case ITEM_DELETE:
+                itemStorage.restoreDelete(record.getId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private long loadLatestSnapshot() {
+        List<Long> generations = getSnapshotGenerations();
+        for (int i = generations.size() - 1; i >= 0; i--) {
+            long generation = generations.get(i);
+            try {
+                readSnapshot(generation);
+                return generation;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Снимок {} не прочитан, используется предыдущий: {}", snapshotPath(generation), e.getMessage());
+                userStorage.clear();
+                itemStorage.clear();
+            }
+        }
+        return 0;
+    }
+
+    private void writeSnapshot(long generation, List<User> users, List<Item> items) throws IOException {
+        Path target = snapshotPath(generation);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream file = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(generation);
+            out.writeInt(users.size());
+            for (User user : users) {
+                JournalCodec.write(out, JournalRecordMapper.toRecord(user));
+            }
+            out.writeInt(items.size());
+            for (Item item : items) {
+                JournalCodec.write(out, JournalRecordMapper.toRecord(item));
+            }
+            out.flush();
+            file.write(longToBytes(crc.getValue()));
+            file.getFD().sync();
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void readSnapshot(long generation) throws IOException {
+        CRC32 crc = new CRC32();
+        try (DataInputStream file = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath(generation))))) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != MAGIC || in.readLong() != generation) {
+                throw new IOException("Неверный заголовок снимка");
+            }
+            int users = in.readInt();
+            for (int i = 0; i < users; i++) {
+                userStorage.restoreUser(JournalRecordMapper.toUser(JournalCodec.read(in)));
+            }
+            int items = in.readInt();
+            for (int i = 0; i < items; i++) {
+                itemStorage.restoreItem(JournalRecordMapper.toItem(JournalCodec.read(in)));
+            }
+            long expected = crc.getValue();
+            if (file.readLong() != expected) {
+                throw new IOException("Контрольная сумма снимка не совпадает");
+            }
+        }
+    }
+
+    private List<Long> getSnapshotGenerations() {
+        Path directory = journal.getDirectory();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteSnapshotsBefore(long generation) {
+        getSnapshotGenerations().stream()
+                .filter(existing -> existing < generation)
+                .map(this::snapshotPath)
+                .forEach(path -> {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        log.warn("Не удалось удалить снимок {}: {}", path, e.getMessage());
+                    }
+                });
+    }
+
+    private Path snapshotPath(long generation) {
+        return journal.getDirectory().resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, generation, SNAPSHOT_SUFFIX));
+    }
+
+    private static byte[] longToBytes(long value) {
+        byte[] bytes = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>= 8;
+        }
+        return bytes;
+    }
+}
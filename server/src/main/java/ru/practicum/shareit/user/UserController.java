@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -29,9 +30,11 @@ public class UserController {
     }
 
     @GetMapping
-    public List<UserDto> getUsers() {
-        log.info("Получен GET запрос на нахождение всех пользователей");
-        return userService.getAllUsers();
+    public List<UserDto> getUsers(@RequestParam(required = false, defaultValue = "0") final Integer from,
+                                  @RequestParam(required = false, defaultValue = "100") final Integer size) {
+        log.info("Получен GET запрос на нахождение всех пользователей с параметрами from={} & size= {}.", from, size);
+        int page = from > 0 ? from / size : from;
+        return userService.getAllUsers(PageRequest.of(page, size));
     }
 
     @GetMapping("/{userId}")
@@ -1,6 +1,11 @@
 package ru.practicum.shareit.user.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Where;
+import ru.practicum.shareit.config.CacheRegions;
+import ru.practicum.shareit.utilities.TextNormalizer;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -10,15 +15,48 @@ import javax.validation.constraints.Email;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "users")
+@Table(name = "users",
+        uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email_normalized"),
+        indexes = @Index(name = "idx_users_deleted", columnList = "deleted, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER)
+@Where(clause = "deleted = false")
 public class User {
+    public static final String EMAIL_CONSTRAINT = "uk_users_email_normalized";
+
     @EqualsAndHashCode.Exclude
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     @Column(name = "name", nullable = false)
     private String name;
     @Email(message = "Неверный формат записи почты пользователя")
     @Column(name = "email", nullable = false)
     private String email;
+    /**
+     * Email со свернутым регистром; уникальность почты обеспечивает индекс по этой колонке.
+     * У удаленного пользователя обнуляется, чтобы почту можно было занять сразу, не дожидаясь очистки.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+    /**
+     * Удаленный пользователь скрыт от всех запросов Hibernate, его данные удаляет UserPurgeProcessor.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeEmail() {
+        emailNormalized = normalizeEmail(email);
+    }
+
+    public static String normalizeEmail(String email) {
+        return email != null ? new String(TextNormalizer.fold(email.trim())) : null;
+    }
 }
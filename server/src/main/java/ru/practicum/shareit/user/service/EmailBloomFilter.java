@@ -0,0 +1,147 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.storage.UserEmail;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по нормализованным email пользователей. Отрицательный ответ точен: такой почты в базе нет,
+ * и пользователя можно сохранять без предварительного чтения. Положительный ответ означает лишь
+ * "возможно занята" и требует проверки запросом. Удаления и смена почты в фильтре не отражаются,
+ * это только увеличивает долю ложных срабатываний. Выключенный фильтр на все отвечает "нет",
+ * и конфликт ловится уникальным индексом.
+ */
+@Component
+@Slf4j
+public class EmailBloomFilter implements SmartInitializingSingleton {
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final int bitCount;
+    private final int hashCount;
+    private final AtomicLongArray bits;
+
+    @Autowired
+    public EmailBloomFilter(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${shareit.user.email-filter.enabled:true}") boolean enabled,
+                            @Value("${shareit.user.email-filter.expected-emails:1000000}") long expectedEmails,
+                            @Value("${shareit.user.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${shareit.user.email-filter.load-batch-size:1000}") int loadBatchSize) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        long optimalBits = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Math.max(optimalBits, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * Math.log(2)));
+        this.bits = new AtomicLongArray(enabled ? (bitCount + Long.SIZE - 1) / Long.SIZE : 0);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        long afterId = 0;
+        int loaded = 0;
+        List<UserEmail> batch;
+        do {
+            long cursor = afterId;
+            batch = transactionTemplate.execute(status ->
+                    userRepository.findAllByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, loadBatchSize)));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            batch.forEach(user -> put(user.getEmailNormalized()));
+            loaded += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == loadBatchSize);
+        log.info("Фильтр email пользователей загружен: {} адресов, бит: {}, хешей: {}", loaded, bitCount, hashCount);
+    }
+
+    /**
+     * false, если нормализованная почта точно не занята; true, если ее нужно проверить в базе.
+     */
+    public boolean mightContain(String emailNormalized) {
+        if (!enabled || emailNormalized == null) {
+            return false;
+        }
+        long hash = hash(emailNormalized);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bits.get(bit / Long.SIZE) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void putAfterCommit(String emailNormalized) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(emailNormalized);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(emailNormalized);
+            }
+        });
+    }
+
+    void put(String emailNormalized) {
+        if (!enabled || emailNormalized == null) {
+            return;
+        }
+        long hash = hash(emailNormalized);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            long mask = 1L << bit;
+            int word = bit / Long.SIZE;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * 64-битный FNV-1a по байтам UTF-8 с финальным перемешиванием; половины дают две хеш-функции
+     * для схемы двойного хеширования.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
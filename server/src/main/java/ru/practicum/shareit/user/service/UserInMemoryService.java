@@ -0,0 +1,86 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.storage.ItemInMemoryStorage;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserInMemoryStorage;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Пользователи профиля memory: хранятся в {@link UserInMemoryStorage} и восстанавливаются из журнала,
+ * таблица users не используется. Удаление сразу убирает и вещи пользователя из памяти.
+ */
+@Service
+@Profile("memory")
+@Slf4j
+public class UserInMemoryService implements UserService {
+    private final UserInMemoryStorage userStorage;
+    private final ItemInMemoryStorage itemStorage;
+    private final int maxPageSize;
+
+    @Autowired
+    public UserInMemoryService(UserInMemoryStorage userStorage, ItemInMemoryStorage itemStorage,
+                               @Value("${shareit.user.max-page-size:1000}") int maxPageSize) {
+        this.userStorage = userStorage;
+        this.itemStorage = itemStorage;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public UserDto addUser(UserDto userDto) {
+        return UserMapper.toUserDto(userStorage.addUser(UserMapper.toUser(userDto)));
+    }
+
+    @Override
+    public UserDto updateUser(Long userId, UserDto userDto) {
+        userStorage.getUserById(userId);
+        User user = UserMapper.toUser(userDto);
+        user.setId(userId);
+        return UserMapper.toUserDto(userStorage.updateUser(user));
+    }
+
+    @Override
+    public UserDto deleteUser(Long userId) {
+        User user = userStorage.getUserById(userId).orElseThrow();
+        itemStorage.deleteItemsByOwner(userId);
+        log.info("Пользователь удален из памяти users по ID: {} \n {}", userId, user);
+        return UserMapper.toUserDto(userStorage.deleteUser(user));
+    }
+
+    @Override
+    public UserDto getUserById(Long userId) {
+        return UserMapper.toUserDto(userStorage.getUserById(userId).orElseThrow());
+    }
+
+    @Override
+    public List<UserDto> getAllUsers(Pageable pageable) {
+        if (pageable.getPageSize() > maxPageSize) {
+            throw new ValidationException("Размер страницы пользователей не может превышать " + maxPageSize
+                    + ", для полной выгрузки используйте /users/export");
+        }
+        return userStorage.getAllUsers().stream()
+                .sorted(Comparator.comparing(User::getId))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void checkValidation(User user, boolean emailNull) {
+        if (!emailNull && user.getEmail() == null) {
+            throw new ValidationException("Email пользователя не может быть пустым");
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.catalog.ItemSearchCatalog;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemPopularityRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.dto.DeletedEvent;
+import ru.practicum.shareit.outbox.dto.UserEvent;
+import ru.practicum.shareit.outbox.model.OutboxAudience;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
+import ru.practicum.shareit.request.matching.RequestTermIndex;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.request.storage.RequestSuggestionRepository;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Фоновая очистка данных пользователей, помеченных удаленными. Шаги идут в порядке внешних ключей:
+ * комментарии, бронирования, предложения к запросам, ссылки чужих вещей на запросы пользователя,
+ * запросы, счетчики популярности вещей, вещи и в конце сама строка users. Каждая пачка - не больше
+ * batch-size строк в отдельной транзакции, за один запуск - не больше max-batches-per-run пачек. Шаг заново выбирает оставшиеся строки,
+ * поэтому прерванная или упавшая очистка продолжается со следующего запуска.
+ * Удаление комментариев, бронирований, запросов и вещей оставляет в outbox надгробия *_DELETED
+ * в той же транзакции, чтобы клиенты ленты изменений убрали их из своей копии.
+ * До очистки данные пользователя уже скрыты: его строка users отфильтрована @Where, а чтения зависимых
+ * строк (поиск, /requests/all, бронирования владельца и бронирующего, комментарии, лента изменений)
+ * отбрасывают строки удаленных авторов, бронирующих, авторов запросов и владельцев вещей.
+ */
+@Component
+@Slf4j
+public class UserPurgeProcessor {
+    private final UserRepository userRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final ItemSearchCatalog itemSearchCatalog;
+    private final RequestTermIndex requestTermIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final List<PurgeStep> steps;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final AtomicLong pending = new AtomicLong();
+    private final Timer batchTimer;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public UserPurgeProcessor(UserRepository userRepository,
+                              CommentRepository commentRepository,
+                              BookingRepository bookingRepository,
+                              RequestSuggestionRepository requestSuggestionRepository,
+                              ItemRepository itemRepository,
+                              ItemRequestRepository itemRequestRepository,
+                              ItemPopularityRepository itemPopularityRepository,
+                              OutboxPublisher outboxPublisher,
+                              ItemSearchCatalog itemSearchCatalog,
+                              RequestTermIndex requestTermIndex,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${shareit.user.purge.batch-size:500}") int batchSize,
+                              @Value("${shareit.user.purge.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.userRepository = userRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.itemSearchCatalog = itemSearchCatalog;
+        this.requestTermIndex = requestTermIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.meterRegistry = meterRegistry;
+        this.steps = List.of(
+                new PurgeStep("comments", commentRepository::findIdsByAuthorOrItemOwner,
+                        commentRepository::deleteAllByIds, null,
+                        OutboxEventType.COMMENT_DELETED, (userId, ids) -> commentRepository.findDeletedEventsByIds(ids)),
+                new PurgeStep("bookings", bookingRepository::findIdsByBookerOrItemOwner,
+                        bookingRepository::deleteAllByIds, null,
+                        OutboxEventType.BOOKING_DELETED, (userId, ids) -> bookingRepository.findDeletedEventsByIds(ids)),
+                new PurgeStep("request_suggestions", requestSuggestionRepository::findIdsByItemOwnerOrRequester,
+                        requestSuggestionRepository::deleteAllByIds, null, null, null),
+                new PurgeStep("item_request_links", itemRepository::findIdsByRequester,
+                        itemRepository::detachRequestByIds, null, null, null),
+                // Запросы видны всем, поэтому и надгробие запроса адресовано всем.
+                new PurgeStep("requests", itemRequestRepository::findIdsByRequester,
+                        itemRequestRepository::deleteAllByIds, ids -> ids.forEach(requestTermIndex::removeAfterCommit),
+                        OutboxEventType.REQUEST_DELETED, (userId, ids) -> tombstones(ids, null)),
+                new PurgeStep("item_popularity", itemPopularityRepository::findIdsByItemOwner,
+                        itemPopularityRepository::deleteAllByIds, null, null, null),
+                new PurgeStep("items", itemRepository::findIdsByOwner,
+                        itemRepository::deleteAllByIds, itemSearchCatalog::removeAfterCommit,
+                        OutboxEventType.ITEM_DELETED, (userId, ids) -> tombstones(ids, userId)));
+        this.batchTimer = Timer.builder("shareit.user.purge.batch")
+                .description("Время обработки одной пачки очистки удаленного пользователя")
+                .register(meterRegistry);
+        Gauge.builder("shareit.user.purge.pending", pending, AtomicLong::get)
+                .description("Количество удаленных пользователей, чьи данные еще не очищены")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.user.purge.interval:PT10S}",
+            initialDelayString = "${shareit.user.purge.initial-delay:PT10S}")
+    public void purgeDeletedUsers() {
+        int budget = maxBatchesPerRun;
+        for (Long userId : userRepository.findDeletedIds(PageRequest.of(0, maxBatchesPerRun))) {
+            try {
+                budget = purge(userId, budget);
+            } catch (RuntimeException e) {
+                log.warn("Очистка данных пользователя {} прервана, продолжится при следующем запуске", userId, e);
+                budget--;
+            }
+            if (budget <= 0) {
+                break;
+            }
+        }
+        pending.set(userRepository.countDeleted());
+    }
+
+    /**
+     * Очищает данные пользователя, пока хватает бюджета пачек. Возвращает остаток бюджета.
+     */
+    private int purge(Long userId, int budget) {
+        for (PurgeStep step : steps) {
+            int processed;
+            do {
+                if (budget <= 0) {
+                    return 0;
+                }
+                processed = batchTimer.record(() -> runBatch(step, userId));
+                budget--;
+            } while (processed == batchSize);
+        }
+        Integer removed = transactionTemplate.execute(status -> {
+            int deleted = userRepository.purgeDeleted(userId);
+            if (deleted > 0) {
+                outboxPublisher.publish(OutboxEventType.USER_PURGED, userId, UserEvent.builder().userId(userId).build(),
+                        OutboxAudience.user(userId));
+            }
+            return deleted;
+        });
+        if (removed != null && removed > 0) {
+            rows("users").increment(removed);
+            log.info("Данные удаленного пользователя {} очищены", userId);
+        }
+        return budget;
+    }
+
+    private int runBatch(PurgeStep step, Long userId) {
+        Integer result = transactionTemplate.execute(status -> {
+            List<Long> ids = step.ids.apply(userId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            if (step.deletedType != null) {
+                step.deletedEvents.apply(userId, ids).forEach(event -> outboxPublisher.publish(step.deletedType,
+                        event.getId(), event, OutboxAudience.of(event.getOwnerId(), event.getUserId())));
+            }
+            int affected = step.action.apply(ids);
+            if (step.afterCommit != null) {
+                step.afterCommit.accept(ids);
+            }
+            rows(step.name).increment(affected);
+            return ids.size();
+        });
+        return result != null ? result : 0;
+    }
+
+    private static List<DeletedEvent> tombstones(List<Long> ids, Long ownerId) {
+        return ids.stream()
+                .map(id -> DeletedEvent.builder().id(id).ownerId(ownerId).build())
+                .collect(Collectors.toList());
+    }
+
+    private Counter rows(String step) {
+        return Counter.builder("shareit.user.purge.rows")
+                .description("Количество строк, удаленных или отвязанных при очистке удаленных пользователей")
+                .tag("step", step)
+                .register(meterRegistry);
+    }
+
+    private static class PurgeStep {
+        private final String name;
+        private final BiFunction<Long, Pageable, List<Long>> ids;
+        private final Function<List<Long>, Integer> action;
+        private final Consumer<List<Long>> afterCommit;
+        private final OutboxEventType deletedType;
+        private final BiFunction<Long, List<Long>, List<DeletedEvent>> deletedEvents;
+
+        PurgeStep(String name, BiFunction<Long, Pageable, List<Long>> ids,
+                  Function<List<Long>, Integer> action, Consumer<List<Long>> afterCommit,
+                  OutboxEventType deletedType, BiFunction<Long, List<Long>, List<DeletedEvent>> deletedEvents) {
+            this.name = name;
+            this.ids = ids;
+            this.action = action;
+            this.afterCommit = afterCommit;
+            this.deletedType = deletedType;
+            this.deletedEvents = deletedEvents;
+        }
+    }
+}
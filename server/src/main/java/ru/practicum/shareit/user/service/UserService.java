@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -14,7 +15,7 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
-    List<UserDto> getAllUsers();
+    List<UserDto> getAllUsers(Pageable pageable);
 
     void checkValidation(User user, boolean emailNull);
 }
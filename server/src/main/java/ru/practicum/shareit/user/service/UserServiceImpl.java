@@ -2,36 +2,69 @@ package ru.practicum.shareit.user.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.catalog.ItemSearchCatalog;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.dto.OutboxEventMapper;
+import ru.practicum.shareit.outbox.dto.UserEvent;
+import ru.practicum.shareit.outbox.model.OutboxAudience;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxPublisher;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.List;
-import java.util.Objects;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Service
+@Profile("!memory")
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final EmailBloomFilter emailBloomFilter;
+    private final ItemRepository itemRepository;
+    private final ItemSearchCatalog itemSearchCatalog;
+    private final int maxPageSize;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, OutboxPublisher outboxPublisher,
+                           EmailBloomFilter emailBloomFilter,
+                           ItemRepository itemRepository,
+                           ItemSearchCatalog itemSearchCatalog,
+                           @Value("${shareit.user.max-page-size:1000}") int maxPageSize) {
         this.userRepository = userRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.emailBloomFilter = emailBloomFilter;
+        this.itemRepository = itemRepository;
+        this.itemSearchCatalog = itemSearchCatalog;
+        this.maxPageSize = maxPageSize;
     }
 
-
     @Transactional
     @Override
     public UserDto addUser(UserDto userDto) {
-        User userDb = userRepository.save(UserMapper.toUser(userDto));
-        checkEmail(userDb.getId(), userDb.getEmail());
+        String emailNormalized = User.normalizeEmail(userDto.getEmail());
+        if (emailBloomFilter.mightContain(emailNormalized) && userRepository.existsByEmailNormalized(emailNormalized)) {
+            throw emailConflict(null, emailNormalized);
+        }
+        User userDb = saveAndFlush(UserMapper.toUser(userDto));
+        emailBloomFilter.putAfterCommit(emailNormalized);
+        outboxPublisher.publish(OutboxEventType.USER_CREATED, userDb.getId(), OutboxEventMapper.toUserEvent(userDb),
+                OutboxAudience.user(userDb.getId()));
         log.info("Пользователь добавлен в базу данных в таблицу users по ID: {} \n {}", userDb.getId(), userDb);
         return UserMapper.toUserDto(userDb);
     }
@@ -40,19 +73,24 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto updateUser(Long userId, UserDto user) {
         user.setId(userId);
-        checkEmail(userId, user.getEmail());
         User userOld = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
         if (user.getName() != null) {
             userOld.setName(user.getName());
         }
-        if (user.getEmail() != null) {
+        String emailNormalized = User.normalizeEmail(user.getEmail());
+        if (emailNormalized != null) {
+            if (emailBloomFilter.mightContain(emailNormalized)
+                    && userRepository.existsByEmailNormalizedAndIdNot(emailNormalized, userId)) {
+                throw emailConflict(userId, emailNormalized);
+            }
             userOld.setEmail(user.getEmail());
+            userOld.setEmailNormalized(emailNormalized);
+            emailBloomFilter.putAfterCommit(emailNormalized);
         }
 
-        User userUpd = userRepository.save(userOld);
-        if (userUpd == null) {
-            userUpd = userOld;
-        }
+        User userUpd = saveAndFlush(userOld);
+        outboxPublisher.publish(OutboxEventType.USER_UPDATED, userId, OutboxEventMapper.toUserEvent(userUpd),
+                OutboxAudience.user(userId));
         log.info("Пользователь обновлен в базе данных в таблице users по ID: {} \n {}", userId, userUpd);
         return UserMapper.toUserDto(userUpd);
     }
@@ -60,9 +98,14 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public UserDto deleteUser(Long userId) {
-        User user = userRepository.findById(userId).orElse(null);
-        userRepository.deleteById(userId);
-        log.info("Пользователь удален из базы данных из таблице users по ID: {} \n {}", userId, user);
+        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
+        // Только пометка: вещи, бронирования, комментарии и запросы пользователя удаляет UserPurgeProcessor.
+        userRepository.markDeleted(userId);
+        // Каталог поиска пагинирует по своим строкам, поэтому вещи убираются из него сразу, а не после очистки.
+        itemSearchCatalog.removeAfterCommit(itemRepository.findIdsByOwner(userId, Pageable.unpaged()));
+        outboxPublisher.publish(OutboxEventType.USER_DELETED, userId, UserEvent.builder().userId(userId).build(),
+                OutboxAudience.user(userId));
+        log.info("Пользователь помечен удаленным в таблице users по ID: {} \n {}", userId, user);
         return UserMapper.toUserDto(user);
     }
 
@@ -75,8 +118,13 @@ public class UserServiceImpl implements UserService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll()
+    public List<UserDto> getAllUsers(Pageable pageable) {
+        if (pageable.getPageSize() > maxPageSize) {
+            throw new ValidationException("Размер страницы пользователей не может превышать " + maxPageSize
+                    + ", для полной выгрузки используйте /users/export");
+        }
+        return userRepository.findAllBy(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                        Sort.by("id")))
                 .stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
@@ -89,15 +137,35 @@ public class UserServiceImpl implements UserService {
         }
     }
 
-    private void checkEmail(Long userId, String email) {
-        List<User> usersSameEmail = userRepository.findAllByEmail(email).stream()
-                .filter(u -> !Objects.equals(u.getId(), userId))
-                .collect(Collectors.toList());
+    /**
+     * Сохраняет пользователя и сразу сбрасывает изменения в базу, чтобы нарушение уникального индекса
+     * по email проявилось здесь и превратилось в ConflictException, а не при коммите.
+     */
+    private User saveAndFlush(User user) {
+        try {
+            User saved = userRepository.save(user);
+            userRepository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailViolation(e)) {
+                throw emailConflict(user.getId(), User.normalizeEmail(user.getEmail()));
+            }
+            throw e;
+        }
+    }
 
-        if (!usersSameEmail.isEmpty()) {
-            log.info("Email {} пользователя ID: {} уже есть у пользователей: {}.",
-                    email, userId, usersSameEmail);
-            throw new ConflictException("Email пользователя не может повторяться.");
+    private static boolean isEmailViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT)) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    private static ConflictException emailConflict(Long userId, String emailNormalized) {
+        log.info("Email {} пользователя ID: {} уже занят другим пользователем.", emailNormalized, userId);
+        return new ConflictException("Email пользователя не может повторяться.");
     }
 }
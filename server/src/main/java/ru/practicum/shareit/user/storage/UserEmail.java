@@ -0,0 +1,10 @@
+package ru.practicum.shareit.user.storage;
+
+/**
+ * Проекция пользователя для загрузки фильтра email: только id и нормализованная почта.
+ */
+public interface UserEmail {
+    Long getId();
+
+    String getEmailNormalized();
+}
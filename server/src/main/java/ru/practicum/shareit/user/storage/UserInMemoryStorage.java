@@ -1,72 +1,169 @@
 package ru.practicum.shareit.user.storage;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
-import ru.practicum.shareit.exceptions.UserAlreadyExistException;
+import ru.practicum.shareit.storage.JournalRecordMapper;
+import ru.practicum.shareit.storage.StorageJournal;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
+/**
+ * Хранилище пользователей в памяти: поиск по id за O(1), уникальность email через отдельный индекс
+ * по нормализованному адресу, как и уникальный индекс в базе.
+ * Подключается профилем memory. Изменения записываются в журнал {@link StorageJournal}.
+ */
 @Component("userInMemoryStorage")
+@Profile("memory")
 @Slf4j
 public class UserInMemoryStorage implements UserStorage {
-    private final List<User> users = new ArrayList<>();
-    private long id = 1L;
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> emailIndex = new ConcurrentHashMap<>();
+    private final AtomicLong id = new AtomicLong(1L);
+    private final StorageJournal journal;
+
+    @Autowired
+    public UserInMemoryStorage(StorageJournal journal) {
+        this.journal = journal;
+    }
 
     @Override
     public User addUser(User user) {
-        user.setId(id);
-        id++;
-
-        if (users.contains(user)) {
-            throw new UserAlreadyExistException("Пользователь уже был добавлен: " + user);
+        long position;
+        journal.lock();
+        try {
+            if (user.getEmail() != null && emailIndex.containsKey(User.normalizeEmail(user.getEmail()))) {
+                throw new ConflictException("Email пользователя не может повторяться.");
+            }
+            user.setId(id.getAndIncrement());
+            position = journal.append(JournalRecordMapper.toRecord(user));
+            put(user);
+        } finally {
+            journal.unlock();
         }
+        journal.sync(position);
 
         log.info("Пользователь добавлен в память users по ID: {} \n {}", user.getId(), user);
-        users.add(user);
         return user;
     }
 
     @Override
     public User updateUser(User user) {
-        User oldUser = getUserById(user.getId()).orElse(null);
-        users.remove(oldUser);
+        long position;
+        journal.lock();
+        try {
+            User oldUser = getUserById(user.getId()).orElse(null);
 
-        if (user.getName() == null && oldUser.getName() != null) {
-            user.setName(oldUser.getName());
-        }
-        if (user.getEmail() == null && oldUser.getEmail() != null) {
-            user.setEmail(oldUser.getEmail());
+            if (user.getName() == null && oldUser.getName() != null) {
+                user.setName(oldUser.getName());
+            }
+            if (user.getEmail() == null && oldUser.getEmail() != null) {
+                user.setEmail(oldUser.getEmail());
+            }
+            Long owner = user.getEmail() != null ? emailIndex.get(User.normalizeEmail(user.getEmail())) : null;
+            if (owner != null && !owner.equals(user.getId())) {
+                throw new ConflictException("Email пользователя не может повторяться.");
+            }
+            position = journal.append(JournalRecordMapper.toRecord(user));
+            put(user);
+        } finally {
+            journal.unlock();
         }
+        journal.sync(position);
 
         log.info("Текущий пользователь: {}", user);
-        users.add(user);
         return user;
     }
 
     @Override
     public User deleteUser(User user) {
-        if (users.contains(user)) {
-            users.remove(user);
-        } else {
-            throw new NotFoundException("Такого пользователя не существует: " + user);
+        long position;
+        User removed;
+        journal.lock();
+        try {
+            removed = user.getId() != null ? users.get(user.getId()) : null;
+            if (removed == null) {
+                throw new NotFoundException("Такого пользователя не существует: " + user);
+            }
+            position = journal.append(JournalRecordMapper.toDeleteRecord(removed));
+            remove(removed.getId());
+        } finally {
+            journal.unlock();
         }
-        return user;
+        journal.sync(position);
+        return removed;
     }
 
     @Override
     public Optional<User> getUserById(Long userId) {
-        return Optional.ofNullable(users.stream().filter(u -> Objects.equals(userId, u.getId())).findFirst()
-                .orElseThrow(() -> new NotFoundException("Такого пользователя с id = " + userId + " не существует.")));
+        User user = userId != null ? users.get(userId) : null;
+        if (user == null) {
+            throw new NotFoundException("Такого пользователя с id = " + userId + " не существует.");
+        }
+        return Optional.of(user);
     }
 
     @Override
     public List<User> getAllUsers() {
         log.info("Текущее количество пользователей: {}", users.size());
-        return users;
+        return new ArrayList<>(users.values());
+    }
+
+    /**
+     * Применяет пользователя из снимка или журнала при восстановлении, без записи в журнал.
+     */
+    public void restoreUser(User user) {
+        put(user);
+        id.accumulateAndGet(user.getId() + 1, Math::max);
+    }
+
+    public void restoreDelete(Long userId) {
+        remove(userId);
+    }
+
+    /**
+     * Копия всех пользователей для снимка. Вызывается под блокировкой журнала.
+     */
+    public List<User> copyUsers() {
+        return users.values().stream()
+                .map(user -> User.builder()
+                        .id(user.getId())
+                        .name(user.getName())
+                        .email(user.getEmail())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    public void clear() {
+        users.clear();
+        emailIndex.clear();
+        id.set(1L);
+    }
+
+    private void put(User user) {
+        User old = users.put(user.getId(), user);
+        if (old != null && old.getEmail() != null) {
+            emailIndex.remove(User.normalizeEmail(old.getEmail()), old.getId());
+        }
+        if (user.getEmail() != null) {
+            emailIndex.put(User.normalizeEmail(user.getEmail()), user.getId());
+        }
+    }
+
+    private void remove(Long userId) {
+        User removed = users.remove(userId);
+        if (removed != null && removed.getEmail() != null) {
+            emailIndex.remove(User.normalizeEmail(removed.getEmail()), removed.getId());
+        }
     }
 }
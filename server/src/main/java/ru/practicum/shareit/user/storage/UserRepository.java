@@ -1,6 +1,9 @@
 package ru.practicum.shareit.user.storage;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
@@ -8,5 +11,34 @@ import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    List<User> findAllByEmail(String email);
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    boolean existsByEmailNormalizedAndIdNot(String emailNormalized, Long id);
+
+    List<User> findAllBy(Pageable pageable);
+
+    List<UserEmail> findAllByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Помечает пользователя удаленным и освобождает его почту. Массовое обновление очищает регион user
+     * кэша второго уровня, поэтому пользователь сразу пропадает и из кэшированных чтений.
+     */
+    @Modifying
+    @Query("update User u " +
+            "set u.deleted = true, u.emailNormalized = null " +
+            "where u.id = ?1")
+    int markDeleted(Long userId);
+
+    /**
+     * Удаленные пользователи, ожидающие очистки. Нативные запросы: сущность User их не видит.
+     */
+    @Query(value = "select u.id from users as u where u.deleted = true order by u.id", nativeQuery = true)
+    List<Long> findDeletedIds(Pageable pageable);
+
+    @Query(value = "select count(*) from users as u where u.deleted = true", nativeQuery = true)
+    long countDeleted();
+
+    @Modifying
+    @Query(value = "delete from users where id = ?1 and deleted = true", nativeQuery = true)
+    int purgeDeleted(Long userId);
 }
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.utilities;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Приведение текста к единому регистру для поиска без учета регистра и поиск подстроки без выделения памяти.
+ * Свертка посимвольная (toUpperCase, затем toLowerCase), поэтому кириллица, включая Ё/ё, сравнивается корректно.
+ */
+@UtilityClass
+public class TextNormalizer {
+    public static char[] fold(String text) {
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(text.charAt(i));
+        }
+        return folded;
+    }
+
+    public static char fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    public static boolean contains(char[] text, char[] pattern) {
+        int length = pattern.length;
+        if (length == 0) {
+            return true;
+        }
+        char first = pattern[0];
+        int max = text.length - length;
+        for (int i = 0; i <= max; i++) {
+            if (text[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < length && text[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == length) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
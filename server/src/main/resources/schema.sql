@@ -1,19 +1,43 @@
+DROP TABLE IF EXISTS item_popularity CASCADE;
+DROP TABLE IF EXISTS request_suggestions CASCADE;
+DROP TABLE IF EXISTS outbox CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
+DROP SEQUENCE IF EXISTS request_suggestions_seq;
+DROP SEQUENCE IF EXISTS outbox_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS users_seq;
+
+-- Шаг последовательностей совпадает с allocationSize в сущностях: Hibernate резервирует id пачками по 50.
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS request_suggestions_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
-    name  varchar(100),
-    email varchar(320) UNIQUE
+    id               BIGINT PRIMARY KEY,
+    name             varchar(100),
+    email            varchar(320),
+    email_normalized varchar(320),
+    deleted          boolean NOT NULL DEFAULT false,
+    CONSTRAINT uk_users_email_normalized UNIQUE (email_normalized)
 );
 
+CREATE INDEX IF NOT EXISTS idx_users_deleted ON users (deleted, id);
+
 CREATE TABLE IF NOT EXISTS requests
 (
-    id           BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id           BIGINT PRIMARY KEY,
     description  varchar(255),
     requester_id bigint,
     created      timestamp without time zone,
@@ -22,36 +46,92 @@ CREATE TABLE IF NOT EXISTS requests
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id           BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id           BIGINT PRIMARY KEY,
     name         varchar(100),
     description  varchar(255),
     is_available boolean,
-    user_id      BIGINT,
+    owner_id     BIGINT,
     request_id   BIGINT,
-    CONSTRAINT fk_items_to_users FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_items_to_users FOREIGN KEY (owner_id) REFERENCES users (id),
     CONSTRAINT fk_items_to_requests FOREIGN KEY (request_id) REFERENCES requests (id)
 );
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id         BIGINT PRIMARY KEY,
     start_date timestamp without time zone,
     end_date   timestamp without time zone,
     status     varchar(10),
     item_id    bigint,
     booker_id  bigint,
+    owner_id   bigint,
     CONSTRAINT fk_bookings_to_users FOREIGN KEY (booker_id) REFERENCES users (id),
+    CONSTRAINT fk_bookings_to_owners FOREIGN KEY (owner_id) REFERENCES users (id),
     CONSTRAINT fk_bookings_to_items FOREIGN KEY (item_id) REFERENCES items (id),
     UNIQUE (id)
 );
 
+-- База, созданная до появления owner_id, получает колонку здесь, а значения заполняет BookingOwnerBackfill.
+-- Внешний ключ пересоздается, потому что ADD CONSTRAINT IF NOT EXISTS есть не во всех базах.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id bigint;
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS fk_bookings_to_owners;
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_to_owners FOREIGN KEY (owner_id) REFERENCES users (id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_booker_end ON bookings (item_id, booker_id, end_date);
+
 CREATE TABLE IF NOT EXISTS comments
 (
-    id        BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id        BIGINT PRIMARY KEY,
     text      varchar(255),
     item_id   bigint,
     author_id bigint,
     created   timestamp without time zone,
     CONSTRAINT fk_comments_to_items FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created, id);
+CREATE TABLE IF NOT EXISTS outbox
+(
+    id           BIGINT PRIMARY KEY,
+    event_type   varchar(30)                 NOT NULL,
+    aggregate_id bigint,
+    payload      varchar(4000)               NOT NULL,
+    created      timestamp without time zone NOT NULL,
+    processed    boolean                     NOT NULL,
+    owner_id     bigint,
+    user_id      bigint,
+    change_seq   bigint
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_processed ON outbox (processed, id);
+CREATE INDEX IF NOT EXISTS idx_outbox_change_seq ON outbox (change_seq);
+-- Лента изменений отбирает события по владельцу или участнику и идет по change_seq после курсора.
+CREATE INDEX IF NOT EXISTS idx_outbox_owner_change_seq ON outbox (owner_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_outbox_user_change_seq ON outbox (user_id, change_seq);
+
+CREATE TABLE IF NOT EXISTS request_suggestions
+(
+    id         BIGINT PRIMARY KEY,
+    request_id bigint                      NOT NULL,
+    item_id    bigint                      NOT NULL,
+    score      integer                     NOT NULL,
+    created    timestamp without time zone NOT NULL,
+    CONSTRAINT fk_request_suggestions_to_requests FOREIGN KEY (request_id) REFERENCES requests (id),
+    CONSTRAINT fk_request_suggestions_to_items FOREIGN KEY (item_id) REFERENCES items (id),
+    UNIQUE (request_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_request_suggestions_request ON request_suggestions (request_id, score);
+
+CREATE TABLE IF NOT EXISTS item_popularity
+(
+    item_id  BIGINT PRIMARY KEY,
+    views    bigint NOT NULL,
+    bookings bigint NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_popularity_rank ON item_popularity (bookings, views);
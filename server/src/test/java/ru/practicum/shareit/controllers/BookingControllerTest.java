@@ -13,6 +13,8 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoBulk;
+import ru.practicum.shareit.booking.dto.BookingDtoBulkResult;
 import ru.practicum.shareit.booking.dto.BookingDtoPartial;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -281,6 +283,46 @@ public class BookingControllerTest {
         response.andExpect(status().isOk());
     }
 
+    @Test
+    void testUpdateBookings_ShouldReturnOk_WhenBookingsExist() throws Exception {
+        BookingDtoBulk bookings = BookingDtoBulk.builder()
+                .bookingIds(List.of(1L, 2L))
+                .build();
+
+        when(bookingService.updateBookings(any(), anyLong(), any()))
+                .thenReturn(List.of(BookingDtoBulkResult.builder()
+                        .bookingId(1L)
+                        .status(BookingStatus.APPROVED)
+                        .build(), BookingDtoBulkResult.builder()
+                        .bookingId(2L)
+                        .error("Бронирование не найдено.")
+                        .build()));
+
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch(URL.concat("/bulk"))
+                .param("approved", Boolean.TRUE.toString())
+                .header("Content-Type", "application/json")
+                .header("X-Sharer-User-Id", 1L)
+                .content(mapper.writeValueAsString(bookings)));
+
+        response.andExpect(status().isOk());
+    }
+
+    @Test
+    void testUpdateBookings_ShouldReturnError_WhenBookingIdsEmpty() throws Exception {
+        BookingDtoBulk bookings = BookingDtoBulk.builder()
+                .bookingIds(List.of())
+                .build();
+
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch(URL.concat("/bulk"))
+                .param("approved", Boolean.TRUE.toString())
+                .header("Content-Type", "application/json")
+                .header("X-Sharer-User-Id", 1L)
+                .content(mapper.writeValueAsString(bookings)));
+
+        response.andExpect(status().isBadRequest())
+                .andExpectAll(result -> assertInstanceOf(MethodArgumentNotValidException.class, result.getResolvedException()));
+    }
+
     @Test
     void testGetBookingById_ShouldReturnOk_WhenBookingExists() throws Exception {
         BookingDtoPartial booking = BookingDtoPartial.builder()
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.BookingIntakeController;
+import ru.practicum.shareit.booking.dto.BookingDtoPartial;
+import ru.practicum.shareit.booking.dto.BookingIntakeDto;
+import ru.practicum.shareit.booking.model.BookingIntakeStatus;
+import ru.practicum.shareit.booking.service.BookingIntakeService;
+import ru.practicum.shareit.exceptionhandler.ErrorHandler;
+import ru.practicum.shareit.exceptions.ServiceUnavailableException;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingIntakeController.class, properties = "shareit.booking.intake.enabled=true")
+@ContextConfiguration(classes = {BookingIntakeController.class, ErrorHandler.class})
+public class BookingIntakeControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper mapper;
+
+    @MockBean
+    private BookingIntakeService bookingIntakeService;
+
+    private static final String URL = "http://localhost:8080/bookings/intake";
+
+    private final BookingDtoPartial booking = BookingDtoPartial.builder()
+            .itemId(1L)
+            .start(LocalDateTime.now().plusDays(1))
+            .end(LocalDateTime.now().plusDays(2))
+            .build();
+
+    @Test
+    void testSubmitBooking_ShouldReturnAccepted_WhenQueued() throws Exception {
+        when(bookingIntakeService.submit(any(), anyLong()))
+                .thenReturn(BookingIntakeDto.builder()
+                        .intakeId("id")
+                        .status(BookingIntakeStatus.QUEUED)
+                        .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post(URL)
+                        .header("Content-Type", "application/json")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(booking)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.intakeId").value("id"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void testSubmitBooking_ShouldReturnServiceUnavailable_WhenQueueFull() throws Exception {
+        when(bookingIntakeService.submit(any(), anyLong()))
+                .thenThrow(new ServiceUnavailableException("Очередь бронирований заполнена, повторите запрос позже."));
+
+        mockMvc.perform(MockMvcRequestBuilders.post(URL)
+                        .header("Content-Type", "application/json")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(booking)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testGetIntake_ShouldReturnBookingId_WhenCreated() throws Exception {
+        when(bookingIntakeService.getIntake("id", 1L))
+                .thenReturn(BookingIntakeDto.builder()
+                        .intakeId("id")
+                        .status(BookingIntakeStatus.CREATED)
+                        .bookingId(5L)
+                        .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL + "/id")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingId").value(5));
+    }
+}
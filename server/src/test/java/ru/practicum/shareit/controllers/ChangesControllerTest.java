@@ -0,0 +1,58 @@
+package ru.practicum.shareit.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.changes.ChangesController;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+import ru.practicum.shareit.changes.service.ChangesService;
+import ru.practicum.shareit.exceptionhandler.ErrorHandler;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ChangesController.class)
+@ContextConfiguration(classes = {ChangesController.class, ErrorHandler.class})
+public class ChangesControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ChangesService changesService;
+
+    @Test
+    void testGetChanges_ShouldReturnChangesAndCursor() throws Exception {
+        when(changesService.getChanges(1L, 10L, 500)).thenReturn(ChangesDto.builder()
+                .cursor(15L)
+                .items(List.of(ItemDto.builder().id(3L).name("Дрель").build()))
+                .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/changes?since=10")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cursor").value(15L))
+                .andExpect(jsonPath("$.items[0].id").value(3L));
+
+        verify(changesService).getChanges(1L, 10L, 500);
+    }
+
+    @Test
+    void testGetChanges_ShouldReturnBadRequest_WhenServiceRejectsCursor() throws Exception {
+        when(changesService.getChanges(anyLong(), anyLong(), anyInt())).thenThrow(ValidationException.class);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/changes?since=-1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.exceptionhandler.ErrorHandler;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.export.ExportController;
+import ru.practicum.shareit.export.model.ExportFormat;
+import ru.practicum.shareit.export.service.ExportService;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ExportController.class)
+@ContextConfiguration(classes = {ExportController.class, ErrorHandler.class})
+public class ExportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ExportService exportService;
+
+    @Test
+    void testExportOwnerBookings_ShouldStreamCsv() throws Exception {
+        when(exportService.exportOwnerBookings(eq(1L), eq(ExportFormat.CSV), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string("id\n1\n"));
+    }
+
+    @Test
+    void testExportUsers_ShouldStreamNdjsonByDefault() throws Exception {
+        when(exportService.exportUsers(eq(ExportFormat.NDJSON), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void testExportOwnerItems_ShouldReturnBadRequest_WhenFormatUnknown() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/export?format=xml")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportOwnerItems_ShouldReturnNotFound_WhenUserNotFound() throws Exception {
+        doThrow(NotFoundException.class).when(exportService).checkUser(anyLong());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/export?format=ndjson")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isNotFound());
+    }
+}
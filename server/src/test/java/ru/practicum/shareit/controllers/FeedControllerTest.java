@@ -0,0 +1,51 @@
+package ru.practicum.shareit.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exceptionhandler.ErrorHandler;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.feed.FeedController;
+import ru.practicum.shareit.feed.service.FeedEventBus;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = FeedController.class)
+@ContextConfiguration(classes = {FeedController.class, ErrorHandler.class})
+public class FeedControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private FeedEventBus feedEventBus;
+    @MockBean
+    private UserService userService;
+
+    @Test
+    void testSubscribe_ShouldStartEventStream() throws Exception {
+        when(feedEventBus.subscribe(1L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/feed")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void testSubscribe_ShouldReturnNotFound_WhenUserNotFound() throws Exception {
+        when(userService.getUserById(anyLong())).thenThrow(NotFoundException.class);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/feed")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -13,8 +13,12 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import ru.practicum.shareit.exceptionhandler.ErrorHandler;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoExtra;
+import ru.practicum.shareit.item.dto.PopularItemDto;
+import ru.practicum.shareit.item.popularity.ItemPopularityService;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.Collections;
@@ -24,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -36,6 +41,8 @@ public class ItemControllerTest {
     ObjectMapper mapper;
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemPopularityService itemPopularityService;
 
     private static final String URL = "http://localhost:8080/items";
 
@@ -213,4 +220,33 @@ public class ItemControllerTest {
 
         response.andExpect(status().isOk());
     }
+
+    @Test
+    void testGetComments_ShouldPassCursorAndSize() throws Exception {
+        when(itemService.getComments(1L, 1L, "2024-01-01T10:00_7", 5))
+                .thenReturn(CommentPageDto.builder()
+                        .comments(List.of(CommentDto.builder().id(6L).text("text").authorName("user").build()))
+                        .nextCursor("2024-01-01T09:00_6")
+                        .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL.concat("/1/comments"))
+                        .param("cursor", "2024-01-01T10:00_7")
+                        .param("size", "5")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].id").value(6L))
+                .andExpect(jsonPath("$.nextCursor").value("2024-01-01T09:00_6"));
+    }
+
+    @Test
+    void testGetPopularItems_ShouldReturnOk() throws Exception {
+        when(itemPopularityService.getPopularItems(3))
+                .thenReturn(List.of(PopularItemDto.builder().id(2L).name("Дрель").available(true).views(40).bookings(5).build()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL.concat("/popular"))
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2L))
+                .andExpect(jsonPath("$[0].bookings").value(5));
+    }
 }
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.exceptionhandler.ErrorHandler;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemImportController;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.service.ItemImportService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ItemImportController.class)
+@ContextConfiguration(classes = {ItemImportController.class, ErrorHandler.class})
+public class ItemImportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ItemImportService itemImportService;
+
+    private static final String URL = "http://localhost:8080/items/import";
+
+    @Test
+    void testImportItems_ShouldReturnReport() throws Exception {
+        ItemImportReport report = new ItemImportReport();
+        report.setImported(1);
+        report.setFailed(1);
+        report.getErrors().add(new ItemImportError(2, "Некорректный JSON"));
+        when(itemImportService.importItems(any(), anyLong())).thenReturn(report);
+
+        mockMvc.perform(MockMvcRequestBuilders.post(URL)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n{"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+
+    @Test
+    void testImportItems_ShouldReturnNotFound_WhenUserNotFound() throws Exception {
+        when(itemImportService.importItems(any(), anyLong())).thenThrow(NotFoundException.class);
+
+        mockMvc.perform(MockMvcRequestBuilders.post(URL)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(""))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -12,16 +12,21 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import ru.practicum.shareit.exceptionhandler.ErrorHandler;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -118,4 +123,21 @@ public class ItemRequestControllerTest {
 
         response.andExpect(status().isOk());
     }
+
+    @Test
+    void testGetSuggestions_ShouldReturnSuggestedItems() throws Exception {
+        RequestSuggestionDto suggestion = RequestSuggestionDto.builder()
+                .item(ItemDto.builder().id(5L).name("Дрель").description("Ударная").available(true).build())
+                .score(2)
+                .build();
+        when(itemRequestService.getSuggestions(anyLong(), anyLong()))
+                .thenReturn(List.of(suggestion));
+
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get(URL.concat("/{requestId}/suggestions"), 1L)
+                .header("X-Sharer-User-Id", 1L));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].item.id").value(5L))
+                .andExpect(jsonPath("$[0].score").value(2));
+    }
 }
@@ -12,6 +12,7 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exceptionhandler.ErrorHandler;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
@@ -21,8 +22,11 @@ import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -110,4 +114,14 @@ public class UserControllerTest {
 
         response.andExpect(status().isOk());
     }
+
+    @Test
+    void testGetUsers_ShouldPassPageFromOffset() throws Exception {
+        when(userService.getAllUsers(PageRequest.of(2, 10)))
+                .thenReturn(List.of(UserDto.builder().id(21L).name("user").email("user@mail.ru").build()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL + "?from=20&size=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(21L));
+    }
 }
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.catalog;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.utilities.TextNormalizer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CatalogSegmentTest {
+    @Test
+    void testScan_ShouldFindLiveAvailableRowsByNameOrDescription() {
+        CatalogSegment segment = new CatalogSegment(8, 1024);
+        segment.append(1L, true, folded("Дрель"), folded("Ударная"));
+        segment.append(2L, true, folded("Палатка"), folded("Для дрели не подходит"));
+        segment.append(3L, false, folded("Дрель"), folded("Сломана"));
+        segment.append(4L, true, folded("Отвертка"), folded("Крестовая"));
+
+        assertThat(segment.scan(folded("ДРЕЛ"))).containsExactly(1L, 2L);
+        assertThat(segment.scan(folded("ударн"))).containsExactly(1L);
+        assertThat(segment.scan(folded("пила"))).isEmpty();
+    }
+
+    @Test
+    void testScan_ShouldNotMatchAcrossNameAndDescription() {
+        CatalogSegment segment = new CatalogSegment(8, 1024);
+        segment.append(1L, true, folded("abc"), folded("def"));
+
+        assertThat(segment.scan(folded("cd"))).isEmpty();
+        assertThat(segment.scan(folded("bc"))).containsExactly(1L);
+        assertThat(segment.scan(folded("de"))).containsExactly(1L);
+    }
+
+    @Test
+    void testScan_ShouldMatchEveryAvailableRow_WhenPatternEmpty() {
+        CatalogSegment segment = new CatalogSegment(8, 1024);
+        segment.append(1L, true, folded("Дрель"), new byte[0]);
+        segment.append(2L, false, folded("Пила"), new byte[0]);
+
+        assertThat(segment.scan(new byte[0])).containsExactly(1L);
+    }
+
+    @Test
+    void testScan_ShouldReturnMoreRowsThanInitialBuffer() {
+        CatalogSegment segment = new CatalogSegment(100, 4096);
+        for (long id = 1; id <= 40; id++) {
+            segment.append(id, true, folded("Дрель " + id), new byte[0]);
+        }
+
+        assertThat(segment.scan(folded("дрель"))).hasSize(40).startsWith(1L).endsWith(40L);
+    }
+
+    @Test
+    void testKill_ShouldHideRow_AndSetAvailableShouldNotReviveIt() {
+        CatalogSegment segment = new CatalogSegment(8, 1024);
+        int first = segment.append(1L, true, folded("Дрель"), new byte[0]);
+        int second = segment.append(2L, true, folded("Дрель"), new byte[0]);
+
+        segment.kill(first);
+        segment.setAvailable(first, true);
+        segment.setAvailable(second, false);
+
+        assertThat(segment.isLive(first)).isFalse();
+        assertThat(segment.scan(folded("дрель"))).isEmpty();
+
+        segment.setAvailable(second, true);
+
+        assertThat(segment.scan(folded("дрель"))).containsExactly(2L);
+    }
+
+    @Test
+    void testFits_ShouldRespectRowAndTextCapacity() {
+        CatalogSegment segment = new CatalogSegment(2, 10);
+        segment.append(1L, true, folded("abcd"), new byte[0]);
+
+        assertThat(segment.fits(6)).isTrue();
+        assertThat(segment.fits(7)).isFalse();
+
+        segment.append(2L, true, folded("ab"), new byte[0]);
+
+        assertThat(segment.fits(0)).isFalse();
+    }
+
+    @Test
+    void testGetNameAndDescription_ShouldReturnStoredBytes() {
+        CatalogSegment segment = new CatalogSegment(8, 1024);
+        segment.append(1L, true, folded("Ёлка"), folded("Искусственная"));
+        int row = segment.append(2L, false, folded("Café"), folded("Кофемашина"));
+
+        assertThat(segment.getRows()).isEqualTo(2);
+        assertThat(segment.getId(row)).isEqualTo(2L);
+        assertThat(segment.isAvailable(row)).isFalse();
+        assertThat(new String(segment.getName(row), StandardCharsets.UTF_8)).isEqualTo("café");
+        assertThat(new String(segment.getDescription(row), StandardCharsets.UTF_8)).isEqualTo("кофемашина");
+    }
+
+    private static byte[] folded(String text) {
+        return new String(TextNormalizer.fold(text)).getBytes(StandardCharsets.UTF_8);
+    }
+}
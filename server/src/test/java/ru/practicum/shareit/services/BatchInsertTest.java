@@ -0,0 +1,41 @@
+package ru.practicum.shareit.services;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class BatchInsertTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testSaveAll_ShouldSendInsertsInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String prefix = UUID.randomUUID().toString();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            users.add(User.builder().name("batch" + i).email(prefix + i + "@test.com").build());
+        }
+        long preparedBefore = statistics.getPrepareStatementCount();
+
+        List<User> saved = userRepository.saveAll(users);
+
+        assertThat(saved).allMatch(user -> user.getId() != null);
+        assertThat(statistics.getPrepareStatementCount() - preparedBefore).isLessThan(20);
+    }
+}
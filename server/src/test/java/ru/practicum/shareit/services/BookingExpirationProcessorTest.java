@@ -0,0 +1,53 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingExpirationProcessor;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "shareit.booking.expiration.batch-size=2")
+public class BookingExpirationProcessorTest {
+    @Autowired
+    private BookingExpirationProcessor processor;
+
+    @MockBean
+    private BookingRepository bookingRepository;
+
+    @Test
+    void testExpireStaleBookings_ShouldExpireInBatches_WhenWaitingBookingsExist() {
+        when(bookingRepository.findIdsByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any()))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(bookingRepository.updateBookingStatusByIdsAndStatus(any(), any(), any()))
+                .thenReturn(2)
+                .thenReturn(1);
+
+        processor.expireStaleBookings();
+
+        verify(bookingRepository, times(2)).findIdsByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any());
+        verify(bookingRepository, times(1)).updateBookingStatusByIdsAndStatus(List.of(1L, 2L),
+                BookingStatus.WAITING, BookingStatus.EXPIRED);
+        verify(bookingRepository, times(1)).updateBookingStatusByIdsAndStatus(List.of(3L),
+                BookingStatus.WAITING, BookingStatus.EXPIRED);
+        verify(bookingRepository, times(1)).countByStatusAndStartBefore(eq(BookingStatus.WAITING), any());
+    }
+
+    @Test
+    void testExpireStaleBookings_ShouldNotUpdate_WhenNoWaitingBookings() {
+        when(bookingRepository.findIdsByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any()))
+                .thenReturn(List.of());
+
+        processor.expireStaleBookings();
+
+        verify(bookingRepository, never()).updateBookingStatusByIdsAndStatus(any(), any(), any());
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import ru.practicum.shareit.booking.dto.BookingDtoPartial;
+import ru.practicum.shareit.booking.dto.BookingIntakeDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingIntakeStatus;
+import ru.practicum.shareit.booking.service.BookingIntakeService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "shareit.booking.intake.enabled=true")
+public class BookingIntakeServiceTest {
+    @Autowired
+    private BookingIntakeService bookingIntakeService;
+    @MockBean
+    private BookingRepository bookingRepository;
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private ItemRepository itemRepository;
+
+    private final User booker = User.builder()
+            .id(2L)
+            .name("booker")
+            .email("booker@test.ru")
+            .build();
+
+    private final Item item = Item.builder()
+            .id(1L)
+            .name("test")
+            .description("test")
+            .owner(1L)
+            .available(Boolean.TRUE)
+            .build();
+
+    @Test
+    void testSubmit_ShouldReturnError_WhenDatesInvalid() {
+        BookingDtoPartial booking = BookingDtoPartial.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(2))
+                .end(LocalDateTime.now().plusDays(1))
+                .build();
+
+        assertThrows(ValidationException.class, () -> bookingIntakeService.submit(booking, 2L));
+    }
+
+    @Test
+    void testSubmit_ShouldCreateBookingInBatch_WhenBookingOk() throws InterruptedException {
+        BookingDtoPartial booking = BookingDtoPartial.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+
+        when(userRepository.findAllById(any()))
+                .thenReturn(List.of(booker));
+        when(itemRepository.findAllWithActiveOwnerByIds(any()))
+                .thenReturn(List.of(item));
+        when(bookingRepository.saveAll(any()))
+                .thenAnswer(invocation -> {
+                    List<Booking> bookings = invocation.getArgument(0);
+                    long id = 10;
+                    for (Booking b : bookings) {
+                        b.setId(id++);
+                    }
+                    return bookings;
+                });
+
+        BookingIntakeDto queued = bookingIntakeService.submit(booking, 2L);
+        assertThat(queued.getStatus()).isEqualTo(BookingIntakeStatus.QUEUED);
+
+        BookingIntakeDto result = awaitCompletion(queued.getIntakeId(), 2L);
+
+        assertThat(result.getStatus()).isEqualTo(BookingIntakeStatus.CREATED);
+        assertThat(result.getBookingId()).isEqualTo(10L);
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void testSubmit_ShouldFail_WhenOwnerBooksOwnItem() throws InterruptedException {
+        BookingDtoPartial booking = BookingDtoPartial.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+        User owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@test.ru")
+                .build();
+
+        when(userRepository.findAllById(any()))
+                .thenReturn(List.of(owner));
+        when(itemRepository.findAllWithActiveOwnerByIds(any()))
+                .thenReturn(List.of(item));
+        when(bookingRepository.saveAll(any()))
+                .thenReturn(List.of());
+
+        BookingIntakeDto result = awaitCompletion(bookingIntakeService.submit(booking, 1L).getIntakeId(), 1L);
+
+        assertThat(result.getStatus()).isEqualTo(BookingIntakeStatus.FAILED);
+        assertThat(result.getError()).isEqualTo("Владелец вещи не может ее бронировать.");
+    }
+
+    @Test
+    void testGetIntake_ShouldReturnError_WhenAnotherUser() {
+        BookingDtoPartial booking = BookingDtoPartial.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+
+        String intakeId = bookingIntakeService.submit(booking, 2L).getIntakeId();
+
+        assertThrows(NotFoundException.class, () -> bookingIntakeService.getIntake(intakeId, 3L));
+    }
+
+    private BookingIntakeDto awaitCompletion(String intakeId, Long userId) throws InterruptedException {
+        BookingIntakeDto result = bookingIntakeService.getIntake(intakeId, userId);
+        for (int i = 0; i < 50 && result.getStatus() == BookingIntakeStatus.QUEUED; i++) {
+            Thread.sleep(100);
+            result = bookingIntakeService.getIntake(intakeId, userId);
+        }
+        return result;
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoBulkResult;
 import ru.practicum.shareit.booking.dto.BookingDtoPartial;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -22,6 +23,7 @@ import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -149,7 +151,7 @@ public class BookingServiceTest {
         assertThrows(NotFoundException.class,
                 () -> bookingService.addBooking(bookingRequestDTO, user.getId()));
 
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(2)).findById(anyLong());
         verify(itemRepository, times(1)).findById(anyLong());
     }
 
@@ -185,7 +187,7 @@ public class BookingServiceTest {
         assertThrows(ValidationException.class,
                 () -> bookingService.addBooking(bookingRequestDTO, user.getId()));
 
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(2)).findById(anyLong());
         verify(itemRepository, times(1)).findById(anyLong());
     }
 
@@ -238,11 +240,57 @@ public class BookingServiceTest {
         assertThat(result.getItem()).isNotNull();
         assertThat(result.getBooker()).isNotNull();
 
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(2)).findById(anyLong());
         verify(itemRepository, times(1)).findById(anyLong());
         verify(bookingRepository, times(1)).save(any());
     }
 
+    @Test
+    void testAddBooking_ShouldSaveItemOwner_WhenBookingOk() {
+        LocalDateTime date = LocalDateTime.now();
+
+        BookingDtoPartial bookingRequestDTO = BookingDtoPartial.builder()
+                .itemId(1L)
+                .start(date)
+                .end(date.plusDays(1))
+                .build();
+
+        User user = User.builder()
+                .id(2L)
+                .name("name")
+                .email("test@test.ru")
+                .build();
+
+        Item item = Item.builder()
+                .id(1L)
+                .name("test")
+                .description("test")
+                .owner(1L)
+                .available(Boolean.TRUE)
+                .build();
+
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(date)
+                .end(date.plusDays(1))
+                .item(item)
+                .booker(user)
+                .ownerId(item.getOwner())
+                .status(BookingStatus.WAITING)
+                .build();
+
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.save(any()))
+                .thenReturn(booking);
+
+        bookingService.addBooking(bookingRequestDTO, user.getId());
+
+        verify(bookingRepository, times(1)).save(argThat(b -> item.getOwner().equals(b.getOwnerId())));
+    }
+
     @Test
     void testUpdateBooking_ShouldReturnError_WhenBookingNotFound() {
         when(bookingRepository.findById(anyLong()))
@@ -279,6 +327,8 @@ public class BookingServiceTest {
                 .status(BookingStatus.APPROVED)
                 .build();
 
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
@@ -313,6 +363,8 @@ public class BookingServiceTest {
                 .status(BookingStatus.WAITING)
                 .build();
 
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
@@ -329,6 +381,132 @@ public class BookingServiceTest {
         verify(bookingRepository, times(1)).updateBookingStatusById(anyLong(), any());
     }
 
+    @Test
+    void testUpdateBookings_ShouldReturnResultPerId_WhenSomeBookingsInvalid() {
+        User owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@test.ru")
+                .build();
+
+        User booker = User.builder()
+                .id(2L)
+                .name("booker")
+                .email("booker@test.ru")
+                .build();
+
+        Item item = Item.builder()
+                .id(1L)
+                .name("test")
+                .description("test")
+                .owner(owner.getId())
+                .available(Boolean.TRUE)
+                .build();
+
+        Item itemAnother = Item.builder()
+                .id(2L)
+                .name("test")
+                .description("test")
+                .owner(booker.getId())
+                .available(Boolean.TRUE)
+                .build();
+
+        Booking waiting = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build();
+
+        Booking approved = Booking.builder()
+                .id(2L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        Booking notOwned = Booking.builder()
+                .id(3L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(itemAnother)
+                .booker(owner)
+                .status(BookingStatus.WAITING)
+                .build();
+
+        when(bookingRepository.findAllByIdInWithItem(any()))
+                .thenReturn(List.of(waiting, approved, notOwned));
+
+        List<BookingDtoBulkResult> result = bookingService.updateBookings(List.of(1L, 2L, 3L, 4L, 1L),
+                owner.getId(), Boolean.TRUE);
+
+        assertThat(result).hasSize(4);
+        assertThat(result.get(0).getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(result.get(0).getError()).isNull();
+        assertThat(result.get(1).getError()).isNotNull();
+        assertThat(result.get(2).getError()).isNotNull();
+        assertThat(result.get(2).getStatus()).isNull();
+        assertThat(result.get(3).getError()).isNotNull();
+
+        verify(bookingRepository, times(1)).findAllByIdInWithItem(any());
+        verify(bookingRepository, times(1)).updateBookingStatusByIds(eq(List.of(1L)), eq(BookingStatus.APPROVED));
+        verify(itemRepository, times(1)).updateItemsAvailableByIds(eq(Set.of(1L)), eq(true));
+    }
+
+    @Test
+    void testUpdateBookings_ShouldNotUpdate_WhenNoBookingsValid() {
+        when(bookingRepository.findAllByIdInWithItem(any()))
+                .thenReturn(List.of());
+
+        List<BookingDtoBulkResult> result = bookingService.updateBookings(List.of(1L, 2L), 1L, Boolean.FALSE);
+
+        assertThat(result).hasSize(2);
+        assertThat(result).allMatch(r -> r.getError() != null);
+
+        verify(bookingRepository, never()).updateBookingStatusByIds(any(), any());
+        verify(itemRepository, never()).updateItemsAvailableByIds(any(), any());
+    }
+
+    @Test
+    void testUpdateBooking_ShouldReturnError_WhenBookingExpired() {
+        User user = User.builder()
+                .id(1L)
+                .name("name")
+                .email("test@test.ru")
+                .build();
+
+        Item item = Item.builder()
+                .id(1L)
+                .name("test")
+                .description("test")
+                .owner(1L)
+                .available(Boolean.TRUE)
+                .build();
+
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(item)
+                .booker(user)
+                .status(BookingStatus.EXPIRED)
+                .build();
+
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.updateBooking(1L, 1L, Boolean.TRUE));
+
+        verify(bookingRepository, never()).updateBookingStatusById(anyLong(), any());
+    }
+
     @Test
     void testGetBookingById_ShouldReturnError_WhenUserNotFound() {
         when(userRepository.findById(anyLong()))
@@ -395,7 +573,7 @@ public class BookingServiceTest {
         assertThat(result.getItem()).isNotNull();
         assertThat(result.getBooker()).isNotNull();
 
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(3)).findById(anyLong());
         verify(bookingRepository, times(1)).findById(anyLong());
     }
 
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+import ru.practicum.shareit.changes.service.ChangesService;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxDispatcher;
+import ru.practicum.shareit.outbox.storage.OutboxRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestPartial;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserPurgeProcessor;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class ChangesServiceTest {
+    @Autowired
+    private ChangesService changesService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private UserPurgeProcessor userPurgeProcessor;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Test
+    void testGetChanges_ShouldReturnChangesAfterCursorRelevantToUser() {
+        outboxDispatcher.dispatchPending();
+        long cursor = outboxRepository.findMaxChangeSeq();
+
+        UserDto owner = userService.addUser(UserDto.builder().name("owner").email(UUID.randomUUID() + "@test.com").build());
+        UserDto other = userService.addUser(UserDto.builder().name("other").email(UUID.randomUUID() + "@test.com").build());
+        ItemDto item = itemService.addItem(ItemDto.builder().name("Дрель").description("Ударная").available(true).build(),
+                owner.getId());
+        itemService.addItem(ItemDto.builder().name("Палатка").description("Двухместная").available(true).build(),
+                other.getId());
+        ItemRequestDto request = itemRequestService.addRequest(ItemRequestPartial.builder().description("Нужен велосипед").build(),
+                other.getId());
+        outboxDispatcher.dispatchPending();
+
+        ChangesDto changes = changesService.getChanges(owner.getId(), cursor, 100);
+
+        assertThat(changes.isHasMore()).isFalse();
+        assertThat(changes.getCursor()).isGreaterThan(cursor);
+        assertThat(changes.getUsers()).extracting(UserDto::getId).containsExactly(owner.getId());
+        assertThat(changes.getItems()).extracting(ItemDto::getId).containsExactly(item.getId());
+        assertThat(changes.getRequests()).extracting(ItemRequestDto::getId).containsExactly(request.getId());
+
+        ChangesDto next = changesService.getChanges(owner.getId(), changes.getCursor(), 100);
+
+        assertThat(next.getCursor()).isEqualTo(changes.getCursor());
+        assertThat(next.getUsers()).isEmpty();
+        assertThat(next.getItems()).isEmpty();
+        assertThat(next.getRequests()).isEmpty();
+    }
+
+    @Test
+    void testGetChanges_ShouldReturnTombstones_WhenOwnerPurged() {
+        UserDto owner = userService.addUser(UserDto.builder().name("owner").email(UUID.randomUUID() + "@test.com").build());
+        UserDto other = userService.addUser(UserDto.builder().name("other").email(UUID.randomUUID() + "@test.com").build());
+        ItemDto item = itemService.addItem(ItemDto.builder().name("Дрель").description("Ударная").available(true).build(),
+                owner.getId());
+        ItemRequestDto request = itemRequestService.addRequest(ItemRequestPartial.builder().description("Нужен велосипед").build(),
+                owner.getId());
+        User otherEntity = userRepository.findById(other.getId()).orElseThrow();
+        Booking booking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(itemRepository.findById(item.getId()).orElseThrow())
+                .booker(otherEntity)
+                .ownerId(owner.getId())
+                .status(BookingStatus.APPROVED)
+                .build());
+        Comment comment = commentRepository.save(Comment.builder()
+                .text("Хорошая дрель")
+                .item(itemRepository.findById(item.getId()).orElseThrow())
+                .author(otherEntity)
+                .build());
+        outboxDispatcher.dispatchPending();
+        long cursor = outboxRepository.findMaxChangeSeq();
+
+        userService.deleteUser(owner.getId());
+        // За один запуск очищается ограниченное число пачек, а удаленные пользователи могли остаться от других тестов.
+        for (int i = 0; i < 100 && userRepository.countDeleted() > 0; i++) {
+            userPurgeProcessor.purgeDeletedUsers();
+        }
+        outboxDispatcher.dispatchPending();
+
+        ChangesDto changes = changesService.getChanges(other.getId(), cursor, 100);
+
+        assertThat(changes.getDeleted().getBookings()).containsExactly(booking.getId());
+        assertThat(changes.getDeleted().getComments()).containsExactly(comment.getId());
+        assertThat(changes.getDeleted().getRequests()).contains(request.getId());
+        assertThat(changes.getDeleted().getItems()).isEmpty();
+        assertThat(changes.getBookings()).isEmpty();
+        assertThat(outboxRepository.findAll()).anyMatch(event -> event.getType() == OutboxEventType.ITEM_DELETED
+                && item.getId().equals(event.getAggregateId()) && owner.getId().equals(event.getOwnerId()));
+    }
+
+    @Test
+    void testGetChanges_ShouldRequestReset_WhenCursorOlderThanHistory() {
+        UserDto owner = userService.addUser(UserDto.builder().name("owner").email(UUID.randomUUID() + "@test.com").build());
+        long cursor = outboxRepository.findMaxChangeSeq();
+        itemService.addItem(ItemDto.builder().name("Дрель").description("Ударная").available(true).build(), owner.getId());
+        itemService.addItem(ItemDto.builder().name("Пила").description("Ручная").available(true).build(), owner.getId());
+        outboxDispatcher.dispatchPending();
+        long maxChangeSeq = outboxRepository.findMaxChangeSeq();
+        // Как после очистки по сроку хранения: остается только последнее обработанное событие.
+        outboxRepository.deleteAll(outboxRepository.findAll().stream()
+                .filter(event -> event.getChangeSeq() != null && event.getChangeSeq() < maxChangeSeq)
+                .collect(Collectors.toList()));
+
+        ChangesDto changes = changesService.getChanges(owner.getId(), cursor, 100);
+
+        assertThat(changes.isReset()).isTrue();
+        assertThat(changes.getCursor()).isEqualTo(maxChangeSeq);
+        assertThat(changes.getItems()).isEmpty();
+        assertThat(changesService.getChanges(owner.getId(), maxChangeSeq, 100).isReset()).isFalse();
+    }
+
+    @Test
+    void testGetChanges_ShouldReturnError_WhenLimitInvalid() {
+        assertThrows(ValidationException.class, () -> changesService.getChanges(1L, 0, 0));
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.projection.CommentEligibilityIndex;
+import ru.practicum.shareit.item.projection.FinishedBooking;
+import ru.practicum.shareit.outbox.dto.BookingEvent;
+import ru.practicum.shareit.outbox.dto.UserEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CommentEligibilityIndexTest {
+    private static final int BATCH_SIZE = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private BookingRepository bookingRepository;
+    private CommentEligibilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new CommentEligibilityIndex(bookingRepository, mock(PlatformTransactionManager.class), objectMapper,
+                new SimpleMeterRegistry(), true, BATCH_SIZE);
+    }
+
+    @Test
+    void testIsEligible_ShouldQueryDatabase_WhenIndexNotBuilt() {
+        when(bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(eq(5L), eq(1L),
+                eq(BookingStatus.APPROVED), any())).thenReturn(true);
+
+        assertThat(index.isEligible(1L, 5L)).isTrue();
+        assertThat(index.isEligible(2L, 5L)).isFalse();
+    }
+
+    @Test
+    void testIsEligible_ShouldAnswerFromIndex_AfterRebuild() {
+        List<FinishedBooking> first = new ArrayList<>();
+        List<FinishedBooking> second = new ArrayList<>();
+        for (long id = 1; id <= 2 * BATCH_SIZE; id++) {
+            (id <= BATCH_SIZE ? first : second).add(new FinishedBooking(id, id, id % 7 + 1));
+        }
+        when(bookingRepository.findFinishedAfterId(eq(BookingStatus.APPROVED), any(), eq(0L), any())).thenReturn(first);
+        when(bookingRepository.findFinishedAfterId(eq(BookingStatus.APPROVED), any(), eq((long) BATCH_SIZE), any()))
+                .thenReturn(second);
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        for (long id = 1; id <= 2 * BATCH_SIZE; id++) {
+            assertThat(index.isEligible(id, id % 7 + 1)).isTrue();
+        }
+        assertThat(index.isEligible(1L, 3L)).isFalse();
+        verify(bookingRepository, never()).existsByItemIdAndBookerIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any());
+        verify(bookingRepository, times(1)).existsByItemIdAndBookerIdAndStatusAndEndBetween(eq(3L), eq(1L),
+                eq(BookingStatus.APPROVED), any(), any());
+    }
+
+    @Test
+    void testIsEligible_ShouldRememberBookingFinishedAfterWatermark() {
+        index.rebuild();
+        when(bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBetween(eq(5L), eq(1L),
+                eq(BookingStatus.APPROVED), any(), any())).thenReturn(true);
+
+        assertThat(index.isEligible(1L, 5L)).isTrue();
+        assertThat(index.isEligible(1L, 5L)).isTrue();
+
+        verify(bookingRepository, times(1)).existsByItemIdAndBookerIdAndStatusAndEndBetween(anyLong(), anyLong(),
+                any(), any(), any());
+    }
+
+    @Test
+    void testRefresh_ShouldAddBookingsFinishedSinceWatermark() {
+        index.rebuild();
+        when(bookingRepository.findFinishedBetween(eq(BookingStatus.APPROVED), any(), any(), eq(0L), any()))
+                .thenReturn(List.of(new FinishedBooking(10L, 1L, 5L)));
+
+        index.refresh();
+
+        assertThat(index.isEligible(1L, 5L)).isTrue();
+        verify(bookingRepository, never()).existsByItemIdAndBookerIdAndStatusAndEndBetween(anyLong(), anyLong(),
+                any(), any(), any());
+    }
+
+    @Test
+    void testHandle_ShouldTrackApprovalAndRejectionOfFinishedBooking() throws Exception {
+        index.rebuild();
+
+        index.handle(bookingEvent(OutboxEventType.BOOKING_APPROVED, LocalDateTime.now().minusDays(1)));
+        assertThat(index.isEligible(1L, 5L)).isTrue();
+
+        index.handle(bookingEvent(OutboxEventType.BOOKING_REJECTED, LocalDateTime.now().minusDays(1)));
+        assertThat(index.isEligible(1L, 5L)).isFalse();
+    }
+
+    @Test
+    void testHandle_ShouldIgnoreApprovalOfBookingNotYetFinished() throws Exception {
+        index.rebuild();
+
+        index.handle(bookingEvent(OutboxEventType.BOOKING_APPROVED, LocalDateTime.now().plusDays(1)));
+
+        assertThat(index.isEligible(1L, 5L)).isFalse();
+    }
+
+    @Test
+    void testHandle_ShouldDropPairsOfPurgedBooker() throws Exception {
+        when(bookingRepository.findFinishedAfterId(eq(BookingStatus.APPROVED), any(), eq(0L), any()))
+                .thenReturn(List.of(new FinishedBooking(1L, 1L, 5L), new FinishedBooking(2L, 1L, 6L),
+                        new FinishedBooking(3L, 2L, 5L)));
+        index.rebuild();
+
+        index.handle(OutboxEvent.builder()
+                .id(1L)
+                .type(OutboxEventType.USER_PURGED)
+                .payload(objectMapper.writeValueAsString(UserEvent.builder().userId(1L).build()))
+                .build());
+
+        assertThat(index.isEligible(1L, 5L)).isFalse();
+        assertThat(index.isEligible(1L, 6L)).isFalse();
+        assertThat(index.isEligible(2L, 5L)).isTrue();
+    }
+
+    private OutboxEvent bookingEvent(OutboxEventType type, LocalDateTime end) throws Exception {
+        BookingEvent event = BookingEvent.builder()
+                .bookingId(1L)
+                .itemId(5L)
+                .ownerId(3L)
+                .bookerId(1L)
+                .start(end.minusDays(1))
+                .end(end)
+                .status(type == OutboxEventType.BOOKING_APPROVED ? BookingStatus.APPROVED : BookingStatus.REJECTED)
+                .build();
+        return OutboxEvent.builder()
+                .id(1L)
+                .type(type)
+                .aggregateId(1L)
+                .payload(objectMapper.writeValueAsString(event))
+                .build();
+    }
+}
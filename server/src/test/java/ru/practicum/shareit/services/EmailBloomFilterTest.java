@@ -0,0 +1,64 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.user.service.EmailBloomFilter;
+import ru.practicum.shareit.user.storage.UserEmail;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EmailBloomFilterTest {
+    @Test
+    void testMightContain_ShouldFindLoadedAndAddedEmails() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(userEmail(1L, "first@test.com"), userEmail(2L, "second@test.com")));
+        EmailBloomFilter filter = new EmailBloomFilter(userRepository, mock(PlatformTransactionManager.class),
+                true, 1000, 0.01, 2);
+
+        filter.afterSingletonsInstantiated();
+        filter.putAfterCommit("third@test.com");
+
+        assertThat(filter.mightContain("first@test.com")).isTrue();
+        assertThat(filter.mightContain("second@test.com")).isTrue();
+        assertThat(filter.mightContain("third@test.com")).isTrue();
+    }
+
+    @Test
+    void testMightContain_ShouldRarelyAnswerYes_ForUnknownEmails() {
+        EmailBloomFilter filter = new EmailBloomFilter(mock(UserRepository.class), mock(PlatformTransactionManager.class),
+                true, 1000, 0.01, 1000);
+        IntStream.range(0, 1000).forEach(i -> filter.putAfterCommit("user" + i + "@test.com"));
+
+        long falsePositives = IntStream.range(1000, 11000)
+                .filter(i -> filter.mightContain("user" + i + "@test.com"))
+                .count();
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void testMightContain_ShouldAlwaysAnswerNo_WhenDisabled() {
+        EmailBloomFilter filter = new EmailBloomFilter(mock(UserRepository.class), mock(PlatformTransactionManager.class),
+                false, 1000, 0.01, 1000);
+        filter.putAfterCommit("user@test.com");
+
+        assertThat(filter.mightContain("user@test.com")).isFalse();
+    }
+
+    private static UserEmail userEmail(Long id, String email) {
+        UserEmail userEmail = mock(UserEmail.class);
+        when(userEmail.getId()).thenReturn(id);
+        when(userEmail.getEmailNormalized()).thenReturn(email);
+        return userEmail;
+    }
+}
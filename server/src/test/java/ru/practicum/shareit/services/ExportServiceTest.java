@@ -0,0 +1,104 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.export.model.ExportFormat;
+import ru.practicum.shareit.export.service.ExportService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class ExportServiceTest {
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@test.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email(UUID.randomUUID() + "@test.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная, с кейсом")
+                .available(true)
+                .owner(owner.getId())
+                .build());
+        for (int i = 1; i <= 3; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.now().plusDays(i))
+                    .end(LocalDateTime.now().plusDays(i + 1))
+                    .item(item)
+                    .booker(booker)
+                    .ownerId(owner.getId())
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+    }
+
+    @Test
+    void testExportOwnerBookings_ShouldWriteCsvWithHeader() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportOwnerBookings(owner.getId(), ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(3);
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).isEqualTo("id,start,end,status,itemId,itemName,bookerId");
+        assertThat(lines[1]).contains(",WAITING," + item.getId() + ",Дрель,");
+    }
+
+    @Test
+    void testExportOwnerItems_ShouldWriteNdjson() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportOwnerItems(owner.getId(), ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(1);
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).isEqualTo("{\"id\":" + item.getId() + ",\"name\":\"Дрель\"," +
+                "\"description\":\"Ударная, с кейсом\",\"available\":true,\"requestId\":null}");
+    }
+
+    @Test
+    void testExportUsers_ShouldWriteNdjsonOrderedById() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportUsers(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(lines.length).isGreaterThanOrEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .contains("{\"id\":" + owner.getId() + ",\"name\":\"owner\",\"email\":\"" + owner.getEmail() + "\"}");
+    }
+
+    @Test
+    void testCheckUser_ShouldReturnError_WhenUserNotFound() {
+        assertThrows(NotFoundException.class, () -> exportService.checkUser(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.feed.model.FeedEvent;
+import ru.practicum.shareit.feed.model.FeedEventType;
+import ru.practicum.shareit.feed.service.FeedEventBus;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FeedEventBusTest {
+    private SimpleMeterRegistry meterRegistry;
+    private FeedEventBus feedEventBus;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        feedEventBus = new FeedEventBus(meterRegistry, 2, Duration.ofMinutes(1), 1, Duration.ofSeconds(10));
+        feedEventBus.subscribe(1L);
+        // Без потоков доставки события остаются в буфере подписчика, как у клиента, который не читает поток.
+        feedEventBus.shutdown();
+    }
+
+    @Test
+    void testPublish_ShouldEvictSubscriber_WhenBufferOverflows() {
+        for (int i = 0; i < 3; i++) {
+            feedEventBus.publishAfterCommit(FeedEvent.toUsers(FeedEventType.BOOKING_STATUS_CHANGED, "booking", 1L, 2L));
+        }
+
+        assertThat(feedEventBus.getSubscriberCount()).isZero();
+        assertThat(meterRegistry.get("shareit.feed.evicted").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testPublish_ShouldSkipAuthorAndOtherUsers() {
+        for (int i = 0; i < 3; i++) {
+            feedEventBus.publishAfterCommit(FeedEvent.toAllExcept(FeedEventType.REQUEST_CREATED, "request", 1L));
+            feedEventBus.publishAfterCommit(FeedEvent.toUsers(FeedEventType.BOOKING_STATUS_CHANGED, "booking", 2L));
+        }
+
+        assertThat(feedEventBus.getSubscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.feed.evicted").counter().count()).isZero();
+    }
+}
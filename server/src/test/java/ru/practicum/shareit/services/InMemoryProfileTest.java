@@ -0,0 +1,84 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoExtra;
+import ru.practicum.shareit.item.service.ItemInMemoryService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserInMemoryService;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("memory")
+public class InMemoryProfileTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @DynamicPropertySource
+    static void journalDir(DynamicPropertyRegistry registry) throws Exception {
+        String dir = Files.createTempDirectory("shareit-journal").toString();
+        registry.add("shareit.storage.journal.dir", () -> dir);
+    }
+
+    @Test
+    void testServices_ShouldBeBackedByMemoryStorages() {
+        assertThat(userService).isInstanceOf(UserInMemoryService.class);
+        assertThat(itemService).isInstanceOf(ItemInMemoryService.class);
+    }
+
+    @Test
+    void testAddUser_ShouldRejectEmailDifferingOnlyInCase() {
+        String email = UUID.randomUUID() + "@test.com";
+        UserDto user = userService.addUser(UserDto.builder().name("user").email(email).build());
+
+        assertThrows(ConflictException.class,
+                () -> userService.addUser(UserDto.builder().name("copy").email(email.toUpperCase()).build()));
+        assertThat(userService.getUserById(user.getId()).getEmail()).isEqualTo(email);
+        assertThat(userRepository.existsById(user.getId())).isFalse();
+    }
+
+    @Test
+    void testItems_ShouldBeAddedFoundAndRemovedWithOwner_WithoutDatabase() {
+        UserDto owner = userService.addUser(UserDto.builder().name("owner").email(UUID.randomUUID() + "@test.com").build());
+        UserDto other = userService.addUser(UserDto.builder().name("other").email(UUID.randomUUID() + "@test.com").build());
+        ItemDto item = itemService.addItem(ItemDto.builder().name("Ёлочная гирлянда").description("Десять метров")
+                .available(true).build(), owner.getId());
+
+        List<ItemDto> found = itemService.searchItems("ЁЛОЧНАЯ", PageRequest.of(0, 10));
+        ItemDtoExtra viewed = itemService.getItemById(item.getId(), other.getId());
+
+        assertThat(found).extracting(ItemDto::getId).containsExactly(item.getId());
+        assertThat(viewed.getName()).isEqualTo("Ёлочная гирлянда");
+        assertThat(viewed.getCommentsCount()).isZero();
+        assertThat(itemRepository.existsById(item.getId())).isFalse();
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(item.getId(), other.getId()));
+        assertThat(itemService.searchItems("гирлянда", PageRequest.of(0, 10))).isEmpty();
+    }
+}
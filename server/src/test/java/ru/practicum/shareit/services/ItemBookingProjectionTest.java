@@ -0,0 +1,129 @@
+package ru.practicum.shareit.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.projection.ItemBookingProjection;
+import ru.practicum.shareit.item.projection.ItemBookings;
+import ru.practicum.shareit.outbox.dto.OutboxEventMapper;
+import ru.practicum.shareit.outbox.dto.UserEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemBookingProjectionTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Item item = Item.builder().id(1L).name("Дрель").owner(1L).available(true).build();
+    private BookingRepository bookingRepository;
+    private ItemBookingProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        projection = new ItemBookingProjection(bookingRepository, mock(PlatformTransactionManager.class), objectMapper, 2);
+    }
+
+    @Test
+    void testRebuild_ShouldKeepOnlyLatestFinishedAndUpcomingBookings() {
+        Booking old = booking(1L, -10, BookingStatus.APPROVED);
+        Booking recent = booking(2L, -5, BookingStatus.APPROVED);
+        Booking rejected = booking(3L, 3, BookingStatus.REJECTED);
+        Booking future = booking(4L, 5, BookingStatus.APPROVED);
+        when(bookingRepository.findAllAfterIdWithItem(eq(0L), any())).thenReturn(List.of(old, recent));
+        when(bookingRepository.findAllAfterIdWithItem(eq(2L), any())).thenReturn(List.of(rejected, future));
+        when(bookingRepository.findAllAfterIdWithItem(eq(4L), any())).thenReturn(List.of());
+
+        projection.rebuild();
+        ItemBookings bookings = projection.getBookings(1L, 1L);
+
+        assertThat(projection.isReady()).isTrue();
+        assertThat(bookings.getTotal()).isEqualTo(4);
+        assertThat(bookings.getBookings()).extracting(Booking::getId).containsExactlyInAnyOrder(2L, 4L);
+        assertThat(projection.getBookings(1L, 2L)).isEqualTo(ItemBookings.EMPTY);
+    }
+
+    @Test
+    void testHandle_ShouldCountBookingOnce_AndTrackStatus() throws Exception {
+        when(bookingRepository.findAllAfterIdWithItem(any(), any())).thenReturn(List.of());
+        projection.rebuild();
+
+        handle(OutboxEventType.BOOKING_CREATED, booking(1L, 5, BookingStatus.WAITING));
+        assertThat(projection.getBookings(1L, 1L).getBookings()).isEmpty();
+
+        handle(OutboxEventType.BOOKING_APPROVED, booking(1L, 5, BookingStatus.APPROVED));
+        ItemBookings bookings = projection.getBookings(1L, 1L);
+
+        assertThat(bookings.getTotal()).isEqualTo(1);
+        assertThat(bookings.getBookings()).extracting(Booking::getId).containsExactly(1L);
+    }
+
+    @Test
+    void testHandle_ShouldReloadItem_WhenKeptFinishedBookingRejected() throws Exception {
+        Booking old = booking(1L, -10, BookingStatus.APPROVED);
+        Booking recent = booking(2L, -5, BookingStatus.APPROVED);
+        when(bookingRepository.findAllAfterIdWithItem(eq(0L), any())).thenReturn(List.of(old, recent));
+        when(bookingRepository.findAllAfterIdWithItem(eq(2L), any())).thenReturn(List.of());
+        projection.rebuild();
+        when(bookingRepository.findAllByItemIdAndOwnerId(1L, 1L))
+                .thenReturn(List.of(old, booking(2L, -5, BookingStatus.REJECTED)));
+
+        handle(OutboxEventType.BOOKING_REJECTED, booking(2L, -5, BookingStatus.REJECTED));
+        ItemBookings bookings = projection.getBookings(1L, 1L);
+
+        assertThat(bookings.getTotal()).isEqualTo(2);
+        assertThat(bookings.getBookings()).extracting(Booking::getId).containsExactly(1L);
+    }
+
+    @Test
+    void testHandle_ShouldDropDeletedUsersItemsAndBookings_WhenUserDeleted() throws Exception {
+        Item ownItem = Item.builder().id(2L).name("Пила").owner(2L).available(true).build();
+        Booking foreign = booking(1L, 5, BookingStatus.APPROVED);
+        Booking own = Booking.builder().id(2L).start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2))
+                .item(ownItem).booker(User.builder().id(3L).build()).status(BookingStatus.APPROVED).build();
+        when(bookingRepository.findAllAfterIdWithItem(eq(0L), any())).thenReturn(List.of(foreign, own));
+        when(bookingRepository.findAllAfterIdWithItem(eq(2L), any())).thenReturn(List.of());
+        projection.rebuild();
+        when(bookingRepository.findItemIdsByBookerId(2L)).thenReturn(List.of(1L));
+        when(bookingRepository.findAllByItemIdAndOwnerId(1L, 1L)).thenReturn(List.of());
+
+        projection.handle(OutboxEvent.builder()
+                .type(OutboxEventType.USER_DELETED)
+                .payload(objectMapper.writeValueAsString(UserEvent.builder().userId(2L).build()))
+                .build());
+
+        assertThat(projection.getBookings(1L, 1L).getTotal()).isZero();
+        assertThat(projection.getBookings(2L, 2L)).isEqualTo(ItemBookings.EMPTY);
+    }
+
+    private void handle(OutboxEventType type, Booking booking) throws Exception {
+        projection.handle(OutboxEvent.builder()
+                .type(type)
+                .payload(objectMapper.writeValueAsString(OutboxEventMapper.toBookingEvent(booking)))
+                .build());
+    }
+
+    private Booking booking(Long id, int startDays, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .start(LocalDateTime.now().plusDays(startDays))
+                .end(LocalDateTime.now().plusDays(startDays + 1))
+                .item(item)
+                .booker(User.builder().id(2L).build())
+                .status(status)
+                .build();
+    }
+}
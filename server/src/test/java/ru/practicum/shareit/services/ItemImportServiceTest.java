@@ -0,0 +1,89 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.catalog.ItemSearchCatalog;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.projection.ItemBookingProjection;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "shareit.item.import.batch-size=2")
+public class ItemImportServiceTest {
+    @Autowired
+    private ItemImportService itemImportService;
+    @MockBean
+    private ItemRepository itemRepository;
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private ItemRequestRepository itemRequestRepository;
+    @MockBean
+    private ItemBookingProjection itemBookingProjection;
+    @MockBean
+    private ItemSearchCatalog itemSearchCatalog;
+
+    private final User owner = User.builder()
+            .id(1L)
+            .name("owner")
+            .email("owner@test.ru")
+            .build();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportItems_ShouldSaveValidLinesInBatches_AndReportErrors() throws Exception {
+        AtomicLong ids = new AtomicLong(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(itemRequestRepository.findAllById(any())).thenReturn(List.of());
+        when(itemRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Item> items = (List<Item>) invocation.getArgument(0);
+            items.forEach(item -> item.setId(ids.getAndIncrement()));
+            return items;
+        });
+        String body = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n" +
+                "{\"name\":\"Пила\",\n" +
+                "{\"description\":\"Без названия\",\"available\":true}\n" +
+                "{\"name\":\"Лестница\",\"description\":\"Складная\",\"available\":true,\"requestId\":99}\n" +
+                "\n" +
+                "{\"name\":\"Палатка\",\"description\":\"Двухместная\",\"available\":false}\n";
+
+        ItemImportReport report = itemImportService.importItems(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), 1L);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors().stream().map(ItemImportError::getLine).collect(Collectors.toList()))
+                .containsExactlyInAnyOrder(2L, 3L, 4L);
+        verify(itemRepository, times(2)).saveAll(any());
+    }
+
+    @Test
+    void testImportItems_ShouldReturnError_WhenUserNotFound() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemImportService.importItems(
+                new ByteArrayInputStream(new byte[0]), 1L));
+        verify(itemRepository, never()).saveAll(any());
+    }
+}
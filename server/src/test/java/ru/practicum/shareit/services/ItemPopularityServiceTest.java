@@ -0,0 +1,91 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.PopularItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityService;
+import ru.practicum.shareit.item.storage.ItemPopularityRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class ItemPopularityServiceTest {
+    @Autowired
+    private ItemPopularityService itemPopularityService;
+    @Autowired
+    private ItemPopularityRepository itemPopularityRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private Item booked;
+    private Item viewed;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@test.com").build());
+        booked = itemRepository.save(Item.builder().name("Дрель").description("Ударная").available(true)
+                .owner(owner.getId()).build());
+        viewed = itemRepository.save(Item.builder().name("Палатка").description("На двоих").available(true)
+                .owner(owner.getId()).build());
+    }
+
+    @Test
+    void testFlush_ShouldRankByBookingsThenViews() {
+        itemPopularityService.recordView(booked.getId());
+        itemPopularityService.recordBookingAfterCommit(booked.getId());
+        for (int i = 0; i < 5; i++) {
+            itemPopularityService.recordView(viewed.getId());
+        }
+
+        itemPopularityService.flush();
+
+        List<Long> ids = itemPopularityService.getPopularItems(100).stream()
+                .map(PopularItemDto::getId)
+                .filter(id -> id.equals(booked.getId()) || id.equals(viewed.getId()))
+                .collect(Collectors.toList());
+        assertThat(ids).containsExactly(booked.getId(), viewed.getId());
+        assertThat(itemPopularityRepository.findById(viewed.getId()).orElseThrow().getViews()).isEqualTo(5);
+    }
+
+    @Test
+    void testFlush_ShouldAddToExistingCounters() {
+        itemPopularityService.recordView(viewed.getId());
+        itemPopularityService.flush();
+        itemPopularityService.recordView(viewed.getId());
+        itemPopularityService.recordBookingAfterCommit(viewed.getId());
+
+        itemPopularityService.flush();
+
+        assertThat(itemPopularityRepository.findById(viewed.getId()).orElseThrow())
+                .extracting("views", "bookings")
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void testFlush_ShouldDropCountersOfMissingItem() {
+        itemPopularityService.recordView(Long.MAX_VALUE);
+
+        itemPopularityService.flush();
+
+        assertThat(itemPopularityRepository.existsById(Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void testGetPopularItems_ShouldReturnError_WhenSizeTooLarge() {
+        assertThrows(ValidationException.class, () -> itemPopularityService.getPopularItems(1000));
+    }
+}
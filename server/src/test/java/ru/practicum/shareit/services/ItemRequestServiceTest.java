@@ -6,6 +6,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.catalog.ItemSearchCatalog;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.projection.ItemBookingProjection;
+import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestPartial;
@@ -35,6 +39,15 @@ public class ItemRequestServiceTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private ItemRepository itemRepository;
+
+    @MockBean
+    private ItemBookingProjection itemBookingProjection;
+
+    @MockBean
+    private ItemSearchCatalog itemSearchCatalog;
+
     @Test
     public void testAddRequest_ShouldReturnError_WhenUserNotFound() {
         ItemRequestPartial request = ItemRequestPartial.builder()
@@ -199,4 +212,82 @@ public class ItemRequestServiceTest {
         verify(userRepository, times(1)).findById(any());
         verify(itemRequestRepository, times(1)).findAllByRequesterId(anyLong());
     }
+
+    @Test
+    public void testGetAllRequests_ShouldLoadItemsOfPageInOneQuery() {
+        User user = User.builder()
+                .id(1L)
+                .name("name")
+                .email("email@mail.ru")
+                .build();
+
+        ItemRequest first = ItemRequest.builder()
+                .id(1L)
+                .description("first")
+                .requester(user)
+                .build();
+        ItemRequest second = ItemRequest.builder()
+                .id(2L)
+                .description("second")
+                .requester(user)
+                .build();
+
+        Item drill = Item.builder()
+                .id(10L)
+                .name("drill")
+                .description("drill")
+                .available(Boolean.TRUE)
+                .owner(2L)
+                .request(first)
+                .build();
+        Item saw = Item.builder()
+                .id(11L)
+                .name("saw")
+                .description("saw")
+                .available(Boolean.TRUE)
+                .owner(2L)
+                .request(first)
+                .build();
+
+        when(itemRequestRepository.findAllByNotRequesterId(anyLong(), any()))
+                .thenReturn(List.of(first, second));
+        when(itemRepository.findAllByRequestIdInOrderByIdAsc(any()))
+                .thenReturn(List.of(drill, saw));
+
+        List<ItemRequestDto> result = itemRequestService.getAllRequests(2L, PageRequest.ofSize(10));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getItems()).hasSize(2);
+        assertThat(result.get(0).getItems().get(0).getRequestId()).isEqualTo(first.getId());
+        assertThat(result.get(1).getItems()).isEmpty();
+
+        verify(itemRepository, times(1)).findAllByRequestIdInOrderByIdAsc(List.of(1L, 2L));
+    }
+
+    @Test
+    public void testGetSuggestions_ShouldReturnError_WhenUserIsNotRequester() {
+        User requester = User.builder()
+                .id(1L)
+                .name("name")
+                .email("email@mail.ru")
+                .build();
+        User other = User.builder()
+                .id(2L)
+                .name("other")
+                .email("other@mail.ru")
+                .build();
+
+        ItemRequest itemRequest = ItemRequest.builder()
+                .id(1L)
+                .description("description")
+                .requester(requester)
+                .build();
+
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(other));
+        when(itemRequestRepository.findById(anyLong()))
+                .thenReturn(Optional.of(itemRequest));
+
+        assertThrows(NotFoundException.class, () -> itemRequestService.getSuggestions(itemRequest.getId(), other.getId()));
+    }
 }
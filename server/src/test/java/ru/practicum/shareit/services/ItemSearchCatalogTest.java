@@ -0,0 +1,133 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.catalog.ItemSearchCatalog;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchCatalogTest {
+    private ItemRepository itemRepository;
+    private ItemSearchCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        // Маленькие сегменты: уже несколько вещей раскладываются по разным сегментам.
+        catalog = new ItemSearchCatalog(itemRepository, mock(PlatformTransactionManager.class), true, 2, 64, 2);
+    }
+
+    @Test
+    void testAfterSingletonsInstantiated_ShouldLoadItemsInBatches() {
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(List.of(item(1L, "Дрель", true), item(2L, "Дрель", true)));
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(eq(2L), any()))
+                .thenReturn(List.of(item(3L, "Дрель", true)));
+
+        catalog.afterSingletonsInstantiated();
+
+        assertThat(catalog.isReady()).isTrue();
+        assertThat(catalog.search("дрель", PageRequest.of(0, 10))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void testSearch_ShouldPageAcrossSegments() {
+        for (long id = 1; id <= 5; id++) {
+            catalog.upsertAfterCommit(item(id, "Дрель " + id, true));
+        }
+
+        assertThat(catalog.search("дрель", PageRequest.of(0, 2))).containsExactly(1L, 2L);
+        assertThat(catalog.search("дрель", PageRequest.of(1, 2))).containsExactly(3L, 4L);
+        assertThat(catalog.search("дрель", PageRequest.of(2, 2))).containsExactly(5L);
+        assertThat(catalog.search("дрель", PageRequest.of(3, 2))).isEmpty();
+    }
+
+    @Test
+    void testSearch_ShouldMatchFoldedUtf8() {
+        catalog.upsertAfterCommit(item(1L, "Ёлочная ГИРЛЯНДА", true));
+        catalog.upsertAfterCommit(item(2L, "Кофе для CAFÉ", true));
+
+        assertThat(catalog.search("гирлянда", PageRequest.of(0, 10))).containsExactly(1L);
+        assertThat(catalog.search("ЁЛОЧ", PageRequest.of(0, 10))).containsExactly(1L);
+        assertThat(catalog.search("елоч", PageRequest.of(0, 10))).isEmpty();
+        assertThat(catalog.search("café", PageRequest.of(0, 10))).containsExactly(2L);
+        assertThat(catalog.search("cafe", PageRequest.of(0, 10))).isEmpty();
+        assertThat(catalog.search("гир\0", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void testUpsert_ShouldReplacePreviousText() {
+        catalog.upsertAfterCommit(item(1L, "Дрель", true));
+
+        catalog.upsertAfterCommit(item(1L, "Палатка", true));
+
+        assertThat(catalog.search("дрель", PageRequest.of(0, 10))).isEmpty();
+        assertThat(catalog.search("палатка", PageRequest.of(0, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void testSetAvailableAndRemove_ShouldHideItems() {
+        catalog.upsertAfterCommit(item(1L, "Дрель", true));
+        catalog.upsertAfterCommit(item(2L, "Дрель", true));
+        catalog.upsertAfterCommit(item(3L, "Дрель", false));
+
+        catalog.setAvailableAfterCommit(List.of(1L), false);
+        catalog.setAvailableAfterCommit(List.of(3L), true);
+        catalog.removeAfterCommit(List.of(2L));
+
+        assertThat(catalog.search("дрель", PageRequest.of(0, 10))).containsExactly(3L);
+    }
+
+    @Test
+    void testCompaction_ShouldKeepLiveRowsAddressable() {
+        catalog.upsertAfterCommit(item(1L, "Дрель", true));
+        catalog.upsertAfterCommit(item(2L, "Пила", true));
+        catalog.upsertAfterCommit(item(3L, "Палатка", true));
+        // Каждое обновление оставляет мертвую строку; когда их больше, чем живых, каталог уплотняется.
+        for (int i = 0; i < 10; i++) {
+            catalog.upsertAfterCommit(item(1L, "Дрель " + i, true));
+        }
+
+        assertThat(catalog.search("дрель", PageRequest.of(0, 10))).containsExactly(1L);
+        assertThat(catalog.search("дрель 9", PageRequest.of(0, 10))).containsExactly(1L);
+        assertThat(catalog.search("дрель 8", PageRequest.of(0, 10))).isEmpty();
+
+        catalog.setAvailableAfterCommit(List.of(2L), false);
+        catalog.removeAfterCommit(List.of(3L));
+
+        assertThat(catalog.search("пила", PageRequest.of(0, 10))).isEmpty();
+        assertThat(catalog.search("палатка", PageRequest.of(0, 10))).isEmpty();
+        assertThat(catalog.search("", PageRequest.of(0, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void testSearch_ShouldReturnNothing_WhenDisabled() {
+        ItemSearchCatalog disabled = new ItemSearchCatalog(itemRepository, mock(PlatformTransactionManager.class),
+                false, 2, 64, 2);
+
+        disabled.afterSingletonsInstantiated();
+        disabled.upsertAfterCommit(item(1L, "Дрель", true));
+
+        assertThat(disabled.isReady()).isFalse();
+        assertThat(disabled.search("дрель", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    private static Item item(Long id, String name, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description("Описание")
+                .available(available)
+                .build();
+    }
+}
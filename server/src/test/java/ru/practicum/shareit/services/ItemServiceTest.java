@@ -4,14 +4,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.catalog.ItemSearchCatalog;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityService;
+import ru.practicum.shareit.item.projection.CommentEligibilityIndex;
+import ru.practicum.shareit.item.projection.ItemBookingProjection;
+import ru.practicum.shareit.item.projection.ItemBookings;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
@@ -21,7 +27,6 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +34,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -45,6 +51,14 @@ public class ItemServiceTest {
     private BookingRepository bookingRepository;
     @MockBean
     private ItemRequestRepository itemRequestRepository;
+    @MockBean
+    private ItemBookingProjection itemBookingProjection;
+    @MockBean
+    private ItemSearchCatalog itemSearchCatalog;
+    @MockBean
+    private CommentEligibilityIndex commentEligibilityIndex;
+    @MockBean
+    private ItemPopularityService itemPopularityService;
 
     @Test
     void testAddItem_ShouldReturnError_WhenOwnerNotFound() {
@@ -223,7 +237,7 @@ public class ItemServiceTest {
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findAllByItemIdAndOwnerId(anyLong(), anyLong()))
                 .thenReturn(List.of(booking));
-        when(commentRepository.findAllByItemId(anyLong()))
+        when(commentRepository.findNewestByItemId(anyLong(), any()))
                 .thenReturn(List.of(comment));
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
@@ -244,7 +258,8 @@ public class ItemServiceTest {
 
         verify(itemRepository, times(1)).findById(anyLong());
         verify(bookingRepository, times(1)).findAllByItemIdAndOwnerId(anyLong(), anyLong());
-        verify(commentRepository, times(1)).findAllByItemId(anyLong());
+        verify(commentRepository, times(1)).findNewestByItemId(anyLong(), any());
+        verify(itemPopularityService, never()).recordView(anyLong());
     }
 
     @Test
@@ -292,7 +307,7 @@ public class ItemServiceTest {
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findAllByItemIdAndOwnerId(anyLong(), anyLong()))
                 .thenReturn(List.of(booking1, booking2));
-        when(commentRepository.findAllByItemId(anyLong()))
+        when(commentRepository.findNewestByItemId(anyLong(), any()))
                 .thenReturn(List.of(comment));
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
@@ -313,7 +328,55 @@ public class ItemServiceTest {
 
         verify(itemRepository, times(1)).findById(anyLong());
         verify(bookingRepository, times(1)).findAllByItemIdAndOwnerId(anyLong(), anyLong());
-        verify(commentRepository, times(1)).findAllByItemId(anyLong());
+        verify(commentRepository, times(1)).findNewestByItemId(anyLong(), any());
+    }
+
+    @Test
+    void testGetItemById_ShouldReadBookingsFromProjection_WhenProjectionReady() {
+        User user = User.builder()
+                .id(1L)
+                .name("name")
+                .email("test@test.ru")
+                .build();
+
+        Item item = Item.builder()
+                .id(1L)
+                .name("test")
+                .description("test")
+                .owner(user.getId())
+                .available(Boolean.TRUE)
+                .build();
+
+        Booking lastBooking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .booker(User.builder().id(2L).build())
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        Booking nextBooking = Booking.builder()
+                .id(2L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .booker(User.builder().id(2L).build())
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(itemBookingProjection.isReady())
+                .thenReturn(true);
+        when(itemBookingProjection.getBookings(1L, 1L))
+                .thenReturn(new ItemBookings(2, List.of(lastBooking, nextBooking)));
+
+        ItemDtoExtra result = itemService.getItemById(1L, 1L);
+
+        assertThat(result.getLastBooking().getId()).isEqualTo(lastBooking.getId());
+        assertThat(result.getNextBooking().getId()).isEqualTo(nextBooking.getId());
+        verify(bookingRepository, never()).findAllByItemIdAndOwnerId(anyLong(), anyLong());
     }
 
     @Test
@@ -356,7 +419,7 @@ public class ItemServiceTest {
                 .thenReturn(Optional.of(item));
         when(bookingRepository.findAllByItemIdAndOwnerId(anyLong(), anyLong()))
                 .thenReturn(List.of(booking));
-        when(commentRepository.findAllByItemId(anyLong()))
+        when(commentRepository.findNewestByItemId(anyLong(), any()))
                 .thenReturn(List.of(comment));
 
         List<ItemDtoExtra> result = itemService.getAllItems(user.getId(), null);
@@ -379,7 +442,7 @@ public class ItemServiceTest {
         verify(itemRepository, times(1)).findById(anyLong());
         verify(itemRepository, times(1)).findAllByOwner(anyLong(), any());
         verify(bookingRepository, times(1)).findAllByItemIdAndOwnerId(anyLong(), anyLong());
-        verify(commentRepository, times(1)).findAllByItemId(anyLong());
+        verify(commentRepository, times(1)).findNewestByItemId(anyLong(), any());
 
     }
 
@@ -418,6 +481,36 @@ public class ItemServiceTest {
         verify(itemRepository, times(1)).searchItems(any(), any());
     }
 
+    @Test
+    void testSearchItems_ShouldReadIdsFromCatalog_WhenCatalogReady() {
+        Item first = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("test")
+                .available(Boolean.TRUE)
+                .build();
+        Item second = Item.builder()
+                .id(2L)
+                .name("test")
+                .description("Ударная дрель")
+                .available(Boolean.TRUE)
+                .build();
+
+        when(itemSearchCatalog.isReady())
+                .thenReturn(true);
+        when(itemSearchCatalog.search(eq("дрель"), any()))
+                .thenReturn(List.of(1L, 2L));
+        when(itemRepository.findAllWithActiveOwnerByIds(List.of(1L, 2L)))
+                .thenReturn(List.of(second, first));
+
+        List<ItemDto> result = itemService.searchItems("дрель", PageRequest.of(0, 10));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getId()).isEqualTo(1L);
+        assertThat(result.get(1).getId()).isEqualTo(2L);
+        verify(itemRepository, never()).searchItems(any(), any());
+    }
+
     @Test
     void testAddComment_ShouldReturnError_WhenBookingNotFound() {
         User user = User.builder()
@@ -434,8 +527,8 @@ public class ItemServiceTest {
                 .available(Boolean.TRUE)
                 .build();
 
-        when(bookingRepository.findAllByItemIdAndBookerId(anyLong(), anyLong(), any()))
-                .thenReturn(Collections.emptyList());
+        when(commentEligibilityIndex.isEligible(anyLong(), anyLong()))
+                .thenReturn(false);
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong()))
@@ -470,17 +563,8 @@ public class ItemServiceTest {
                 .author(user)
                 .build();
 
-        Booking booking = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusDays(1))
-                .end(LocalDateTime.now().plusDays(2))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
-
-        when(bookingRepository.findAllByItemIdAndBookerId(anyLong(), anyLong(), any()))
-                .thenReturn(List.of(booking));
+        when(commentEligibilityIndex.isEligible(anyLong(), anyLong()))
+                .thenReturn(true);
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong()))
@@ -496,8 +580,60 @@ public class ItemServiceTest {
         assertThat(result).isEqualTo(CommentMapper.toCommentDto(comment));
 
         verify(itemRepository, times(1)).findById(anyLong());
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(2)).findById(anyLong());
         verify(commentRepository, times(1)).save(any());
-        verify(bookingRepository, times(1)).findAllByItemIdAndBookerId(anyLong(), anyLong(), any());
+        verify(commentEligibilityIndex, times(1)).isEligible(user.getId(), item.getId());
+    }
+
+    @Test
+    void testGetComments_ShouldReturnPageWithCursor_WhenMoreCommentsExist() {
+        User user = User.builder().id(1L).name("user").email("user@test.com").build();
+        Item item = Item.builder().id(1L).name("Дрель").description("Ударная").available(true).owner(1L).build();
+        List<Comment> comments = List.of(
+                Comment.builder().id(3L).text("третий").item(item).author(user).build(),
+                Comment.builder().id(2L).text("второй").item(item).author(user).build(),
+                Comment.builder().id(1L).text("первый").item(item).author(user).build());
+
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(commentRepository.findNewestByItemId(1L, PageRequest.of(0, 3)))
+                .thenReturn(comments);
+
+        CommentPageDto result = itemService.getComments(1L, 1L, null, 2);
+
+        assertThat(result.getComments()).extracting(CommentDto::getId).containsExactly(3L, 2L);
+        assertThat(result.getNextCursor()).isEqualTo(comments.get(1).getCreated() + "_2");
+    }
+
+    @Test
+    void testGetComments_ShouldUseKeyset_WhenCursorGiven() {
+        User user = User.builder().id(1L).name("user").email("user@test.com").build();
+        Item item = Item.builder().id(1L).name("Дрель").description("Ударная").available(true).owner(1L).build();
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123000);
+
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(commentRepository.findByItemIdBefore(1L, created, 7L, PageRequest.of(0, 11)))
+                .thenReturn(List.of());
+
+        CommentPageDto result = itemService.getComments(1L, 1L, created + "_7", 10);
+
+        assertThat(result.getComments()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+        verify(commentRepository, never()).findNewestByItemId(anyLong(), any());
+    }
+
+    @Test
+    void testGetComments_ShouldReturnError_WhenCursorIsBroken() {
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(User.builder().id(1L).name("user").email("user@test.com").build()));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(Item.builder().id(1L).build()));
+
+        assertThrows(ValidationException.class, () -> itemService.getComments(1L, 1L, "broken", 10));
     }
 }
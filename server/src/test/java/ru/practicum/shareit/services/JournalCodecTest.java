@@ -0,0 +1,60 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.storage.JournalCodec;
+import ru.practicum.shareit.storage.JournalRecord;
+import ru.practicum.shareit.storage.JournalRecordMapper;
+import ru.practicum.shareit.storage.JournalRecordType;
+import ru.practicum.shareit.user.model.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JournalCodecTest {
+    @Test
+    void testEncode_ShouldRoundTripUser() {
+        User user = User.builder().id(7L).name("Ёжик").email("ezhik@test.com").build();
+
+        JournalRecord record = JournalCodec.decode(JournalCodec.encode(JournalRecordMapper.toRecord(user)));
+
+        assertThat(record.getType()).isEqualTo(JournalRecordType.USER_PUT);
+        assertThat(JournalRecordMapper.toUser(record))
+                .extracting(User::getId, User::getName, User::getEmail)
+                .containsExactly(7L, "Ёжик", "ezhik@test.com");
+    }
+
+    @Test
+    void testEncode_ShouldRoundTripItemWithRequest() {
+        Item item = Item.builder().id(3L).name("Дрель").description("Ударная").available(false).owner(7L)
+                .request(ItemRequest.builder().id(11L).build()).build();
+
+        Item decoded = JournalRecordMapper.toItem(JournalCodec.decode(JournalCodec.encode(JournalRecordMapper.toRecord(item))));
+
+        assertThat(decoded)
+                .extracting(Item::getId, Item::getName, Item::getDescription, Item::getAvailable, Item::getOwner)
+                .containsExactly(3L, "Дрель", "Ударная", false, 7L);
+        assertThat(decoded.getRequest().getId()).isEqualTo(11L);
+    }
+
+    @Test
+    void testEncode_ShouldKeepNullFields() {
+        JournalRecord record = JournalRecordMapper.toDeleteRecord(Item.builder().id(3L).name("Дрель").build());
+
+        JournalRecord decoded = JournalCodec.decode(JournalCodec.encode(record));
+
+        assertThat(decoded).isEqualTo(JournalRecord.builder().type(JournalRecordType.ITEM_DELETE).id(3L).build());
+    }
+
+    @Test
+    void testEncode_ShouldRoundTripStringLongerThan64Kb() {
+        String description = "ш".repeat(70_000);
+        JournalRecord record = JournalRecordMapper.toRecord(Item.builder().id(1L).name("Длинное")
+                .description(description).available(true).owner(1L).build());
+
+        JournalRecord decoded = JournalCodec.decode(JournalCodec.encode(record));
+
+        assertThat(decoded.getDescription()).isEqualTo(description);
+        assertThat(decoded).isEqualTo(record);
+    }
+}
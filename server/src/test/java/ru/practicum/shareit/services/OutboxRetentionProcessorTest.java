@@ -0,0 +1,50 @@
+package ru.practicum.shareit.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.outbox.service.OutboxRetentionProcessor;
+import ru.practicum.shareit.outbox.storage.OutboxRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class OutboxRetentionProcessorTest {
+    private OutboxRepository outboxRepository;
+    private OutboxRetentionProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        processor = new OutboxRetentionProcessor(outboxRepository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), Duration.ofDays(7), 2, 20);
+    }
+
+    @Test
+    void testPruneProcessedEvents_ShouldDeleteInBatches_AndKeepLatestChangeSeq() {
+        when(outboxRepository.findMaxChangeSeq()).thenReturn(10L);
+        when(outboxRepository.findProcessedIdsBefore(any(), eq(10L), any()))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        processor.pruneProcessedEvents();
+
+        verify(outboxRepository, times(2)).findProcessedIdsBefore(any(), eq(10L), any());
+        verify(outboxRepository, times(1)).deleteAllByIds(List.of(1L, 2L));
+        verify(outboxRepository, times(1)).deleteAllByIds(List.of(3L));
+    }
+
+    @Test
+    void testPruneProcessedEvents_ShouldNotDelete_WhenNothingExpired() {
+        when(outboxRepository.findProcessedIdsBefore(any(), anyLong(), any())).thenReturn(List.of());
+
+        processor.pruneProcessedEvents();
+
+        verify(outboxRepository, never()).deleteAllByIds(any());
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.ReadYourWritesGuard;
+import ru.practicum.shareit.config.SharerUserFilter;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "shareit.datasource.routing.enabled=true",
+        "shareit.datasource.routing.read-your-writes-window=PT1M",
+        "shareit.datasource.replica.urls=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1"
+})
+public class ReadWriteRoutingDataSourceTest {
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadYourWritesGuard guard;
+
+    @Autowired
+    private SharerUserFilter filter;
+
+    @Test
+    void testRouting_ShouldUseReplica_WhenTransactionIsReadOnly() {
+        assertTrue(currentUrl(true).contains("replica"));
+    }
+
+    @Test
+    void testRouting_ShouldUsePrimary_WhenTransactionWrites() {
+        assertTrue(currentUrl(false).contains("shareit"));
+    }
+
+    @Test
+    void testRouting_ShouldPinUserToPrimary_AfterWrite() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(SharerUserFilter.USER_HEADER, "42");
+        AtomicReference<String> readAfterWrite = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            currentUrl(false);
+            readAfterWrite.set(currentUrl(true));
+        });
+
+        assertTrue(guard.isPinned(42L));
+        assertFalse(guard.isPinned(43L));
+        assertTrue(readAfterWrite.get().contains("shareit"));
+    }
+
+    @Test
+    void testRouting_ShouldUseReplica_WhenOtherUserWrote() throws Exception {
+        guard.recordWrite(7L);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(SharerUserFilter.USER_HEADER, "8");
+        AtomicReference<String> read = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> read.set(currentUrl(true)));
+
+        assertTrue(read.get().contains("replica"));
+    }
+
+    private String currentUrl(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try {
+                return connection.getMetaData().getURL();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.request.matching.OpenRequest;
+import ru.practicum.shareit.request.matching.RequestCandidate;
+import ru.practicum.shareit.request.matching.RequestTermIndex;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class RequestTermIndexTest {
+    private RequestTermIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RequestTermIndex(mock(ItemRequestRepository.class), mock(PlatformTransactionManager.class),
+                true, 1000);
+        index.addAfterCommit(new OpenRequest(1L, 10L, "Нужна дрель для ремонта"));
+        index.addAfterCommit(new OpenRequest(2L, 20L, "Ищу аккумуляторную дрель и набор бит"));
+        index.addAfterCommit(new OpenRequest(3L, 30L, "Палатка на двоих"));
+    }
+
+    @Test
+    void testMatch_ShouldRankByCommonTerms_IgnoringCaseAndEndings() {
+        List<RequestCandidate> candidates = index.match("ДРЕЛИ аккумуляторные", 99L, 1, 10);
+
+        assertThat(candidates).extracting(RequestCandidate::getRequestId).containsExactly(2L, 1L);
+        assertThat(candidates.get(0).getScore()).isEqualTo(2);
+    }
+
+    @Test
+    void testMatch_ShouldSkipOwnRequests() {
+        List<RequestCandidate> candidates = index.match("Дрель", 10L, 1, 10);
+
+        assertThat(candidates).extracting(RequestCandidate::getRequestId).containsExactly(2L);
+    }
+
+    @Test
+    void testRemove_ShouldDropFulfilledRequest() {
+        index.removeAfterCommit(2L);
+
+        assertThat(index.match("дрель", 99L, 1, 10)).extracting(RequestCandidate::getRequestId).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.CacheRegions;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class SecondLevelCacheTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder()
+                .name("cache")
+                .email(UUID.randomUUID() + "@test.com")
+                .build());
+    }
+
+    @Test
+    void testFindById_ShouldHitCache_WhenItemWasLoadedBefore() {
+        Item item = saveItem("дрель", false);
+        itemRepository.findById(item.getId());
+        long hitsBefore = statistics.getDomainDataRegionStatistics(CacheRegions.ITEM).getHitCount();
+
+        itemRepository.findById(item.getId());
+
+        assertThat(statistics.getDomainDataRegionStatistics(CacheRegions.ITEM).getHitCount())
+                .isGreaterThan(hitsBefore);
+        assertThat(meterRegistry.get("shareit.cache.hit-ratio").tag("region", CacheRegions.ITEM).gauge().value())
+                .isGreaterThan(0.0);
+    }
+
+    @Test
+    void testFindById_ShouldReturnFreshItem_AfterBulkUpdate() {
+        Item item = saveItem("пила", false);
+        itemRepository.findById(item.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                itemRepository.updateItemAvailableById(item.getId(), true));
+
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getAvailable()).isTrue();
+    }
+
+    @Test
+    void testFindAllByOwner_ShouldUseQueryCache_AndSeeNewItems() {
+        saveItem("молоток", true);
+        PageRequest page = PageRequest.of(0, 10);
+        itemRepository.findAllByOwner(owner.getId(), page);
+        long hitsBefore = statistics.getQueryRegionStatistics(CacheRegions.ITEMS_BY_OWNER).getHitCount();
+
+        assertThat(itemRepository.findAllByOwner(owner.getId(), page)).hasSize(1);
+        assertThat(statistics.getQueryRegionStatistics(CacheRegions.ITEMS_BY_OWNER).getHitCount())
+                .isGreaterThan(hitsBefore);
+
+        saveItem("отвертка", true);
+
+        assertThat(itemRepository.findAllByOwner(owner.getId(), page)).hasSize(2);
+    }
+
+    private Item saveItem(String name, boolean available) {
+        return itemRepository.save(Item.builder()
+                .name(name)
+                .description(name)
+                .available(available)
+                .owner(owner.getId())
+                .build());
+    }
+}
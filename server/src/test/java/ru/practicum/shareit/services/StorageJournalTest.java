@@ -0,0 +1,148 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.shareit.exceptions.ServiceUnavailableException;
+import ru.practicum.shareit.storage.FsyncPolicy;
+import ru.practicum.shareit.storage.JournalRecord;
+import ru.practicum.shareit.storage.JournalRecordType;
+import ru.practicum.shareit.storage.StorageJournal;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StorageJournalTest {
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testReplay_ShouldReturnAllRecords_AfterRestart_WithPerWrite() {
+        assertReplayAfterRestart(FsyncPolicy.PER_WRITE);
+    }
+
+    @Test
+    void testReplay_ShouldReturnAllRecords_AfterRestart_WithGroupCommit() {
+        assertReplayAfterRestart(FsyncPolicy.GROUP_COMMIT);
+    }
+
+    @Test
+    void testReplay_ShouldReturnAllRecords_AfterRestart_WithInterval() {
+        assertReplayAfterRestart(FsyncPolicy.INTERVAL);
+    }
+
+    @Test
+    void testReplay_ShouldStopAtTornTail() throws Exception {
+        StorageJournal journal = journal(FsyncPolicy.PER_WRITE, Duration.ofMillis(1), Duration.ofSeconds(5));
+        journal.open(1);
+        long end = 0;
+        for (long id = 1; id <= 3; id++) {
+            end = append(journal, user(id));
+        }
+        journal.close();
+        Path file;
+        try (Stream<Path> files = Files.list(dir)) {
+            file = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), end - 1);
+        }
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        int count = journal.replay(1, replayed::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(replayed).extracting(JournalRecord::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testSync_ShouldFail_WhenFlushDoesNotHappenInTime() {
+        StorageJournal journal = journal(FsyncPolicy.GROUP_COMMIT, Duration.ofHours(1), Duration.ofMillis(50));
+        journal.open(1);
+        long position = append(journal, user(1L));
+
+        assertThrows(ServiceUnavailableException.class, () -> journal.sync(position));
+        journal.close();
+    }
+
+    @Test
+    void testAppend_ShouldFail_WhenJournalNotOpened() {
+        StorageJournal journal = journal(FsyncPolicy.PER_WRITE, Duration.ofMillis(1), Duration.ofSeconds(5));
+
+        assertThrows(IllegalStateException.class, () -> append(journal, user(1L)));
+        journal.close();
+    }
+
+    @Test
+    void testDeleteUpTo_ShouldKeepLaterGenerations() {
+        StorageJournal journal = journal(FsyncPolicy.PER_WRITE, Duration.ofMillis(1), Duration.ofSeconds(5));
+        journal.open(1);
+        journal.lock();
+        try {
+            journal.rotate();
+            journal.rotate();
+        } finally {
+            journal.unlock();
+        }
+
+        journal.deleteUpTo(2);
+
+        assertThat(journal.getGenerations()).containsExactly(3L);
+        journal.close();
+    }
+
+    private void assertReplayAfterRestart(FsyncPolicy policy) {
+        StorageJournal journal = journal(policy, Duration.ofMillis(1), Duration.ofSeconds(5));
+        journal.open(1);
+        // Больше одного сегмента, чтобы проверить и переотображение файла.
+        for (long id = 1; id <= 200; id++) {
+            journal.sync(append(journal, user(id)));
+        }
+        journal.close();
+
+        StorageJournal restarted = journal(policy, Duration.ofMillis(1), Duration.ofSeconds(5));
+        List<JournalRecord> replayed = new ArrayList<>();
+        int count = restarted.replay(1, replayed::add);
+        restarted.close();
+
+        assertThat(count).isEqualTo(200);
+        assertThat(replayed.stream().map(JournalRecord::getId).collect(Collectors.toList()))
+                .startsWith(1L, 2L)
+                .endsWith(200L);
+        assertThat(replayed.get(41)).isEqualTo(user(42L));
+    }
+
+    private StorageJournal journal(FsyncPolicy policy, Duration fsyncInterval, Duration syncTimeout) {
+        return new StorageJournal(true, dir.toString(), policy, fsyncInterval, SEGMENT_SIZE, syncTimeout);
+    }
+
+    private static long append(StorageJournal journal, JournalRecord record) {
+        journal.lock();
+        try {
+            return journal.append(record);
+        } finally {
+            journal.unlock();
+        }
+    }
+
+    private static JournalRecord user(Long id) {
+        return JournalRecord.builder()
+                .type(JournalRecordType.USER_PUT)
+                .id(id)
+                .name("user" + id)
+                .email("user" + id + "@test.com")
+                .build();
+    }
+}
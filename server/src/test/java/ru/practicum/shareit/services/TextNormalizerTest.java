@@ -0,0 +1,52 @@
+package ru.practicum.shareit.services;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.utilities.TextNormalizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TextNormalizerTest {
+    @Test
+    void testFold_ShouldLowerLatinAndCyrillic() {
+        assertThat(new String(TextNormalizer.fold("ДРЕЛЬ Ударная DRILL 42"))).isEqualTo("дрель ударная drill 42");
+    }
+
+    @Test
+    void testFold_ShouldFoldYoToLowerYo_AndKeepItDistinctFromYe() {
+        assertThat(new String(TextNormalizer.fold("Ёлка"))).isEqualTo("ёлка");
+        assertThat(TextNormalizer.contains(TextNormalizer.fold("Новогодняя Ёлка"), TextNormalizer.fold("ёЛК"))).isTrue();
+        assertThat(TextNormalizer.contains(TextNormalizer.fold("Новогодняя Ёлка"), TextNormalizer.fold("елк"))).isFalse();
+    }
+
+    @Test
+    void testFold_ShouldKeepDiacritics() {
+        assertThat(new String(TextNormalizer.fold("CAFÉ"))).isEqualTo("café");
+        assertThat(TextNormalizer.contains(TextNormalizer.fold("Café"), TextNormalizer.fold("CAFÉ"))).isTrue();
+        assertThat(TextNormalizer.contains(TextNormalizer.fold("Café"), TextNormalizer.fold("cafe"))).isFalse();
+    }
+
+    @Test
+    void testFold_ShouldMapCaseVariantsToOneForm() {
+        // Через верхний регистр: греческая конечная сигма и длинная s совпадают с обычными буквами.
+        assertThat(TextNormalizer.fold('ς')).isEqualTo(TextNormalizer.fold('Σ'));
+        assertThat(TextNormalizer.fold('ſ')).isEqualTo('s');
+    }
+
+    @Test
+    void testContains_ShouldMatchEmptyNeedle() {
+        assertThat(TextNormalizer.contains(TextNormalizer.fold("Дрель"), new char[0])).isTrue();
+        assertThat(TextNormalizer.contains(new char[0], new char[0])).isTrue();
+    }
+
+    @Test
+    void testContains_ShouldNotMatchNeedleLongerThanText() {
+        assertThat(TextNormalizer.contains(TextNormalizer.fold("дре"), TextNormalizer.fold("дрель"))).isFalse();
+        assertThat(TextNormalizer.contains(new char[0], TextNormalizer.fold("д"))).isFalse();
+    }
+
+    @Test
+    void testContains_ShouldFindMatchAfterPartialOne() {
+        assertThat(TextNormalizer.contains(TextNormalizer.fold("ддрель"), TextNormalizer.fold("дрель"))).isTrue();
+        assertThat(TextNormalizer.contains(TextNormalizer.fold("палатка"), TextNormalizer.fold("тка"))).isTrue();
+    }
+}
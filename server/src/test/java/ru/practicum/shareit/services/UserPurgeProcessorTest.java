@@ -0,0 +1,170 @@
+package ru.practicum.shareit.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoBulkResult;
+import ru.practicum.shareit.booking.dto.BookingDtoPartial;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoExtra;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestPartial;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserPurgeProcessor;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "shareit.user.purge.batch-size=1")
+public class UserPurgeProcessorTest {
+    @Autowired
+    private UserPurgeProcessor userPurgeProcessor;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testDeleteUser_ShouldHideUserAtOnce_AndPurgeDependentRowsInBackground() {
+        String email = UUID.randomUUID() + "@test.com";
+        UserDto owner = userService.addUser(UserDto.builder().name("owner").email(email).build());
+        UserDto other = userService.addUser(UserDto.builder().name("other").email(UUID.randomUUID() + "@test.com").build());
+        ItemDto ownerItem = itemService.addItem(ItemDto.builder().name("Дрель").description("Ударная").available(true).build(),
+                owner.getId());
+        ItemDto otherItem = itemService.addItem(ItemDto.builder().name("Палатка").description("Двухместная").available(true).build(),
+                other.getId());
+        ItemRequestDto request = itemRequestService.addRequest(ItemRequestPartial.builder().description("Нужен велосипед").build(),
+                owner.getId());
+        ItemDto answer = itemService.addItem(ItemDto.builder().name("Велосипед").description("Горный").available(true)
+                .requestId(request.getId()).build(), other.getId());
+        User ownerEntity = userRepository.findById(owner.getId()).orElseThrow();
+        User otherEntity = userRepository.findById(other.getId()).orElseThrow();
+        Booking ownBooking = saveBooking(itemRepository.findById(otherItem.getId()).orElseThrow(), ownerEntity);
+        Booking foreignBooking = saveBooking(itemRepository.findById(ownerItem.getId()).orElseThrow(), otherEntity);
+        Comment comment = commentRepository.save(Comment.builder()
+                .text("Отличная палатка")
+                .item(itemRepository.findById(otherItem.getId()).orElseThrow())
+                .author(ownerEntity)
+                .build());
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.getUserById(owner.getId()));
+        assertThat(userService.addUser(UserDto.builder().name("new").email(email.toUpperCase()).build()).getId())
+                .isNotEqualTo(owner.getId());
+
+        userPurgeProcessor.purgeDeletedUsers();
+
+        assertThat(itemRepository.findById(ownerItem.getId())).isEmpty();
+        assertThat(itemRequestRepository.findById(request.getId())).isEmpty();
+        assertThat(bookingRepository.findById(ownBooking.getId())).isEmpty();
+        assertThat(bookingRepository.findById(foreignBooking.getId())).isEmpty();
+        assertThat(commentRepository.findById(comment.getId())).isEmpty();
+        assertThat(itemRepository.findById(otherItem.getId())).isPresent();
+        assertThat(itemRepository.findById(answer.getId()).orElseThrow().getRequest()).isNull();
+        assertThat(meterRegistry.get("shareit.user.purge.rows").tag("step", "users").counter().count())
+                .isGreaterThanOrEqualTo(1.0);
+        assertThat(meterRegistry.get("shareit.user.purge.pending").gauge().value())
+                .isEqualTo((double) userRepository.countDeleted());
+    }
+
+    @Test
+    void testDeleteUser_ShouldHideUserRowsFromOtherUsers_UntilPurge() {
+        String name = "Пила " + UUID.randomUUID();
+        UserDto owner = userService.addUser(UserDto.builder().name("owner").email(UUID.randomUUID() + "@test.com").build());
+        UserDto other = userService.addUser(UserDto.builder().name("other").email(UUID.randomUUID() + "@test.com").build());
+        ItemDto ownerItem = itemService.addItem(ItemDto.builder().name(name).description("Цепная").available(true).build(),
+                owner.getId());
+        ItemDto otherItem = itemService.addItem(ItemDto.builder().name("Лодка").description("Надувная").available(true).build(),
+                other.getId());
+        ItemRequestDto request = itemRequestService.addRequest(ItemRequestPartial.builder().description("Нужен топор").build(),
+                owner.getId());
+        User ownerEntity = userRepository.findById(owner.getId()).orElseThrow();
+        User otherEntity = userRepository.findById(other.getId()).orElseThrow();
+        Booking ownBooking = saveBooking(itemRepository.findById(otherItem.getId()).orElseThrow(), ownerEntity);
+        Booking foreignBooking = saveBooking(itemRepository.findById(ownerItem.getId()).orElseThrow(), otherEntity);
+        commentRepository.save(Comment.builder()
+                .text("Хорошая лодка")
+                .item(itemRepository.findById(otherItem.getId()).orElseThrow())
+                .author(ownerEntity)
+                .build());
+
+        userService.deleteUser(owner.getId());
+
+        ItemDtoExtra item = itemService.getItemById(otherItem.getId(), other.getId());
+        assertThat(item.getComments()).isEmpty();
+        assertThat(item.getCommentsCount()).isZero();
+        assertThat(item.getLastBooking()).isNull();
+        assertThat(item.getNextBooking()).isNull();
+        assertThat(itemService.getComments(otherItem.getId(), other.getId(), null, 10).getComments()).isEmpty();
+        assertThat(bookingService.getAllBookingsOwner(other.getId(), "ALL", PageRequest.of(0, 100)))
+                .extracting(BookingDto::getId)
+                .doesNotContain(ownBooking.getId());
+        assertThat(bookingService.getAllBookings(other.getId(), "ALL", PageRequest.of(0, 100)))
+                .extracting(BookingDto::getId)
+                .doesNotContain(foreignBooking.getId());
+        assertThrows(NotFoundException.class, () -> bookingService.getBookingById(ownBooking.getId(), other.getId()));
+        assertThat(bookingService.updateBookings(List.of(ownBooking.getId()), other.getId(), true))
+                .extracting(BookingDtoBulkResult::getError)
+                .containsExactly("Бронирование не найдено.");
+        assertThrows(NotFoundException.class, () -> bookingService.addBooking(BookingDtoPartial.builder()
+                .itemId(ownerItem.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build(), other.getId()));
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(ownerItem.getId(), other.getId()));
+        assertThat(itemService.searchItems(name, PageRequest.of(0, 10))).isEmpty();
+        assertThat(itemRequestService.getAllRequests(other.getId(), PageRequest.of(0, 100)))
+                .extracting(ItemRequestDto::getId)
+                .doesNotContain(request.getId());
+    }
+
+    private Booking saveBooking(Item item, User booker) {
+        return bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .ownerId(item.getOwner())
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+}
@@ -4,8 +4,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -19,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -44,6 +49,43 @@ public class UserServiceTest {
         verify(userRepository, times(1)).save(any());
     }
 
+    @Test
+    void testAddUser_ShouldReturnConflict_WhenUniqueIndexViolated() {
+        User user = User.builder()
+                .name("test")
+                .email("Index@Test.com")
+                .build();
+
+        doThrow(new DataIntegrityViolationException("could not execute statement; constraint [uk_users_email_normalized]"))
+                .when(userRepository).flush();
+
+        assertThrows(ConflictException.class, () -> userService.addUser(UserMapper.toUserDto(user)));
+        verify(userRepository, never()).existsByEmailNormalized(anyString());
+        verify(userRepository, times(1)).save(any());
+    }
+
+    @Test
+    void testAddUser_ShouldNotSave_WhenFilterAndRepositoryFindEmail() {
+        User user = User.builder()
+                .id(1L)
+                .name("test")
+                .email("filter@test.com")
+                .build();
+        when(userRepository.save(any()))
+                .thenReturn(user);
+        userService.addUser(UserMapper.toUserDto(user));
+        when(userRepository.existsByEmailNormalized("filter@test.com"))
+                .thenReturn(true);
+
+        User sameEmail = User.builder()
+                .name("other")
+                .email("FILTER@test.com")
+                .build();
+
+        assertThrows(ConflictException.class, () -> userService.addUser(UserMapper.toUserDto(sameEmail)));
+        verify(userRepository, times(1)).save(any());
+    }
+
     @Test
     void testAddUser_ShouldReturnUser_WhenUserExists() {
         User user = User.builder()
@@ -87,6 +129,8 @@ public class UserServiceTest {
 
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
+        when(userRepository.save(any()))
+                .thenReturn(user);
 
         UserDto userAdded = UserMapper.toUserDto(user);
         UserDto result = userService.updateUser(1L, UserMapper.toUserDto(user));
@@ -129,14 +173,21 @@ public class UserServiceTest {
                 .email("test@test.com")
                 .build();
 
-        when(userRepository.findAll())
+        when(userRepository.findAllBy(PageRequest.of(2, 5, Sort.by("id"))))
                 .thenReturn(List.of(user));
 
         List<UserDto> usersAdded = List.of(UserMapper.toUserDto(user));
-        List<UserDto> result = userService.getAllUsers();
+        List<UserDto> result = userService.getAllUsers(PageRequest.of(2, 5));
 
         assertThat(result).usingRecursiveComparison().isEqualTo(usersAdded);
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllBy(any());
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetAllUsers_ShouldReturnError_WhenPageTooLarge() {
+        assertThrows(ValidationException.class, () -> userService.getAllUsers(PageRequest.of(0, 1001)));
+        verify(userRepository, never()).findAllBy(any());
     }
 
     @Test
@@ -167,8 +218,21 @@ public class UserServiceTest {
     }
 
     @Test
-    void testDeleteUser_ShouldUseRep1Time_WhenUserDeleted() {
+    void testDeleteUser_ShouldOnlyMarkUser_WhenUserDeleted() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(User.builder().id(1L).name("test").email("test@test.com").build()));
+
         userService.deleteUser(1L);
-        verify(userRepository, times(1)).deleteById(anyLong());
+        verify(userRepository, times(1)).markDeleted(1L);
+        verify(userRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    void testDeleteUser_ShouldReturnError_WhenUserNotFound() {
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> userService.deleteUser(1L));
+        verify(userRepository, never()).markDeleted(anyLong());
     }
 }